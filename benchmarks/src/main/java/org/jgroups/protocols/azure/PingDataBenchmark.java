@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jgroups.protocols.PingData;
+import org.jgroups.stack.IpAddress;
+import org.jgroups.util.ByteArray;
+import org.jgroups.util.UUID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the per-file costs of {@link AZURE_PING} which do not involve the storage service: marshalling and parsing of ping data
+ * and conversion of cluster names and addresses into blob names.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PingDataBenchmark {
+
+    @Benchmark
+    public ByteArray serialize(final Data data) throws Exception {
+        return data.ping.serialize(data.list);
+    }
+
+    @Benchmark
+    public List<PingData> parsePingData(final Data data) {
+        return data.ping.parsePingData(data.bytes);
+    }
+
+    @Benchmark
+    public String addressToFilename(final Names names) {
+        return AZURE_PING.addressToFilename(names.clustername, names.address);
+    }
+
+    @Benchmark
+    public String getSanitizedPrefix(final Names names) {
+        return AZURE_PING.getSanitizedPrefix(names.clustername);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Data {
+
+        /**
+         * Number of entries per ping data file; members write only their own entry unless they write their whole discovery cache.
+         */
+        @Param({"1", "10", "100"})
+        int entries;
+
+        final AZURE_PING ping = new AZURE_PING();
+        List<PingData> list;
+        byte[] bytes;
+
+        @Setup
+        public void setup() throws Exception {
+            list = new ArrayList<>(entries);
+            for (int i = 0; i < entries; i++) {
+                list.add(new PingData(UUID.randomUUID(), i == 0, "member-" + i, new IpAddress("10.0." + (i / 256) + "." + (i % 256), 7800)));
+            }
+            bytes = ping.serialize(list).copy().array();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Names {
+
+        @Param({"benchmark-cluster", "web/app\\cluster"})
+        String clustername;
+
+        final UUID address = UUID.randomUUID();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jgroups.JChannel;
+import org.jgroups.protocols.PingData;
+import org.jgroups.protocols.SHARED_LOOPBACK;
+import org.jgroups.protocols.UNICAST3;
+import org.jgroups.protocols.pbcast.GMS;
+import org.jgroups.protocols.pbcast.NAKACK2;
+import org.jgroups.stack.IpAddress;
+import org.jgroups.util.Responses;
+import org.jgroups.util.UUID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link AZURE_PING#readAll} over a cluster of simulated members, each with its own ping data file, stored in an
+ * {@link InMemoryBlobService} which adds the given latency to each request. The ping data cache is disabled so that every
+ * invocation lists and downloads all files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReadAllBenchmark {
+
+    private static final String CONTAINER = "benchmark";
+    private static final String CLUSTER = "members";
+
+    @Param({"10", "100", "1000"})
+    int members;
+
+    /**
+     * Latency added to each storage request in milliseconds.
+     */
+    @Param({"0", "2"})
+    long latency;
+
+    @Param({"1", "16"})
+    int maxConcurrentDownloads;
+
+    private JChannel channel;
+    private AZURE_PING ping;
+
+    @Setup
+    public void setup() throws Exception {
+        InMemoryBlobService service = new InMemoryBlobService();
+
+        ping = new AZURE_PING();
+        ping.httpClient = service;
+        ping.connection_string = InMemoryBlobService.CONNECTION_STRING;
+        ping.container = CONTAINER;
+        ping.max_concurrent_downloads = maxConcurrentDownloads;
+        ping.ping_data_cache_size = 0;
+        channel = new JChannel(new SHARED_LOOPBACK(), ping, new NAKACK2(), new UNICAST3(), new GMS());
+        channel.connect(ReadAllBenchmark.class.getSimpleName());
+
+        for (int i = 0; i < members; i++) {
+            UUID address = UUID.randomUUID();
+            PingData data = new PingData(address, i == 0, "member-" + i, new IpAddress("10.0." + (i / 256) + "." + (i % 256), 7800));
+            service.put(CONTAINER, AZURE_PING.addressToFilename(CLUSTER, address), ping.serialize(List.of(data)).copy().array());
+        }
+        service.latency(latency, TimeUnit.MILLISECONDS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.close();
+    }
+
+    @Benchmark
+    public Responses readAll() {
+        Responses responses = new Responses(false);
+        ping.readAll(null, CLUSTER, responses);
+        return responses;
+    }
+}
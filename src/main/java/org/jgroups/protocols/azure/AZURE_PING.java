@@ -16,27 +16,93 @@
 
 package org.jgroups.protocols.azure;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
+import com.azure.core.credential.TokenCredential;
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpClientProvider;
+import com.azure.core.http.rest.PagedResponse;
+import com.azure.core.http.rest.Response;
 import com.azure.core.util.BinaryData;
+import com.azure.core.util.Context;
+import com.azure.core.util.HttpClientOptions;
 import com.azure.identity.DefaultAzureCredentialBuilder;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.models.BlobDownloadResponse;
+import com.azure.storage.blob.models.BlobErrorCode;
 import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobListDetails;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.BlockBlobItem;
 import com.azure.storage.blob.models.ListBlobsOptions;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
 import com.azure.storage.common.StorageSharedKeyCredential;
+import com.azure.storage.common.policy.RequestRetryOptions;
+import com.azure.storage.common.policy.RetryPolicyType;
 import org.jgroups.Address;
+import org.jgroups.Event;
+import org.jgroups.PhysicalAddress;
+import org.jgroups.View;
+import org.jgroups.annotations.ManagedAttribute;
 import org.jgroups.annotations.Property;
+import org.jgroups.conf.AttributeType;
 import org.jgroups.conf.ClassConfigurator;
 import org.jgroups.logging.Log;
 import org.jgroups.logging.LogFactory;
 import org.jgroups.protocols.FILE_PING;
 import org.jgroups.protocols.PingData;
+import org.jgroups.protocols.azure.StorageMetrics.Operation;
+import org.jgroups.util.ByteArray;
+import org.jgroups.util.ByteArrayDataInputStream;
+import org.jgroups.util.ByteArrayDataOutputStream;
+import org.jgroups.util.NameCache;
 import org.jgroups.util.Responses;
+import org.jgroups.util.ThreadCreator;
+import org.jgroups.util.ThreadFactory;
+import org.jgroups.util.TimeScheduler;
+import org.jgroups.util.UUID;
+import org.jgroups.util.Util;
 
 /**
  * Implementation of a {@link org.jgroups.protocols.Discovery} protocol for Microsoft Azure using Blob Service as cluster information store.
@@ -71,194 +137,2542 @@ public class AZURE_PING extends FILE_PING {
 
     @Property(description = "The endpointSuffix to use.",
             systemProperty = "JGROUPS_AZURE_ENDPOINT_SUFFIX")
-    protected String endpoint_suffix = DEFAULT_ENDPOINT_SUFFIX;
+    protected String endpoint_suffix = StorageAccountSettings.DEFAULT_ENDPOINT_SUFFIX;
 
     @Property(description = "The full blob service endpoint URI. When set, overrides use_https and endpoint_suffix.",
             systemProperty = "JGROUPS_AZURE_BLOB_STORAGE_URI",
             exposeAsManagedAttribute = false)
     protected String blob_storage_uri;
 
-    private static final String DEFAULT_ENDPOINT_SUFFIX = "core.windows.net";
+    @Property(description = "Maximum number of ping data files downloaded concurrently during discovery. " +
+            "Values of 1 or lower download the files sequentially on the discovery thread.",
+            systemProperty = "JGROUPS_AZURE_MAX_CONCURRENT_DOWNLOADS")
+    protected int max_concurrent_downloads = 1;
+
+    @Property(description = "Deadline (in ms) for reading all ping data files of a cluster during discovery. " +
+            "Files not read by then are left out of the discovery responses. 0 disables the deadline.",
+            systemProperty = "JGROUPS_AZURE_READ_ALL_TIMEOUT",
+            type = AttributeType.TIME)
+    protected long read_all_timeout;
+
+    @Property(description = "If true, discovery reads of a cluster started while another one is in flight wait for it and share its ping data " +
+            "instead of reading all ping data files again. Reads are shared between instances of the JVM which share their HTTP client; see share_client.",
+            systemProperty = "JGROUPS_AZURE_COALESCE_READS")
+    protected boolean coalesce_reads;
+
+    @Property(description = "Time (in ms) after its completion during which the ping data of a coalesced discovery read are reused by further reads. " +
+            "0 only shares reads in flight.",
+            systemProperty = "JGROUPS_AZURE_READ_REUSE_WINDOW",
+            type = AttributeType.TIME)
+    protected long read_reuse_window;
+
+    @Property(description = "If true, members keep their own ping data file, whose metadata hold their region and availability zone, " +
+            "and discovery adds the responses of members in the same zone first, followed by those in the same region.",
+            systemProperty = "JGROUPS_AZURE_ZONE_AWARE")
+    protected boolean zone_aware;
+
+    @Property(description = "Region of this member, e.g. westeurope. When not set, it is queried from the Azure Instance Metadata Service " +
+            "if zone_aware is enabled.",
+            systemProperty = "JGROUPS_AZURE_REGION")
+    protected String region;
+
+    @Property(description = "Availability zone of this member, named after its region, e.g. westeurope-2. When not set, it is queried " +
+            "from the Azure Instance Metadata Service if zone_aware is enabled.",
+            systemProperty = "JGROUPS_AZURE_ZONE")
+    protected String zone;
+
+    @Property(description = "URI of the compute metadata of the Azure Instance Metadata Service, queried for the region and zone of this member.",
+            systemProperty = "JGROUPS_AZURE_INSTANCE_METADATA_URI",
+            exposeAsManagedAttribute = false)
+    protected String instance_metadata_uri = Placement.INSTANCE_METADATA_URI;
+
+    @Property(description = "If true, the coordinator also maintains a single blob with the ping data of all members, " +
+            "which is read first during discovery before falling back to reading the ping data files of all members.",
+            systemProperty = "JGROUPS_AZURE_USE_AGGREGATE_BLOB")
+    protected boolean use_aggregate_blob;
+
+    @Property(description = "Maximum age (in ms) of the aggregate blob for it to be used during discovery. " +
+            "The coordinator rewrites the aggregate blob at half of this interval.",
+            systemProperty = "JGROUPS_AZURE_AGGREGATE_BLOB_MAX_AGE",
+            type = AttributeType.TIME)
+    protected long aggregate_blob_max_age = 60_000;
+
+    @Property(description = "Maximum number of parsed ping data files cached between discoveries. " +
+            "Files whose ETag did not change since they were cached are not downloaded again. 0 disables the cache.",
+            systemProperty = "JGROUPS_AZURE_PING_DATA_CACHE_SIZE")
+    protected int ping_data_cache_size = 1000;
+
+    @Property(description = "If true, ping data are also stored in the blob metadata so that discovery can read them from the listing " +
+            "without downloading each file. Ping data exceeding the metadata size limit are only stored in the file.",
+            systemProperty = "JGROUPS_AZURE_USE_METADATA")
+    protected boolean use_metadata;
+
+    @Property(description = "If true, ping data are only uploaded when they differ from the last uploaded ping data, " +
+            "and changed ping data only overwrite the file if it was not modified since the last upload.",
+            systemProperty = "JGROUPS_AZURE_SKIP_UNCHANGED_WRITES")
+    protected boolean skip_unchanged_writes;
+
+    @Property(description = "If true and the optional 'com.azure:azure-storage-blob-batch' dependency is on the classpath, " +
+            "ping data files are deleted in batches when all ping data of a cluster are removed.",
+            systemProperty = "JGROUPS_AZURE_USE_BATCH_DELETE")
+    protected boolean use_batch_delete = true;
+
+    @Property(description = "If true, maintenance operations such as removing all ping data of a cluster are only run by the member " +
+            "holding the lease on a per-cluster lock blob; other members skip them.",
+            systemProperty = "JGROUPS_AZURE_USE_MAINTENANCE_LEASE")
+    protected boolean use_maintenance_lease;
+
+    @Property(description = "Duration (in ms) of the maintenance lease, between 15 and 60 seconds. The lease is renewed at half of this interval while held.",
+            systemProperty = "JGROUPS_AZURE_MAINTENANCE_LEASE_DURATION",
+            type = AttributeType.TIME)
+    protected long maintenance_lease_duration = 30_000;
+
+    @Property(description = "If true, initialization does not block on creating the container. Instead, the container is checked in the background, " +
+            "which also acquires the credential token and sets up a connection while the rest of the stack initializes, " +
+            "and it is created whenever it is found to be missing. Use when the container is known to exist.",
+            systemProperty = "JGROUPS_AZURE_LAZY_CONTAINER_CREATION")
+    protected boolean lazy_container_creation;
+
+    @Property(description = "If true, instances within the JVM with the same endpoint, credential and transport configuration share one HTTP client " +
+            "(connection pool and TLS sessions) and one credential (token cache).",
+            systemProperty = "JGROUPS_AZURE_SHARE_CLIENT")
+    protected boolean share_client = true;
+
+    @Property(description = "Maximum number of connections in the HTTP connection pool. 0 uses the default of the HTTP client.",
+            systemProperty = "JGROUPS_AZURE_MAX_CONNECTIONS")
+    protected int max_connections;
+
+    @Property(description = "Time (in ms) after which idle pooled connections are closed. 0 uses the default of the HTTP client.",
+            systemProperty = "JGROUPS_AZURE_CONNECTION_IDLE_TIMEOUT",
+            type = AttributeType.TIME)
+    protected long connection_idle_timeout;
+
+    @Property(description = "Fully qualified class name of the com.azure.core.http.HttpClientProvider to use as HTTP transport, " +
+            "e.g. com.azure.core.http.okhttp.OkHttpAsyncClientProvider or com.azure.core.http.jdk.httpclient.JdkHttpClientProvider. " +
+            "The provider needs to be on the classpath. If not set, the first provider found on the classpath is used, by default Netty.",
+            systemProperty = "JGROUPS_AZURE_HTTP_CLIENT_PROVIDER")
+    protected String http_client_provider;
+
+    @Property(description = "If true, blocking storage calls of discovery are run on an executor owned by the protocol instead of the calling JGroups thread, " +
+            "which waits at most storage_call_timeout for them. On JDK 21 or later, every call and every concurrent download runs on its own virtual thread; " +
+            "on older JDKs, pooled platform threads are used instead.",
+            systemProperty = "JGROUPS_AZURE_USE_VIRTUAL_THREADS")
+    protected boolean use_virtual_threads;
+
+    @Property(description = "Maximum time (in ms) a JGroups thread waits for a storage call run on the executor enabled by use_virtual_threads. " +
+            "Calls not completed by then are interrupted and treated as failed.",
+            systemProperty = "JGROUPS_AZURE_STORAGE_CALL_TIMEOUT",
+            type = AttributeType.TIME)
+    protected long storage_call_timeout = 30_000;
+
+    @Property(description = "If true, ping data are uploaded in the background, so that installing a view does not wait for the storage service. " +
+            "Only the latest ping data of a cluster are uploaded: updates submitted while an upload is in flight replace each other. " +
+            "Pending uploads are completed, waiting at most storage_call_timeout, before the ping data file is removed and when the protocol stops.",
+            systemProperty = "JGROUPS_AZURE_ASYNC_WRITES")
+    protected boolean async_writes;
+
+    @Property(description = "Interval (in ms) at which a background task refreshes an in-memory snapshot of the ping data of the local cluster, " +
+            "from which discovery requests are then answered. Each refresh is delayed by a random jitter of up to a quarter of the interval. " +
+            "0 disables the snapshot, so that every discovery request reads the ping data from the storage service.",
+            systemProperty = "JGROUPS_AZURE_SNAPSHOT_REFRESH_INTERVAL",
+            type = AttributeType.TIME)
+    protected long snapshot_refresh_interval;
+
+    @Property(description = "Maximum age (in ms) of the snapshot for discovery requests to be answered from it. " +
+            "Older snapshots are refreshed synchronously first. 0 uses twice the snapshot_refresh_interval.",
+            systemProperty = "JGROUPS_AZURE_SNAPSHOT_MAX_STALENESS",
+            type = AttributeType.TIME)
+    protected long snapshot_max_staleness;
+
+    @Property(description = "Time (in ms) after which ping data files which were not modified are considered to belong to crashed members, " +
+            "so that discovery skips them without downloading them. Members rewrite their own file at a third of this interval. " +
+            "Needs to allow for clock skew between the members and the storage service. 0 disables expiration.",
+            systemProperty = "JGROUPS_AZURE_PING_DATA_TTL",
+            type = AttributeType.TIME)
+    protected long ping_data_ttl;
+
+    @Property(description = "If true, the coordinator also deletes expired ping data files of members not in its view in the background. " +
+            "Requires ping_data_ttl to be set.",
+            systemProperty = "JGROUPS_AZURE_REMOVE_EXPIRED_PING_DATA")
+    protected boolean remove_expired_ping_data;
+
+    @Property(description = "Timeout (in ms) of listing a page of ping data files, including retries. 0 disables the timeout.",
+            systemProperty = "JGROUPS_AZURE_LIST_TIMEOUT",
+            type = AttributeType.TIME)
+    protected long list_timeout;
+
+    @Property(description = "Timeout (in ms) of downloading a ping data file, including retries. 0 disables the timeout.",
+            systemProperty = "JGROUPS_AZURE_GET_TIMEOUT",
+            type = AttributeType.TIME)
+    protected long get_timeout;
+
+    @Property(description = "Timeout (in ms) of uploading a ping data file, including retries. 0 disables the timeout.",
+            systemProperty = "JGROUPS_AZURE_PUT_TIMEOUT",
+            type = AttributeType.TIME)
+    protected long put_timeout;
+
+    @Property(description = "Timeout (in ms) of deleting a ping data file, including retries. 0 disables the timeout.",
+            systemProperty = "JGROUPS_AZURE_DELETE_TIMEOUT",
+            type = AttributeType.TIME)
+    protected long delete_timeout;
+
+    @Property(description = "Maximum number of retries of a failed storage request. Retries are delayed by exponential backoff with jitter, " +
+            "i.e. by a random time between retry_delay and a cap which doubles with every retry up to max_retry_delay. " +
+            "-1 keeps the default retry policy of the storage client.",
+            systemProperty = "JGROUPS_AZURE_MAX_RETRIES")
+    protected int max_retries = -1;
+
+    @Property(description = "Minimum delay (in ms) before retrying a failed storage request; see max_retries.",
+            systemProperty = "JGROUPS_AZURE_RETRY_DELAY",
+            type = AttributeType.TIME)
+    protected long retry_delay = 100;
+
+    @Property(description = "Maximum delay (in ms) before retrying a failed storage request; see max_retries.",
+            systemProperty = "JGROUPS_AZURE_MAX_RETRY_DELAY",
+            type = AttributeType.TIME)
+    protected long max_retry_delay = 10_000;
+
+    @Property(description = "Percentile (between 0 and 100) of the latency of previous downloads after which a second, hedged request " +
+            "for the same ping data file is sent; whichever response arrives first is used. 0 disables hedged requests.",
+            systemProperty = "JGROUPS_AZURE_HEDGED_READ_PERCENTILE")
+    protected double hedged_read_percentile;
+
+    @Property(description = "Minimum time (in ms) to wait for a download before sending a hedged request; see hedged_read_percentile.",
+            systemProperty = "JGROUPS_AZURE_HEDGED_READ_MIN_DELAY",
+            type = AttributeType.TIME)
+    protected long hedged_read_min_delay = 20;
+
+    @Property(description = "Path of a local file to which the ping data of the local cluster are written after every complete read from the storage service. " +
+            "The initial discovery starts with these ping data, and discovery falls back to them when reading the storage service fails " +
+            "or is suspended by the circuit breaker, e.g. when restarting during a storage outage. " +
+            "Not set by default, which disables both the file and the circuit breaker.",
+            systemProperty = "JGROUPS_AZURE_LOCAL_SNAPSHOT_FILE")
+    protected String local_snapshot_file;
+
+    @Property(description = "Number of consecutive failed reads of the storage service after which discovery only uses the ping data " +
+            "of the local_snapshot_file for circuit_breaker_open_time.",
+            systemProperty = "JGROUPS_AZURE_CIRCUIT_BREAKER_THRESHOLD")
+    protected int circuit_breaker_threshold = 3;
+
+    @Property(description = "Time (in ms) for which discovery does not read the storage service once the circuit breaker opened. " +
+            "Afterwards, a single discovery reads the storage service again, closing the circuit breaker if it succeeds.",
+            systemProperty = "JGROUPS_AZURE_CIRCUIT_BREAKER_OPEN_TIME",
+            type = AttributeType.TIME)
+    protected long circuit_breaker_open_time = 30_000;
+
+    @Property(description = "Comma-separated connection strings of further storage accounts to which ping data are replicated, e.g. in other regions. " +
+            "Writes and removals are sent to all storage accounts, while discovery reads the healthiest ones, see read_quorum.",
+            systemProperty = "JGROUPS_AZURE_REPLICA_CONNECTION_STRINGS",
+            exposeAsManagedAttribute = false)
+    protected String replica_connection_strings;
+
+    @Property(description = "Comma-separated blob service endpoints of further storage accounts to which ping data are replicated, " +
+            "authenticated with DefaultAzureCredential. Writes and removals are sent to all storage accounts, while discovery reads the healthiest ones, see read_quorum.",
+            systemProperty = "JGROUPS_AZURE_REPLICA_ENDPOINTS")
+    protected String replica_endpoints;
+
+    @Property(description = "Number of storage accounts whose ping data discovery merges, including the storage account configured above. " +
+            "Discovery reads the storage accounts in order of their health, i.e. the latency of their recent reads with failures penalized, " +
+            "and uses the first ones to respond with ping data.",
+            systemProperty = "JGROUPS_AZURE_READ_QUORUM")
+    protected int read_quorum = 1;
+
+    @Property(description = "Time (in ms) after which discovery also reads the next storage account in order of health, " +
+            "if the storage accounts read so far did not respond yet. A storage account which fails is replaced right away. 0 reads all storage accounts at once.",
+            systemProperty = "JGROUPS_AZURE_REPLICA_READ_DELAY",
+            type = AttributeType.TIME)
+    protected long replica_read_delay = 100;
+
+    @Property(description = "If true and the optional 'com.azure:azure-storage-queue' dependency is on the classpath, writes and removals of ping data " +
+            "also post a change event to the queues of the other members of the view, from which running members update their discovery caches and membership snapshot " +
+            "without reading all ping data files. A full read is then only needed as a periodic consistency check; see snapshot_refresh_interval.",
+            systemProperty = "JGROUPS_AZURE_USE_NOTIFICATION_QUEUE")
+    protected boolean use_notification_queue;
+
+    @Property(description = "The full queue service endpoint URI of the notification queues. When set, overrides use_https and endpoint_suffix.",
+            systemProperty = "JGROUPS_AZURE_QUEUE_STORAGE_URI",
+            exposeAsManagedAttribute = false)
+    protected String queue_storage_uri;
+
+    @Property(description = "Interval (in ms) at which members poll their notification queue for change events.",
+            systemProperty = "JGROUPS_AZURE_NOTIFICATION_POLL_INTERVAL",
+            type = AttributeType.TIME)
+    protected long notification_poll_interval = 1000;
+
+    @Property(description = "Time (in ms) after which change events expire from the notification queues. Received events stay hidden until then. " +
+            "Must exceed notification_poll_interval, so that members see each event before it expires.",
+            systemProperty = "JGROUPS_AZURE_NOTIFICATION_TTL",
+            type = AttributeType.TIME)
+    protected long notification_ttl = 60_000;
+
+    @Property(description = "If true, writes and removals of ping data files are also logged to an append blob of the cluster, " +
+            "so that discovery only reads the records appended since its last read, in a single ranged request, instead of all ping data files. " +
+            "The coordinator compacts the log from the ping data files when it is missing or too large.",
+            systemProperty = "JGROUPS_AZURE_USE_MEMBERSHIP_LOG")
+    protected boolean use_membership_log;
+
+    @Property(description = "Size (in bytes) of the membership log above which the coordinator compacts it.",
+            systemProperty = "JGROUPS_AZURE_MEMBERSHIP_LOG_MAX_SIZE")
+    protected long membership_log_max_size = 1024 * 1024;
+
+    @Property(description = "Interval (in ms) at which the coordinator checks whether the membership log needs to be compacted.",
+            systemProperty = "JGROUPS_AZURE_MEMBERSHIP_LOG_COMPACTION_INTERVAL",
+            type = AttributeType.TIME)
+    protected long membership_log_compaction_interval = 60_000;
+
+    @ManagedAttribute(description = "Number of ping data files served from the cache during discovery", type = AttributeType.SCALAR)
+    protected final LongAdder pingDataCacheHits = new LongAdder();
+
+    @ManagedAttribute(description = "Number of ping data files which were not cached or changed since they were cached", type = AttributeType.SCALAR)
+    protected final LongAdder pingDataCacheMisses = new LongAdder();
+
+    @ManagedAttribute(description = "Number of uploads skipped because the ping data did not change since the last upload", type = AttributeType.SCALAR)
+    protected final LongAdder skippedWrites = new LongAdder();
+
+    @ManagedAttribute(description = "Number of discovery requests answered from the membership snapshot", type = AttributeType.SCALAR)
+    protected final LongAdder snapshotHits = new LongAdder();
+
+    @ManagedAttribute(description = "Number of expired ping data files skipped during discovery", type = AttributeType.SCALAR)
+    protected final LongAdder skippedExpiredFiles = new LongAdder();
+
+    @ManagedAttribute(description = "Number of downloads for which a hedged request was sent", type = AttributeType.SCALAR)
+    protected final LongAdder hedgedReads = new LongAdder();
+
+    @ManagedAttribute(description = "Number of downloads answered by the hedged request", type = AttributeType.SCALAR)
+    protected final LongAdder hedgedReadWins = new LongAdder();
+
+    @ManagedAttribute(description = "Number of discovery requests answered from the local snapshot file", type = AttributeType.SCALAR)
+    protected final LongAdder localSnapshotReads = new LongAdder();
+
+    @ManagedAttribute(description = "Number of ping data updates superseded by a newer update before they were uploaded", type = AttributeType.SCALAR)
+    protected final LongAdder coalescedWrites = new LongAdder();
+
+    @ManagedAttribute(description = "Number of change events applied from the notification queue", type = AttributeType.SCALAR)
+    protected final LongAdder notificationEvents = new LongAdder();
+
+    @ManagedAttribute(description = "Number of discovery reads answered from the membership log", type = AttributeType.SCALAR)
+    protected final LongAdder membershipLogReads = new LongAdder();
+
+    @ManagedAttribute(description = "Number of compactions of the membership log", type = AttributeType.SCALAR)
+    protected final LongAdder membershipLogCompactions = new LongAdder();
+
+    @ManagedAttribute(description = "Number of discovery reads answered by a concurrent or recent read of the same cluster", type = AttributeType.SCALAR)
+    protected final LongAdder coalescedReads = new LongAdder();
+
+    protected final StorageMetrics metrics = new StorageMetrics(this::statsEnabled);
+
     private static final String CLUSTER_ADDRESS_FILE_NAME_SEPARATOR = "-";
+    private static final String AGGREGATE_FILE_NAME_SUFFIX = ".members";
+    private static final String LOCK_FILE_NAME_SUFFIX = ".lock";
+    private static final String LOG_FILE_NAME_SUFFIX = ".log";
+    private static final String REGION_METADATA_KEY = "jgroupsregion";
+    private static final String ZONE_METADATA_KEY = "jgroupszone";
+    private static final Duration INSTANCE_METADATA_TIMEOUT = Duration.ofSeconds(2);
+    private static final String PING_DATA_METADATA_KEY = "jgroupspingdata";
+    // Azure limits the total size of all metadata to 8 KiB
+    private static final int MAX_METADATA_VALUE_SIZE = 6 * 1024;
     public static final int STREAM_BUFFER_SIZE = 4096;
 
-    private BlobContainerClient containerClient;
+    private BlobContainerClient containerClient;
+    private SharedClientRegistry.Key sharedClientKey;
+    private HttpClient readHttpClient;
+    private volatile Placement localPlacement;
+    // Placements of the members of the local cluster by the string representation of their address, as listed with their ping data files
+    private final Map<String, Placement> placements = new ConcurrentHashMap<>();
+    // Replaces the HTTP client of the storage client when set, e.g. with an in-process stand-in in tests and benchmarks
+    protected HttpClient httpClient;
+    private ExecutorService storageExecutor;
+    private ExecutorService hedgeExecutor;
+    private ExecutorService writeExecutor;
+    private StorageAccount primaryAccount;
+    // Further storage accounts to which ping data are replicated
+    private final List<StorageAccount> replicas = new ArrayList<>();
+    private ExecutorService replicaExecutor;
+    private volatile Replication replication;
+    private CoalescingWriter<String, List<PingData>> asyncWriter;
+    // Latency (in us) of primary downloads, including those which lost against their hedged request, from which the hedging threshold is derived
+    final LatencyHistogram downloadLatency = new LatencyHistogram();
+    private ExecutorService downloadExecutor;
+    // Caps in-flight downloads when each download runs on its own virtual thread
+    private Semaphore downloadPermits;
+    private PingDataCache pingDataCache;
+    private BlobBatchDeleter batchDeleter;
+    // Digest and ETag of the last upload per ping data file
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+    private volatile AggregateBlob aggregateBlob;
+    private Future<?> aggregateRefresher;
+    // Guards the maintenance lease instead of the protocol, which must not be blocked by the storage calls taking or renewing the lease
+    private final Object maintenanceLeaseLock = new Object();
+    private volatile MaintenanceLease maintenanceLease;
+    private Future<?> maintenanceLeaseRenewer;
+    private final MembershipSnapshot membershipSnapshot = new MembershipSnapshot();
+    private Future<?> snapshotRefresher;
+    // Last ping data written to the file of this member and when, so that the file can be rewritten before it expires
+    private volatile List<PingData> ownPingData;
+    // Orders refreshes of the ping data file of this member with its removal, so that a removed file is not rewritten
+    private final Object ownPingDataLock = new Object();
+    private volatile long lastWrite;
+    private Future<?> pingDataRefresher;
+    private LocalSnapshot localSnapshot;
+    private CircuitBreaker circuitBreaker;
+    // Transport and credentials of the notification queue, which is only created once the cluster name is known
+    private SharedClientRegistry.Clients queueClients;
+    private StorageSharedKeyCredential queueKeyCredential;
+    private String queueEndpoint;
+    private volatile MembershipNotifications notifications;
+    private Future<?> notificationPoller;
+    private volatile MembershipLog membershipLog;
+    private Future<?> membershipLogCompactor;
+
+    static {
+        ClassConfigurator.addProtocol((short) 530, AZURE_PING.class);
+    }
+
+    public AZURE_PING() {
+        super();
+
+        // Disable shutdown hook by default
+        this.register_shutdown_hook = false;
+    }
+
+    @Override
+    public void init() throws Exception {
+        super.init();
+
+        // Validate configuration
+        // Can throw IAEs
+        this.validateConfiguration();
+
+        long start = System.nanoTime();
+        try {
+            StorageAccountSettings settings = storageAccountSettings();
+            boolean useConnectionString = settings.useConnectionString();
+            boolean useAccessKey = settings.useAccessKey();
+            String endpoint = useConnectionString ? null : settings.endpoint("blob", blob_storage_uri);
+
+            boolean useTokenCredential = !useConnectionString && !useAccessKey;
+            SharedClientRegistry.Clients clients;
+            if (httpClient != null) {
+                clients = new SharedClientRegistry.Clients(httpClient, useTokenCredential ? createTokenCredential() : null);
+            } else if (share_client) {
+                SharedClientRegistry.Key key = new SharedClientRegistry.Key(connection_string, endpoint, storage_account_name, useAccessKey ? storage_access_key : null,
+                        max_connections, connection_idle_timeout, http_client_provider);
+                clients = SharedClientRegistry.acquire(key, () -> createClients(useTokenCredential));
+                sharedClientKey = key;
+            } else {
+                clients = createClients(useTokenCredential);
+            }
+            BlobServiceClientBuilder builder = createBuilder(clients.httpClient());
+
+            if (useConnectionString) {
+                builder.connectionString(connection_string);
+            } else {
+                // Set credential: use shared key if access key is provided, otherwise fall back to DefaultAzureCredential
+                if (useAccessKey) {
+                    builder.credential(new StorageSharedKeyCredential(storage_account_name, storage_access_key));
+                } else {
+                    builder.credential(clients.credential());
+                }
+                builder.endpoint(endpoint);
+            }
+
+            BlobServiceClient blobServiceClient = builder.buildClient();
+            containerClient = blobServiceClient.getBlobContainerClient(container);
+            readHttpClient = clients.httpClient();
+            if (zone_aware) {
+                resolvePlacement(clients.httpClient());
+            }
+            primaryAccount = new StorageAccount(containerClient.getAccountName(), containerClient);
+            if (lazy_container_creation) {
+                warmUp();
+            } else {
+                createContainer();
+            }
+            createReplicas(clients);
+
+            if (use_notification_queue) {
+                queueClients = clients;
+                queueKeyCredential = useAccessKey ? new StorageSharedKeyCredential(storage_account_name, storage_access_key) : null;
+                if (!useConnectionString) {
+                    queueEndpoint = settings.endpoint("queue", queue_storage_uri);
+                }
+            }
+
+            if (use_batch_delete) {
+                try {
+                    batchDeleter = new BlobBatchDeleter(containerClient);
+                } catch (NoClassDefFoundError e) {
+                    log.debug("Batch deletes require 'com.azure:azure-storage-blob-batch' dependency on the classpath; deleting files individually.");
+                }
+            }
+
+        } catch (Exception ex) {
+            recordError(Operation.INIT);
+            log.error("Error creating a storage client! Check your configuration.");
+            if (sharedClientKey != null) {
+                SharedClientRegistry.release(sharedClientKey);
+                sharedClientKey = null;
+            }
+            throw ex;
+        } finally {
+            recordOperation(Operation.INIT, start);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        super.destroy();
+
+        if (sharedClientKey != null) {
+            SharedClientRegistry.release(sharedClientKey);
+            sharedClientKey = null;
+        }
+    }
+
+    private BlobServiceClientBuilder createBuilder(final HttpClient client) {
+        BlobServiceClientBuilder builder = new BlobServiceClientBuilder()
+                .addPolicy(metrics.callPolicy())
+                .addPolicy(metrics.requestPolicy())
+                .httpClient(client);
+        if (max_retries >= 0) {
+            // Replaces the fixed exponential backoff of the storage client, which then only makes a single attempt per retry
+            builder.addPolicy(new JitteredRetryStrategy(max_retries, Duration.ofMillis(retry_delay), Duration.ofMillis(max_retry_delay)).policy())
+                    .retryOptions(new RequestRetryOptions(RetryPolicyType.EXPONENTIAL, 1, (Duration) null, null, null, null));
+        }
+        return builder;
+    }
+
+    /**
+     * Creates the clients of the storage accounts to which ping data are replicated, sharing the HTTP client of the storage account configured above.
+     */
+    private void createReplicas(final SharedClientRegistry.Clients clients) {
+        for (String replicaConnectionString : split(replica_connection_strings)) {
+            BlobContainerClient client = createBuilder(clients.httpClient()).connectionString(replicaConnectionString).buildClient().getBlobContainerClient(container);
+            replicas.add(new StorageAccount(client.getAccountName(), client));
+        }
+        List<String> endpoints = split(replica_endpoints);
+        if (!endpoints.isEmpty()) {
+            TokenCredential credential = clients.credential() != null ? clients.credential() : createTokenCredential();
+            for (String replicaEndpoint : endpoints) {
+                BlobContainerClient client = createBuilder(clients.httpClient()).endpoint(replicaEndpoint).credential(credential).buildClient().getBlobContainerClient(container);
+                replicas.add(new StorageAccount(client.getAccountName(), client));
+            }
+        }
+        if (!lazy_container_creation) {
+            // An unavailable replica must not prevent the member from starting; its container is created on the first write instead
+            for (StorageAccount replica : replicas) {
+                try {
+                    replica.containerClient().createIfNotExists();
+                } catch (Exception e) {
+                    log.warn(String.format("Error creating container '%s' in storage account '%s'.", container, replica.name()), e);
+                }
+            }
+        }
+    }
+
+    private static List<String> split(final String list) {
+        if (list == null || list.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(list.split(",")).map(String::trim).filter(value -> !value.isEmpty()).toList();
+    }
+
+    private SharedClientRegistry.Clients createClients(final boolean useTokenCredential) {
+        HttpClientOptions options = new HttpClientOptions();
+        if (max_connections > 0) {
+            options.setMaximumConnectionPoolSize(max_connections);
+        }
+        if (connection_idle_timeout > 0) {
+            options.setConnectionIdleTimeout(Duration.ofMillis(connection_idle_timeout));
+        }
+        if (http_client_provider != null && !http_client_provider.isEmpty()) {
+            try {
+                options.setHttpClientProvider(Class.forName(http_client_provider, true, AZURE_PING.class.getClassLoader()).asSubclass(HttpClientProvider.class));
+            } catch (ClassNotFoundException | ClassCastException e) {
+                throw new IllegalStateException(String.format("HTTP client provider '%s' is not an HttpClientProvider on the classpath.", http_client_provider), e);
+            }
+        }
+        return new SharedClientRegistry.Clients(HttpClient.createDefault(options), useTokenCredential ? createTokenCredential() : null);
+    }
+
+    static TokenCredential createTokenCredential() {
+        try {
+            return new DefaultAzureCredentialBuilder().build();
+        } catch (NoClassDefFoundError e) {
+            throw new IllegalStateException("DefaultAzureCredential requires 'com.azure:azure-identity' dependency on the classpath.", e);
+        }
+    }
+
+    private void createContainer() {
+        boolean created = containerClient.createIfNotExists();
+
+        if (created) {
+            log.info("Created container named '%s'.", container);
+        } else {
+            log.debug("Using existing container named '%s'.", container);
+        }
+    }
+
+    /**
+     * Checks the container in the background, creating it if missing; the first request acquires the credential token and opens a connection.
+     */
+    private void warmUp() {
+        Runnable task = () -> {
+            try {
+                if (containerClient.exists()) {
+                    log.debug("Using existing container named '%s'.", container);
+                } else {
+                    createContainer();
+                }
+            } catch (Exception e) {
+                log.warn(String.format("Error checking container named '%s' in the background; it will be created when found to be missing.", container), e);
+            }
+        };
+        ThreadFactory threadFactory = getThreadFactory();
+        Thread thread = threadFactory != null ? threadFactory.newThread(task, "AZURE_PING-warm-up") : new Thread(task, "AZURE_PING-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private StorageAccountSettings storageAccountSettings() {
+        return new StorageAccountSettings(connection_string, storage_account_name, storage_access_key, use_https, endpoint_suffix);
+    }
+
+    public void validateConfiguration() throws IllegalArgumentException {
+        // Validate that container name is configured and must be all lowercase
+        if (container == null || !container.toLowerCase().equals(container) || container.contains("--")
+                || container.startsWith("-") || container.length() < 3 || container.length() > 63) {
+            throw new IllegalArgumentException("Container name must be configured and must meet Azure requirements (must be a valid DNS name).");
+        }
+        StorageAccountSettings settings = storageAccountSettings();
+        settings.validate();
+        // Let's inform users here that https would be preferred
+        if (settings.isInsecure()) {
+            log.warn("Configuration is using HTTP, consider switching to HTTPS instead.");
+        }
+        if (read_all_timeout < 0) {
+            throw new IllegalArgumentException("read_all_timeout must not be negative.");
+        }
+        if (ping_data_cache_size < 0) {
+            throw new IllegalArgumentException("ping_data_cache_size must not be negative.");
+        }
+        if (use_maintenance_lease && (maintenance_lease_duration < 15_000 || maintenance_lease_duration > 60_000)) {
+            throw new IllegalArgumentException("maintenance_lease_duration must be between 15 and 60 seconds.");
+        }
+        if (use_aggregate_blob && aggregate_blob_max_age <= 0) {
+            throw new IllegalArgumentException("aggregate_blob_max_age must be positive when use_aggregate_blob is enabled.");
+        }
+        if (max_connections < 0) {
+            throw new IllegalArgumentException("max_connections must not be negative.");
+        }
+        if (connection_idle_timeout < 0) {
+            throw new IllegalArgumentException("connection_idle_timeout must not be negative.");
+        }
+        if (snapshot_refresh_interval < 0) {
+            throw new IllegalArgumentException("snapshot_refresh_interval must not be negative.");
+        }
+        if (snapshot_refresh_interval > 0 && snapshot_max_staleness != 0 && snapshot_max_staleness < snapshot_refresh_interval) {
+            throw new IllegalArgumentException("snapshot_max_staleness must not be less than snapshot_refresh_interval.");
+        }
+        if (ping_data_ttl < 0) {
+            throw new IllegalArgumentException("ping_data_ttl must not be negative.");
+        }
+        if (remove_expired_ping_data && ping_data_ttl <= 0) {
+            throw new IllegalArgumentException("ping_data_ttl must be positive when remove_expired_ping_data is enabled.");
+        }
+        if (list_timeout < 0 || get_timeout < 0 || put_timeout < 0 || delete_timeout < 0) {
+            throw new IllegalArgumentException("list_timeout, get_timeout, put_timeout and delete_timeout must not be negative.");
+        }
+        if (max_retries >= 0 && (retry_delay <= 0 || max_retry_delay < retry_delay)) {
+            throw new IllegalArgumentException("retry_delay must be positive and not greater than max_retry_delay.");
+        }
+        if (hedged_read_percentile < 0 || hedged_read_percentile >= 100) {
+            throw new IllegalArgumentException("hedged_read_percentile must be between 0 (inclusive) and 100 (exclusive).");
+        }
+        if (local_snapshot_file != null && !local_snapshot_file.isEmpty() && (circuit_breaker_threshold <= 0 || circuit_breaker_open_time <= 0)) {
+            throw new IllegalArgumentException("circuit_breaker_threshold and circuit_breaker_open_time must be positive when local_snapshot_file is set.");
+        }
+        if (read_quorum < 1 || read_quorum > 1 + split(replica_connection_strings).size() + split(replica_endpoints).size()) {
+            throw new IllegalArgumentException("read_quorum must be positive and not greater than the number of storage accounts.");
+        }
+        if (replica_read_delay < 0) {
+            throw new IllegalArgumentException("replica_read_delay must not be negative.");
+        }
+        if (read_reuse_window < 0) {
+            throw new IllegalArgumentException("read_reuse_window must not be negative.");
+        }
+        if (use_virtual_threads && storage_call_timeout <= 0) {
+            throw new IllegalArgumentException("storage_call_timeout must be positive when use_virtual_threads is enabled.");
+        }
+        if (use_membership_log && (membership_log_max_size <= 0 || membership_log_compaction_interval <= 0)) {
+            throw new IllegalArgumentException("membership_log_max_size and membership_log_compaction_interval must be positive when use_membership_log is enabled.");
+        }
+        if (use_notification_queue && (notification_poll_interval <= 0 || notification_ttl < 1000 || notification_ttl <= notification_poll_interval)) {
+            throw new IllegalArgumentException("notification_poll_interval must be positive and notification_ttl must be at least 1 second and exceed it.");
+        }
+
+    }
+
+    @Override
+    public void start() throws Exception {
+        super.start();
+
+        if (ping_data_cache_size > 0) {
+            pingDataCache = new PingDataCache(ping_data_cache_size);
+        }
+
+        if (local_snapshot_file != null && !local_snapshot_file.isEmpty()) {
+            localSnapshot = new LocalSnapshot(Path.of(local_snapshot_file));
+            circuitBreaker = new CircuitBreaker(circuit_breaker_threshold, circuit_breaker_open_time, TimeUnit.MILLISECONDS);
+        }
+
+        boolean virtual = false;
+        if (use_virtual_threads) {
+            virtual = ThreadCreator.hasVirtualThreads();
+            if (!virtual) {
+                log.warn("Virtual threads require JDK 21 or later; running storage calls on pooled platform threads instead.");
+            }
+            // A thread per call; virtual threads are not worth keeping around once their call completed
+            storageExecutor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, virtual ? 0 : 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    createThreadFactory("AZURE_PING-storage", virtual));
+        }
+
+        if (hedged_read_percentile > 0) {
+            // Download tasks wait for their hedged requests, so these cannot share the bounded download pool
+            hedgeExecutor = storageExecutor != null ? storageExecutor : new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    createThreadFactory("AZURE_PING-hedge", false));
+        }
+
+        if (!replicas.isEmpty()) {
+            replicaExecutor = storageExecutor != null ? storageExecutor : new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    createThreadFactory("AZURE_PING-replica", false));
+            replication = new Replication(primaryAccount, replicas, replicaExecutor, read_quorum, replica_read_delay, log);
+        }
+
+        if (async_writes) {
+            writeExecutor = storageExecutor != null ? storageExecutor : new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    createThreadFactory("AZURE_PING-writer", false));
+            asyncWriter = new CoalescingWriter<>(writeExecutor, (clustername, list) -> writeNow(list, clustername));
+        }
+
+        if (max_concurrent_downloads > 1 && virtual) {
+            downloadExecutor = storageExecutor;
+            downloadPermits = new Semaphore(max_concurrent_downloads);
+        } else if (max_concurrent_downloads > 1) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(max_concurrent_downloads, max_concurrent_downloads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    createThreadFactory("AZURE_PING-download", false));
+            executor.allowCoreThreadTimeOut(true);
+            downloadExecutor = executor;
+        }
+    }
+
+    private java.util.concurrent.ThreadFactory createThreadFactory(final String name, final boolean virtual) {
+        ThreadFactory threadFactory = getThreadFactory();
+        if (virtual || threadFactory == null) {
+            return r -> ThreadCreator.createThread(r, name, true, virtual);
+        }
+        return r -> threadFactory.newThread(r, name);
+    }
+
+    @Override
+    public void handleConnect() {
+        super.handleConnect();
+        if (snapshot_refresh_interval > 0) {
+            startSnapshotRefresher();
+        }
+        if (ping_data_ttl > 0) {
+            startPingDataRefresher();
+        }
+        if (use_notification_queue) {
+            startNotificationPoller();
+        }
+        if (use_aggregate_blob && cluster_name != null) {
+            aggregateBlob = new AggregateBlob(containerClient.getBlobClient(aggregateFilename(cluster_name)), Duration.ofMillis(aggregate_blob_max_age));
+        }
+        if (use_membership_log && cluster_name != null) {
+            membershipLog = new MembershipLog(containerClient.getBlobClient(logFilename(cluster_name)), bytes -> unmarshal(bytes, 0, bytes.length));
+        }
+        if (zone_aware && cluster_name != null) {
+            writeOwnPingData(cluster_name);
+        }
+    }
+
+    @Override
+    public void handleDisconnect() {
+        stopNotificationPoller();
+        deleteNotificationQueue();
+        stopPingDataRefresher();
+        stopSnapshotRefresher();
+        super.handleDisconnect();
+    }
+
+    @Override
+    public void stop() {
+        // Must not recreate the ping data file which stopping removes
+        stopNotificationPoller();
+        stopMembershipLogCompactor();
+        stopPingDataRefresher();
+        stopSnapshotRefresher();
+        stopAggregateRefresher();
+        flushWrites(null);
+        releaseMaintenanceLease();
+        // A leaving coordinator must not leave its view behind for new members to join; Discovery.stop() clears is_coord
+        if (is_coord) {
+            removeAggregate();
+        }
+        super.stop();
+
+        if (downloadExecutor != null) {
+            downloadExecutor.shutdownNow();
+            downloadExecutor = null;
+            downloadPermits = null;
+        }
+        if (hedgeExecutor != null && hedgeExecutor != storageExecutor) {
+            hedgeExecutor.shutdownNow();
+        }
+        hedgeExecutor = null;
+        asyncWriter = null;
+        if (writeExecutor != null && writeExecutor != storageExecutor) {
+            writeExecutor.shutdownNow();
+        }
+        writeExecutor = null;
+        // Replication keeps the shut down executor: replicas written after stopping are written in the caller
+        if (replicaExecutor != null && replicaExecutor != storageExecutor) {
+            replicaExecutor.shutdownNow();
+        }
+        replicaExecutor = null;
+        // Only now, as stopping removes the ping data file of this member
+        if (storageExecutor != null) {
+            storageExecutor.shutdownNow();
+            storageExecutor = null;
+        }
+        pingDataCache = null;
+        notifications = null;
+        membershipLog = null;
+        aggregateBlob = null;
+    }
+
+    @Override
+    public void resetStats() {
+        super.resetStats();
+        pingDataCacheHits.reset();
+        pingDataCacheMisses.reset();
+        skippedWrites.reset();
+        snapshotHits.reset();
+        skippedExpiredFiles.reset();
+        hedgedReads.reset();
+        hedgedReadWins.reset();
+        localSnapshotReads.reset();
+        coalescedWrites.reset();
+        notificationEvents.reset();
+        membershipLogReads.reset();
+        membershipLogCompactions.reset();
+        coalescedReads.reset();
+        metrics.reset();
+    }
+
+    @ManagedAttribute(description = "Number of HTTP requests sent to the storage service including retries", type = AttributeType.SCALAR)
+    public long getStorageRequests() {
+        return metrics.requests();
+    }
+
+    @ManagedAttribute(description = "Number of HTTP requests to the storage service which were retries", type = AttributeType.SCALAR)
+    public long getStorageRetries() {
+        return metrics.retries();
+    }
+
+    @ManagedAttribute(description = "Number of HTTP requests to the storage service which failed or were throttled", type = AttributeType.SCALAR)
+    public long getStorageErrors() {
+        return metrics.errors();
+    }
+
+    @ManagedAttribute(description = "Number of bytes sent to the storage service", type = AttributeType.BYTES)
+    public long getStorageBytesSent() {
+        return metrics.bytesSent();
+    }
+
+    @ManagedAttribute(description = "Number of bytes received from the storage service", type = AttributeType.BYTES)
+    public long getStorageBytesReceived() {
+        return metrics.bytesReceived();
+    }
+
+    @ManagedAttribute(description = "Whether the circuit breaker suspended reading the storage service")
+    public boolean isCircuitBreakerOpen() {
+        return circuitBreaker != null && circuitBreaker.isOpen();
+    }
+
+    @ManagedAttribute(description = "Storage accounts holding ping data, healthiest first, with the average latency and consecutive failures of their reads")
+    public String getStorageAccounts() {
+        List<StorageAccount> accounts = new ArrayList<>(replicas.size() + 1);
+        if (primaryAccount != null) {
+            accounts.add(primaryAccount);
+        }
+        accounts.addAll(replicas);
+        accounts.sort(Comparator.comparingDouble(StorageAccount::score));
+        return accounts.toString();
+    }
+
+    @ManagedAttribute(description = "Count, errors and latency percentiles of initializing the storage client")
+    public String getInitStats() {
+        return metrics.get(Operation.INIT).toString();
+    }
+
+    @ManagedAttribute(description = "Count, errors and latency percentiles of reading all ping data of a cluster")
+    public String getReadAllStats() {
+        return metrics.get(Operation.READ_ALL).toString();
+    }
+
+    @ManagedAttribute(description = "Count, errors and latency percentiles of writing ping data")
+    public String getWriteStats() {
+        return metrics.get(Operation.WRITE).toString();
+    }
+
+    @ManagedAttribute(description = "Count, errors and latency percentiles of removing ping data of a member")
+    public String getRemoveStats() {
+        return metrics.get(Operation.REMOVE).toString();
+    }
+
+    @ManagedAttribute(description = "Count, errors and latency percentiles of removing all ping data of a cluster")
+    public String getRemoveAllStats() {
+        return metrics.get(Operation.REMOVE_ALL).toString();
+    }
+
+    private void recordOperation(final Operation operation, final long startNanos) {
+        if (stats) {
+            metrics.record(operation, startNanos);
+        }
+    }
+
+    private void recordError(final Operation operation) {
+        if (stats) {
+            metrics.error(operation);
+        }
+    }
+
+    @Override
+    protected void createRootDir() {
+        // Do not remove this!
+        // There is no root directory to create, overriding here with noop.
+    }
+
+    @Override
+    protected void handleView(View new_view, View old_view, boolean coord_changed) {
+        super.handleView(new_view, old_view, coord_changed);
+
+        if (use_aggregate_blob) {
+            if (is_coord) {
+                startAggregateRefresher();
+            } else {
+                stopAggregateRefresher();
+            }
+        }
+        if (use_membership_log) {
+            if (is_coord) {
+                startMembershipLogCompactor();
+            } else {
+                stopMembershipLogCompactor();
+            }
+        }
+        MaintenanceLease lease = maintenanceLease;
+        if (!is_coord && lease != null && lease.isHeld()) {
+            // Released off the thread handling the view, as it is a storage call, unless this member became the coordinator again meanwhile
+            timer.execute(() -> {
+                if (!is_coord) {
+                    releaseMaintenanceLease();
+                }
+            });
+        }
+        if (is_coord && notifications != null && old_view != null) {
+            List<String> left = Arrays.stream(View.diff(old_view, new_view)[1]).map(AZURE_PING::addressAsString).toList();
+            if (!left.isEmpty()) {
+                timer.execute(() -> deleteNotificationQueues(left));
+            }
+        }
+        if (zone_aware) {
+            // The coordinator may just have removed all ping data files, see remove_all_data_on_view_change, and a member which is no longer
+            // the coordinator removed its own, so members rewrite theirs on every view change, off the thread handling the view
+            if (!is_coord && cluster_name != null) {
+                String clustername = cluster_name;
+                timer.execute(() -> writeOwnPingData(clustername));
+            }
+            Set<String> members = new HashSet<>();
+            new_view.getMembers().forEach(member -> members.add(placementKey(member)));
+            placements.keySet().retainAll(members);
+        }
+    }
+
+    /**
+     * Acquires the maintenance lease for the given cluster, which is then held and renewed until this member stops or is no longer the coordinator.
+     *
+     * @return {@code true} if maintenance operations may be run by this member, {@code false} if another member holds the lease
+     */
+    protected boolean acquireMaintenanceLease(final String clustername) {
+        if (!use_maintenance_lease) {
+            return true;
+        }
+        synchronized (maintenanceLeaseLock) {
+            try {
+                if (maintenanceLease == null) {
+                    maintenanceLease = new MaintenanceLease(containerClient.getBlobClient(lockFilename(clustername)), (int) TimeUnit.MILLISECONDS.toSeconds(maintenance_lease_duration));
+                }
+                if (maintenanceLease.isHeld()) {
+                    return true;
+                }
+                if (!maintenanceLease.tryAcquire()) {
+                    return false;
+                }
+                log.debug("Acquired maintenance lease for cluster '%s'.", clustername);
+                long interval = maintenance_lease_duration / 2;
+                maintenanceLeaseRenewer = timer.scheduleWithFixedDelay(this::renewMaintenanceLease, interval, interval, TimeUnit.MILLISECONDS);
+                return true;
+            } catch (Exception e) {
+                log.warn(String.format("Error acquiring maintenance lease for cluster '%s'.", clustername), e);
+                return false;
+            }
+        }
+    }
+
+    private void renewMaintenanceLease() {
+        synchronized (maintenanceLeaseLock) {
+            if (maintenanceLease == null) {
+                return;
+            }
+            try {
+                maintenanceLease.renew();
+            } catch (Exception e) {
+                log.warn("Lost maintenance lease, maintenance operations are skipped until it is acquired again.", e);
+                cancelMaintenanceLeaseRenewer();
+            }
+        }
+    }
+
+    private void releaseMaintenanceLease() {
+        synchronized (maintenanceLeaseLock) {
+            cancelMaintenanceLeaseRenewer();
+            if (maintenanceLease != null) {
+                try {
+                    maintenanceLease.release();
+                } catch (Exception e) {
+                    log.debug("Error releasing maintenance lease, it will expire.", e);
+                }
+                maintenanceLease = null;
+            }
+        }
+    }
+
+    private void cancelMaintenanceLeaseRenewer() {
+        if (maintenanceLeaseRenewer != null) {
+            maintenanceLeaseRenewer.cancel(false);
+            maintenanceLeaseRenewer = null;
+        }
+    }
+
+    /**
+     * Runs the given storage call on the storage executor, if enabled, waiting at most {@code storage_call_timeout} for it to complete,
+     * so that slow storage cannot stall the calling JGroups thread for longer. Exceptions thrown by the call are rethrown.
+     *
+     * @return {@code true} if the call completed, {@code false} if it was abandoned
+     */
+    private boolean call(final Operation operation, final Runnable task) {
+        ExecutorService executor = storageExecutor;
+        Future<?> future;
+        try {
+            future = executor != null ? executor.submit(task) : null;
+        } catch (RejectedExecutionException e) {
+            // Stopped concurrently
+            future = null;
+        }
+        if (future == null) {
+            task.run();
+            return true;
+        }
+
+        try {
+            future.get(storage_call_timeout, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            recordError(operation);
+            log.warn("Storage call of operation %s did not complete within %d ms and was interrupted.", operation, storage_call_timeout);
+            return false;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Seeds the responses and discovery caches of the initial discovery from the local snapshot file before the storage service is read,
+     * so that a restarting member can reach the members it knew about without waiting for the storage service.
+     */
+    @Override
+    public void findMembers(final List<Address> members, final boolean initial_discovery, final Responses responses) {
+        String clustername = cluster_name;
+        if (initial_discovery && localSnapshot != null && clustername != null) {
+            Responses seeded = new Responses(false);
+            readLocalSnapshot(clustername, seeded);
+            List<PingData> list = new ArrayList<>(seeded.size());
+            seeded.forEach(list::add);
+            addResponses(list, members, responses);
+        }
+        super.findMembers(members, initial_discovery, responses);
+    }
+
+    @Override
+    protected void readAll(final List<Address> members, final String clustername, final Responses responses) {
+        if (clustername == null) {
+            return;
+        }
+        // Collected first, so that the responses and discovery caches are only updated once, and with the closest members first
+        Responses collected = new Responses(false);
+        readResponses(members, clustername, collected);
+        List<PingData> list = new ArrayList<>(collected.size());
+        collected.forEach(list::add);
+        Placement placement = localPlacement;
+        if (placement != null && placement.isKnown() && clustername.equals(cluster_name)) {
+            list = byDistance(placement, list);
+        }
+        addResponses(list, members, responses);
+    }
+
+    /**
+     * Collects the ping data of the given cluster, including those of members which were not requested. Ping data read by a storage call
+     * are only collected once the call completed, as a call abandoned on timeout may still be reading.
+     */
+    private void readResponses(final List<Address> members, final String clustername, final Responses collected) {
+        if (snapshot_refresh_interval > 0 && readSnapshot(clustername, collected)) {
+            return;
+        }
+        CircuitBreaker breaker = clustername.equals(cluster_name) ? circuitBreaker : null;
+        if (breaker != null && !breaker.allowRequest()) {
+            readLocalSnapshot(clustername, collected);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        Responses responses = new Responses(false);
+        AtomicBoolean read = new AtomicBoolean();
+        try {
+            completed = call(Operation.READ_ALL, () -> read.set(readCoalesced(members, clustername, responses))) && read.get();
+        } catch (BlobStorageException e) {
+            if (e.getErrorCode() != BlobErrorCode.CONTAINER_NOT_FOUND) {
+                recordError(Operation.READ_ALL);
+                if (breaker == null) {
+                    throw e;
+                }
+                log.warn(String.format("Error reading ping data of cluster '%s', using the local snapshot.", clustername), e);
+            } else {
+                log.debug("Container named '%s' does not exist yet, no ping data to read.", container);
+                completed = true;
+            }
+        } catch (RuntimeException e) {
+            recordError(Operation.READ_ALL);
+            if (breaker == null) {
+                throw e;
+            }
+            log.warn(String.format("Error reading ping data of cluster '%s', using the local snapshot.", clustername), e);
+        } finally {
+            recordOperation(Operation.READ_ALL, start);
+        }
+        if (completed) {
+            responses.forEach(data -> collected.addResponse(data, data.isCoord()));
+        }
+
+        if (breaker == null) {
+            return;
+        }
+        if (!completed) {
+            if (breaker.failure()) {
+                log.warn("Reading ping data of cluster '%s' failed %d times in a row, using only the local snapshot for %d ms.",
+                        clustername, circuit_breaker_threshold, circuit_breaker_open_time);
+            }
+            readLocalSnapshot(clustername, collected);
+            return;
+        }
+        breaker.success();
+        // Only a read of all members is a complete snapshot
+        if (members == null) {
+            List<PingData> list = new ArrayList<>(responses.size());
+            responses.forEach(list::add);
+            writeLocalSnapshot(clustername, list);
+        }
+    }
+
+    /**
+     * Reads the ping data of all members of the given cluster, sharing the read with concurrent callers, and collects them in the responses.
+     *
+     * @return {@code false} if interrupted while waiting for the read of another caller, i.e. no ping data were added
+     */
+    private boolean readCoalesced(final List<Address> members, final String clustername, final Responses responses) {
+        if (!coalesce_reads) {
+            readAllAccounts(members, clustername, responses);
+            return true;
+        }
+        ReadCoalescer.Key key = new ReadCoalescer.Key(readHttpClient, containerClient.getBlobContainerUrl(), clustername);
+        // A caller waits for the read of another one no longer than it would read itself
+        long timeout = TimeUnit.MILLISECONDS.toNanos(read_all_timeout > 0 ? read_all_timeout : storage_call_timeout);
+        ReadCoalescer.Result result = ReadCoalescer.read(key, TimeUnit.MILLISECONDS.toNanos(read_reuse_window), timeout, () -> {
+            Responses collected = new Responses(false);
+            boolean complete = readAllAccounts(null, clustername, collected);
+            List<PingData> list = new ArrayList<>(collected.size());
+            collected.forEach(list::add);
+            return new ReadCoalescer.Read(list, complete && !Thread.currentThread().isInterrupted());
+        });
+        if (result.list() == null) {
+            return false;
+        }
+        if (result.shared()) {
+            coalescedReads.increment();
+        }
+        // An aggregate blob is only used for all members; one missing some of the requested members is left to a read of their files
+        if (use_aggregate_blob && members != null && !result.list().stream().map(PingData::getAddress).toList().containsAll(members)) {
+            readAllAccounts(members, clustername, responses);
+            return true;
+        }
+        collect(result.list(), responses);
+        return true;
+    }
+
+    /**
+     * Determines the placement of this member from the configured region and zone. Those not configured are queried from the instance metadata
+     * service in the background, so that starting the channel does not wait for it outside Azure; the ping data of this member are then
+     * written again to publish the placement.
+     */
+    private void resolvePlacement(final HttpClient httpClient) {
+        Placement configured = new Placement(region != null && !region.isEmpty() ? region : null, zone != null && !zone.isEmpty() ? zone : null);
+        if (configured.region() != null && configured.zone() != null) {
+            setPlacement(configured);
+            return;
+        }
+        Runnable task = () -> {
+            Placement placement = configured;
+            try {
+                placement = configured.override(Placement.fromInstanceMetadata(httpClient, instance_metadata_uri, INSTANCE_METADATA_TIMEOUT));
+            } catch (Exception e) {
+                log.warn("Could not query the placement of this member from the instance metadata service at '%s', using only the configured one: %s",
+                        instance_metadata_uri, e);
+            }
+            setPlacement(placement);
+            String clustername = cluster_name;
+            if (clustername != null && !is_leaving) {
+                if (is_coord) {
+                    writeInfo();
+                } else {
+                    writeOwnPingData(clustername);
+                }
+            }
+        };
+        ThreadFactory threadFactory = getThreadFactory();
+        Thread thread = threadFactory != null ? threadFactory.newThread(task, "AZURE_PING-placement") : new Thread(task, "AZURE_PING-placement");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void setPlacement(final Placement placement) {
+        localPlacement = placement;
+        log.debug("Placement of this member: region '%s', zone '%s'.", placement.region(), placement.zone());
+    }
+
+    @ManagedAttribute(description = "Region and availability zone of this member, as configured or queried from the instance metadata service")
+    public String getPlacement() {
+        Placement placement = localPlacement;
+        return placement != null ? placement.region() + "/" + placement.zone() : null;
+    }
+
+    /**
+     * Writes the ping data file of this member holding only its own ping data, so that other members learn its placement from the metadata
+     * of the file even if it is not the coordinator.
+     */
+    private void writeOwnPingData(final String clustername) {
+        Placement placement = localPlacement;
+        if (placement == null || !placement.isKnown() || local_addr == null || is_leaving) {
+            return;
+        }
+        placements.put(placementKey(local_addr), placement);
+        // The file may have been removed since the last upload, which would otherwise be skipped as unchanged
+        uploads.remove(addressToFilename(clustername, local_addr));
+        PhysicalAddress physicalAddress = (PhysicalAddress) down(new Event(Event.GET_PHYSICAL_ADDRESS, local_addr));
+        try {
+            write(List.of(new PingData(local_addr, true, NameCache.get(local_addr), physicalAddress).coord(is_coord)), clustername);
+        } catch (Exception e) {
+            log.warn(String.format("Error writing ping data of cluster '%s'; other members cannot prefer this one by placement.", clustername), e);
+        }
+    }
+
+    /**
+     * Records the placement held in the metadata of a listed ping data file as the one of the member which wrote the file, whose address
+     * the name of the file starts with. A placement does not change while the member is running, so unlike the ping data it is recorded even
+     * by a storage call abandoned on timeout.
+     */
+    private void recordPlacement(final String prefix, final BlobItem blobItem) {
+        Map<String, String> metadata = blobItem.getMetadata();
+        if (metadata == null || (metadata.get(REGION_METADATA_KEY) == null && metadata.get(ZONE_METADATA_KEY) == null)) {
+            return;
+        }
+        String member = blobItem.getName().substring(prefix.length());
+        int end = member.indexOf('.');
+        placements.put(end < 0 ? member : member.substring(0, end), new Placement(metadata.get(REGION_METADATA_KEY), metadata.get(ZONE_METADATA_KEY)));
+    }
+
+    /**
+     * Orders the ping data by the distance of their members to this one; members of unknown placement come last.
+     */
+    private List<PingData> byDistance(final Placement placement, final List<PingData> list) {
+        if (list.size() < 2) {
+            return list;
+        }
+        List<PingData> sorted = new ArrayList<>(list);
+        sorted.sort(Comparator.comparingInt(data -> placement.distance(placements.get(placementKey(data.getAddress())))));
+        return sorted;
+    }
+
+    /**
+     * Collects the ping data last written to the local snapshot file, if these belong to the given cluster.
+     */
+    private void readLocalSnapshot(final String clustername, final Responses responses) {
+        LocalSnapshot snapshot = localSnapshot;
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            ByteArray data = snapshot.read(clustername);
+            if (data == null) {
+                log.debug("No local snapshot '%s' of cluster '%s'.", snapshot.getPath(), clustername);
+                return;
+            }
+            List<PingData> list = unmarshal(data.array(), data.offset(), data.length());
+            if (list != null) {
+                localSnapshotReads.increment();
+                log.debug("Using %d ping data of cluster '%s' from local snapshot '%s'.", list.size(), clustername, snapshot.getPath());
+                collect(list, responses);
+            }
+        } catch (IOException e) {
+            log.warn(String.format("Error reading local snapshot '%s'.", snapshot.getPath()), e);
+        }
+    }
+
+    /**
+     * Replaces the local snapshot file with the given ping data, unless these did not change since last written.
+     */
+    private void writeLocalSnapshot(final String clustername, final List<PingData> list) {
+        LocalSnapshot snapshot = localSnapshot;
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            snapshot.write(clustername, serialize(list));
+        } catch (Exception e) {
+            log.warn(String.format("Error writing local snapshot '%s'.", snapshot.getPath()), e);
+        }
+    }
+
+    /**
+     * Collects the ping data of the membership snapshot of the local cluster, refreshing it synchronously first if it is too old.
+     *
+     * @return {@code true} if the ping data were collected, {@code false} if the ping data need to be read from the storage service instead
+     */
+    private boolean readSnapshot(final String clustername, final Responses responses) {
+        if (!clustername.equals(cluster_name)) {
+            return false;
+        }
+        long maxStaleness = TimeUnit.MILLISECONDS.toNanos(snapshot_max_staleness > 0 ? snapshot_max_staleness : 2 * snapshot_refresh_interval);
+        List<PingData> list = membershipSnapshot.get(clustername, maxStaleness, () -> refreshSnapshot(clustername));
+        if (list == null) {
+            return false;
+        }
+        snapshotHits.increment();
+        collect(list, responses);
+        return true;
+    }
+
+    /**
+     * Reads the ping data of all members of the given cluster into a new snapshot; unchanged files are served by the ping data cache,
+     * so that only files which changed since the last refresh are downloaded. The previous snapshot is kept if reading fails.
+     */
+    private void refreshSnapshot(final String clustername) {
+        long start = System.nanoTime();
+        try {
+            membershipSnapshot.refresh(clustername, this::readForSnapshot);
+        } catch (Exception e) {
+            recordError(Operation.READ_ALL);
+            log.warn(String.format("Error refreshing the membership snapshot of cluster '%s'.", clustername), e);
+        } finally {
+            recordOperation(Operation.READ_ALL, start);
+        }
+    }
+
+    /**
+     * Reads the ping data of all members of the given cluster for the membership snapshot, and writes them to the local snapshot file.
+     *
+     * @return the ping data, or {@code null} if the storage call did not complete
+     */
+    private List<PingData> readForSnapshot(final String clustername) {
+        Responses collected = new Responses(false);
+        try {
+            if (!call(Operation.READ_ALL, () -> readAllAccounts(null, clustername, collected))) {
+                return null;
+            }
+        } catch (BlobStorageException e) {
+            if (e.getErrorCode() != BlobErrorCode.CONTAINER_NOT_FOUND) {
+                throw e;
+            }
+            return List.of();
+        }
+        List<PingData> list = new ArrayList<>(collected.size());
+        collected.forEach(list::add);
+        writeLocalSnapshot(clustername, list);
+        return list;
+    }
+
+    private synchronized void startSnapshotRefresher() {
+        if (snapshotRefresher == null || snapshotRefresher.isDone()) {
+            snapshotRefresher = timer.scheduleWithDynamicInterval(new TimeScheduler.Task() {
+                @Override
+                public void run() {
+                    String clustername = cluster_name;
+                    if (clustername != null) {
+                        refreshSnapshot(clustername);
+                    }
+                }
+
+                @Override
+                public long nextInterval() {
+                    // Spreads the refreshes of all members over time
+                    long jitter = snapshot_refresh_interval / 4;
+                    return snapshot_refresh_interval - jitter + (jitter > 0 ? ThreadLocalRandom.current().nextLong(2 * jitter + 1) : 0);
+                }
+
+                @Override
+                public String toString() {
+                    return AZURE_PING.class.getSimpleName() + ": SnapshotRefresher";
+                }
+            });
+        }
+    }
+
+    private synchronized void stopSnapshotRefresher() {
+        if (snapshotRefresher != null) {
+            snapshotRefresher.cancel(false);
+            snapshotRefresher = null;
+        }
+        membershipSnapshot.clear();
+    }
+
+    private synchronized void startNotificationPoller() {
+        String clustername = cluster_name;
+        if (clustername == null || (notificationPoller != null && !notificationPoller.isDone())) {
+            return;
+        }
+        String member = addressAsString(local_addr);
+        MembershipNotifications current = notifications;
+        if (current == null || !current.getQueue().getName().equals(NotificationQueue.queueName(container, clustername, member))) {
+            try {
+                NotificationQueue queue = new NotificationQueue(queueClients.httpClient(), queueEndpoint == null ? connection_string : null, queueEndpoint,
+                        queueKeyCredential, queueClients.credential(), container, clustername, member, Duration.ofMillis(notification_ttl));
+                current = new MembershipNotifications(queue, membershipSnapshot, this::read, this::addToCaches, Duration.ofMillis(notification_ttl));
+                notifications = current;
+            } catch (NoClassDefFoundError e) {
+                log.warn("Notifications require 'com.azure:azure-storage-queue' dependency on the classpath; only reading ping data files.");
+                return;
+            }
+        }
+        current.reset();
+        notificationPoller = timer.scheduleWithFixedDelay(this::pollNotifications, 0, notification_poll_interval, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopNotificationPoller() {
+        if (notificationPoller != null) {
+            notificationPoller.cancel(false);
+            notificationPoller = null;
+        }
+    }
+
+    /**
+     * Deletes the notification queue of this member, which no member posts to once this member left their view.
+     */
+    private void deleteNotificationQueue() {
+        MembershipNotifications notifications = this.notifications;
+        if (notifications == null) {
+            return;
+        }
+        NotificationQueue queue = notifications.getQueue();
+        try {
+            queue.delete(timeout(delete_timeout));
+        } catch (Exception e) {
+            log.debug(String.format("Error deleting notification queue '%s'.", queue.getName()), e);
+        }
+    }
+
+    /**
+     * Deletes the notification queues of members which left the view. Members which leave gracefully delete their own queue,
+     * but those of crashed members would be left behind.
+     */
+    private void deleteNotificationQueues(final List<String> members) {
+        MembershipNotifications notifications = this.notifications;
+        if (notifications == null) {
+            return;
+        }
+        try {
+            notifications.getQueue().delete(members, timeout(delete_timeout));
+        } catch (Exception e) {
+            log.debug(String.format("Error deleting notification queues of members %s which left.", members), e);
+        }
+    }
+
+    /**
+     * Posts a change event of the local cluster to the notification queues of the other members of the view.
+     * Failures are only logged, as members still read the ping data files.
+     */
+    private void postEvent(final String clustername, final EventSupplier event) {
+        MembershipNotifications notifications = this.notifications;
+        View view = this.view;
+        if (notifications == null || view == null || !clustername.equals(cluster_name) || !clustername.equals(notifications.getQueue().getClusterName())) {
+            return;
+        }
+        List<String> recipients = view.getMembers().stream()
+                .filter(member -> !member.equals(local_addr))
+                .map(AZURE_PING::addressAsString)
+                .toList();
+        if (recipients.isEmpty()) {
+            return;
+        }
+        try {
+            if (!notifications.post(event.get(), recipients, timeout(put_timeout))) {
+                log.debug("Change event of cluster '%s' exceeds the maximum message size, members will read it from the ping data files.", clustername);
+            }
+        } catch (Exception e) {
+            log.warn(String.format("Error posting change event of cluster '%s' to the notification queues.", clustername), e);
+        }
+    }
+
+    /**
+     * Applies the change events posted since the last poll to the discovery caches and to the membership snapshot.
+     */
+    private void pollNotifications() {
+        MembershipNotifications notifications = this.notifications;
+        String clustername = cluster_name;
+        if (notifications == null || clustername == null) {
+            return;
+        }
+        NotificationQueue queue = notifications.getQueue();
+        long start = System.nanoTime();
+        NotificationQueue.Poll poll;
+        try {
+            poll = queue.poll(timeout(list_timeout));
+        } catch (Exception e) {
+            log.debug(String.format("Error polling notification queue '%s'.", queue.getName()), e);
+            return;
+        }
+        for (byte[] event : poll.events()) {
+            try {
+                if (notifications.apply(clustername, event)) {
+                    notificationEvents.increment();
+                } else {
+                    log.debug("Ignoring change event of unknown type %d.", event.length > 0 ? event[0] : -1);
+                }
+            } catch (Exception e) {
+                log.warn(String.format("Error applying change event from notification queue '%s'.", queue.getName()), e);
+            }
+        }
+        if (!poll.complete()) {
+            // Events may have been missed or are left for the next poll, so let the snapshot age
+            log.debug("Notification queue '%s' was not emptied by the poll.", queue.getName());
+            return;
+        }
+        notifications.completed(clustername, start);
+    }
+
+    private void addToCaches(final PingData data) {
+        if (local_addr != null && !local_addr.equals(data.getAddress())) {
+            addDiscoveryResponseToCaches(data.getAddress(), data.getLogicalName(), data.getPhysicalAddr());
+        }
+    }
+
+    /**
+     * Collects the ping data of the membership log of the local cluster, reading only the records appended since the last read.
+     *
+     * @return {@code true} if the ping data were collected, {@code false} if the ping data files need to be read instead
+     */
+    private boolean readMembershipLog(final String clustername, final Responses responses) {
+        MembershipLog membershipLog = this.membershipLog;
+        if (membershipLog == null || !clustername.equals(cluster_name)) {
+            return false;
+        }
+        List<PingData> list;
+        try {
+            list = membershipLog.read(timeout(get_timeout));
+        } catch (Exception e) {
+            log.debug(String.format("Error reading membership log '%s', reading the ping data files instead.", membershipLog.getName()), e);
+            return false;
+        }
+        if (list == null) {
+            return false;
+        }
+        membershipLogReads.increment();
+        collect(list, responses);
+        return true;
+    }
+
+    /**
+     * Appends a record to the membership log of the local cluster. A record which cannot be appended is only logged,
+     * since it is recovered from the ping data files by the next compaction.
+     */
+    private void appendMembershipLog(final String clustername, final byte type, final String filename, final byte[] content) {
+        MembershipLog membershipLog = this.membershipLog;
+        if (membershipLog == null || !clustername.equals(cluster_name)) {
+            return;
+        }
+        try {
+            if (!membershipLog.append(MembershipLog.record(type, filename, content), timeout(put_timeout))) {
+                log.trace("Membership log '%s' does not exist yet, leaving the record to its compaction.", membershipLog.getName());
+            }
+        } catch (Exception e) {
+            log.warn(String.format("Error appending to membership log '%s'.", membershipLog.getName()), e);
+        }
+    }
+
+    /**
+     * Rewrites the membership log from the ping data files if it is missing, incomplete or too large, or if it does not list the same files
+     * as the container, e.g. because appending a record failed. The log is only replaced if it was not appended to while the ping data files
+     * were read, otherwise compaction is retried by the next run. As it reads all ping data files, it is guarded by the maintenance lease
+     * so that concurrent coordinators do not duplicate it.
+     */
+    private void compactMembershipLog(final String clustername) {
+        MembershipLog membershipLog = this.membershipLog;
+        if (membershipLog == null || !clustername.equals(cluster_name) || !acquireMaintenanceLease(clustername)) {
+            return;
+        }
+        try {
+            BlobProperties properties = membershipLog.getProperties(timeout(get_timeout));
+            Set<String> names = new HashSet<>();
+            for (BlobItem blobItem : containerClient.listBlobs(new ListBlobsOptions().setPrefix(getSanitizedPrefix(clustername)), timeout(list_timeout))) {
+                if (!isExpired(blobItem)) {
+                    names.add(blobItem.getName());
+                }
+            }
+            if (!membershipLog.needsCompaction(properties, names, membership_log_max_size, timeout(get_timeout))) {
+                return;
+            }
+
+            List<byte[]> records = new ArrayList<>();
+            for (String name : names) {
+                PingDataFile file = download(name, 0);
+                if (file != null && file.list() != null) {
+                    ByteArray content = serialize(file.list());
+                    records.add(MembershipLog.record(MembershipLog.RECORD_UPDATE, file.name(),
+                            Arrays.copyOfRange(content.array(), content.offset(), content.offset() + content.length())));
+                }
+            }
+            membershipLog.compact(properties, records, timeout(put_timeout));
+            membershipLogCompactions.increment();
+            log.debug("Compacted membership log '%s' to %d records.", membershipLog.getName(), records.size());
+        } catch (BlobStorageException e) {
+            if (e.getStatusCode() != HttpURLConnection.HTTP_PRECON_FAILED && e.getStatusCode() != HttpURLConnection.HTTP_CONFLICT) {
+                log.warn(String.format("Error compacting membership log '%s'.", membershipLog.getName()), e);
+                return;
+            }
+            log.debug("Membership log '%s' was appended to during compaction, retrying later.", membershipLog.getName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn(String.format("Error compacting membership log '%s'.", membershipLog.getName()), e);
+        }
+    }
+
+    private synchronized void startMembershipLogCompactor() {
+        if (membershipLogCompactor == null || membershipLogCompactor.isDone()) {
+            membershipLogCompactor = timer.scheduleWithFixedDelay(() -> {
+                String clustername = cluster_name;
+                if (clustername != null) {
+                    compactMembershipLog(clustername);
+                }
+            }, 0, membership_log_compaction_interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void stopMembershipLogCompactor() {
+        if (membershipLogCompactor != null) {
+            membershipLogCompactor.cancel(false);
+            membershipLogCompactor = null;
+        }
+    }
+
+    /**
+     * Reads the ping data from the membership log if enabled, otherwise from the storage accounts, racing the replicas if any.
+     *
+     * @return {@code false} if the ping data files of the primary storage account were not all read, see {@link #readAllFiles}
+     */
+    private boolean readAllAccounts(final List<Address> members, final String clustername, final Responses responses) {
+        if (readMembershipLog(clustername, responses)) {
+            return true;
+        }
+        Replication replication = this.replication;
+        if (replication == null) {
+            return readAllFiles(members, clustername, responses);
+        }
+        AtomicBoolean complete = new AtomicBoolean(true);
+        collect(replication.read(clustername, account -> readAccount(account, members, clustername, complete)), responses);
+        return complete.get();
+    }
+
+    private List<PingData> readAccount(final StorageAccount account, final List<Address> members, final String clustername, final AtomicBoolean complete) {
+        try {
+            if (account != primaryAccount) {
+                return readReplicaFiles(account, clustername);
+            }
+            Responses collected = new Responses(false);
+            if (!readAllFiles(members, clustername, collected)) {
+                complete.set(false);
+            }
+            List<PingData> list = new ArrayList<>(collected.size());
+            collected.forEach(list::add);
+            return list;
+        } catch (BlobStorageException e) {
+            if (e.getErrorCode() != BlobErrorCode.CONTAINER_NOT_FOUND) {
+                throw e;
+            }
+            // A storage account added recently holds no ping data yet
+            return List.of();
+        }
+    }
+
+    /**
+     * Reads all ping data files of the given cluster from a replica, which neither keeps an aggregate blob nor metadata, nor is cached.
+     */
+    private List<PingData> readReplicaFiles(final StorageAccount account, final String clustername) {
+        List<PingData> result = new ArrayList<>();
+        ListBlobsOptions options = new ListBlobsOptions().setPrefix(getSanitizedPrefix(clustername));
+        for (BlobItem blobItem : account.containerClient().listBlobs(options, timeout(list_timeout))) {
+            if (isExpired(blobItem)) {
+                skippedExpiredFiles.increment();
+                continue;
+            }
+            ByteArrayDataOutputStream out = new ByteArrayDataOutputStream(STREAM_BUFFER_SIZE);
+            try {
+                account.containerClient().getBlobClient(blobItem.getName()).downloadStreamWithResponse(out, null, null, null, false, timeout(get_timeout), Context.NONE);
+            } catch (BlobStorageException e) {
+                if (e.getErrorCode() != BlobErrorCode.BLOB_NOT_FOUND) {
+                    throw e;
+                }
+                // Removed since it was listed
+                continue;
+            }
+            List<PingData> list = unmarshal(out.buffer(), 0, out.position());
+            if (list != null) {
+                result.addAll(list);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the ping data files of the given cluster, or its aggregate blob if enabled and current.
+     *
+     * @return {@code false} if files were left out because the read was interrupted or exceeded {@code read_all_timeout}
+     */
+    private boolean readAllFiles(final List<Address> members, final String clustername, final Responses responses) {
+        if (use_aggregate_blob && readAggregate(members, clustername, responses)) {
+            return true;
+        }
+
+        String prefix = getSanitizedPrefix(clustername);
+        long deadline = read_all_timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(read_all_timeout) : 0;
+
+        ListBlobsOptions options = new ListBlobsOptions().setPrefix(prefix).setDetails(new BlobListDetails().setRetrieveMetadata(use_metadata || zone_aware));
+        boolean recordPlacements = zone_aware && clustername.equals(cluster_name);
+        ExecutorService executor = downloadExecutor;
+        Semaphore permits = downloadPermits;
+        Map<String, String> listed = new HashMap<>();
+
+        if (executor == null) {
+            // A listing request times out on the deadline at the latest, and so does each download
+            try {
+                for (BlobItem blobItem : containerClient.listBlobs(options, timeout(list_timeout, deadline))) {
+                    if (isPast(deadline)) {
+                        return leaveOutRemaining(clustername, prefix, listed);
+                    }
+                    if (isExpired(blobItem)) {
+                        skippedExpiredFiles.increment();
+                        continue;
+                    }
+                    listed.put(blobItem.getName(), getETag(blobItem));
+                    if (recordPlacements) {
+                        recordPlacement(prefix, blobItem);
+                    }
+                    if (readListed(blobItem, responses)) {
+                        continue;
+                    }
+                    try {
+                        parseDownloaded(blobItem.getName(), download(blobItem.getName(), deadline), responses);
+                    } catch (Exception t) {
+                        if (isPast(deadline)) {
+                            return leaveOutRemaining(clustername, prefix, listed);
+                        }
+                        recordError(Operation.READ_ALL);
+                        log.error(String.format("Error fetching/reading ping data file '%s'.", blobItem.getName()), t);
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (isPast(deadline)) {
+                    return leaveOutRemaining(clustername, prefix, listed);
+                }
+                throw e;
+            }
+            evictUnlisted(prefix, listed, true);
+            return !Thread.currentThread().isInterrupted();
+        }
+
+        // Downloads of one listing page overlap with listing of the next one; the executor caps in-flight requests
+        CompletionService<PingDataFile> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<PingDataFile>, String> pending = new HashMap<>();
+        try {
+            for (PagedResponse<BlobItem> page : containerClient.listBlobs(options, timeout(list_timeout, deadline)).iterableByPage()) {
+                if (isPast(deadline)) {
+                    return leaveOutRemaining(clustername, prefix, listed);
+                }
+                for (BlobItem blobItem : page.getValue()) {
+                    if (isExpired(blobItem)) {
+                        skippedExpiredFiles.increment();
+                        continue;
+                    }
+                    String name = blobItem.getName();
+                    listed.put(name, getETag(blobItem));
+                    if (recordPlacements) {
+                        recordPlacement(prefix, blobItem);
+                    }
+                    if (!readListed(blobItem, responses)) {
+                        pending.put(completionService.submit(() -> download(name, permits, deadline)), name);
+                    }
+                }
+                Future<PingDataFile> future;
+                while ((future = completionService.poll()) != null) {
+                    parseDownloaded(future, pending.remove(future), responses);
+                }
+            }
+            evictUnlisted(prefix, listed, true);
+            while (!pending.isEmpty()) {
+                Future<PingDataFile> future;
+                if (deadline == 0) {
+                    future = completionService.take();
+                } else {
+                    future = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (future == null) {
+                        log.warn("Reading ping data for cluster '%s' exceeded the deadline of %d ms; %d files are left out.", clustername, read_all_timeout, pending.size());
+                        return false;
+                    }
+                }
+                parseDownloaded(future, pending.remove(future), responses);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (RuntimeException e) {
+            if (isPast(deadline)) {
+                return leaveOutRemaining(clustername, prefix, listed);
+            }
+            throw e;
+        } finally {
+            pending.keySet().forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Collects the ping data using only the listing of the given blob, i.e. from the cached ping data if its ETag did not change since it was cached
+     * or from the ping data stored in the blob metadata.
+     *
+     * @return {@code true} if the ping data were collected, {@code false} if the blob needs to be downloaded
+     */
+    private boolean readListed(final BlobItem blobItem, final Responses responses) {
+        String etag = getETag(blobItem);
+        if (pingDataCache != null) {
+            List<PingData> cached = pingDataCache.get(blobItem.getName(), etag);
+            if (cached != null) {
+                pingDataCacheHits.increment();
+                collect(cached, responses);
+                return true;
+            }
+            pingDataCacheMisses.increment();
+        }
+
+        String encoded = blobItem.getMetadata() != null ? blobItem.getMetadata().get(PING_DATA_METADATA_KEY) : null;
+        if (encoded == null) {
+            return false;
+        }
+        List<PingData> list;
+        try {
+            list = parsePingData(Base64.getDecoder().decode(encoded));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid ping data in metadata of '%s', downloading the file instead.", blobItem.getName());
+            return false;
+        }
+        if (list == null) {
+            return false;
+        }
+        collect(list, responses);
+        if (pingDataCache != null) {
+            pingDataCache.put(blobItem.getName(), etag, list);
+        }
+        return true;
+    }
+
+    /**
+     * Stops reading the ping data files of the given cluster on the deadline, leaving out the files not read yet.
+     *
+     * @return {@code false}, i.e. the ping data files were not all read
+     */
+    private boolean leaveOutRemaining(final String clustername, final String prefix, final Map<String, String> listed) {
+        log.warn("Reading ping data for cluster '%s' exceeded the deadline of %d ms; remaining files are left out.", clustername, read_all_timeout);
+        evictUnlisted(prefix, listed, false);
+        return false;
+    }
+
+    /**
+     * Evicts cached ping data of files which are no longer listed and forgets uploads of files which were since deleted or modified elsewhere.
+     * Blobs are listed in lexicographical order, so of a listing cut short only the files before the last listed one are known to be deleted.
+     *
+     * @param listedAll whether all files were listed
+     */
+    private void evictUnlisted(final String prefix, final Map<String, String> listed, final boolean listedAll) {
+        String last = listedAll ? null : listed.keySet().stream().max(Comparator.naturalOrder()).orElse("");
+        Predicate<String> deleted = name -> !listed.containsKey(name) && (last == null || name.compareTo(last) < 0);
+        if (pingDataCache != null) {
+            if (listedAll) {
+                pingDataCache.retainAll(listed.keySet());
+            } else {
+                pingDataCache.removeIf(name -> name.startsWith(prefix) && deleted.test(name));
+            }
+        }
+        uploads.entrySet().removeIf(entry -> entry.getKey().startsWith(prefix) && (listed.containsKey(entry.getKey())
+                ? !Objects.equals(listed.get(entry.getKey()), entry.getValue().etag()) : deleted.test(entry.getKey())));
+    }
+
+    /**
+     * Returns whether the given blob was not modified within {@code ping_data_ttl}, i.e. presumably belongs to a crashed member.
+     */
+    private boolean isExpired(final BlobItem blobItem) {
+        if (ping_data_ttl <= 0 || blobItem.getProperties() == null) {
+            return false;
+        }
+        OffsetDateTime lastModified = blobItem.getProperties().getLastModified();
+        return lastModified != null && lastModified.isBefore(OffsetDateTime.now().minus(Duration.ofMillis(ping_data_ttl)));
+    }
+
+    private static String getETag(final BlobItem blobItem) {
+        return blobItem.getProperties() != null ? blobItem.getProperties().getETag() : null;
+    }
+
+    private void parseDownloaded(final Future<PingDataFile> future, final String name, final Responses responses) {
+        try {
+            PingDataFile file = future.get();
+            parseDownloaded(file.name(), file, responses);
+        } catch (ExecutionException e) {
+            recordError(Operation.READ_ALL);
+            log.error(String.format("Error fetching/reading ping data file '%s'.", name), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void parseDownloaded(final String name, final PingDataFile file, final Responses responses) {
+        collect(file.list(), responses);
+        if (pingDataCache != null) {
+            pingDataCache.put(name, file.etag(), file.list());
+        }
+    }
+
+    private PingDataFile download(final String name, final Semaphore permits, final long deadline) throws InterruptedException {
+        if (permits == null) {
+            return download(name, deadline);
+        }
+        permits.acquire();
+        try {
+            return download(name, deadline);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Downloads the given blob, sending a hedged request if enabled and the download takes longer than the hedging threshold.
+     *
+     * @param deadline {@link System#nanoTime()} by which the download times out at the latest, 0 for none
+     */
+    protected PingDataFile download(final String name, final long deadline) throws InterruptedException {
+        ExecutorService executor = hedgeExecutor;
+        if (executor == null) {
+            return downloadFile(name, deadline);
+        }
+
+        CompletionService<PingDataFile> completionService = new ExecutorCompletionService<>(executor);
+        long start = System.nanoTime();
+        // Slow primaries are recorded as well, also when they lose and are cancelled, as the threshold would otherwise only ever decrease
+        Future<PingDataFile> primary = completionService.submit(() -> {
+            try {
+                return downloadFile(name, deadline);
+            } finally {
+                downloadLatency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            }
+        });
+        Future<PingDataFile> hedge = null;
+        try {
+            Future<PingDataFile> completed = completionService.poll(hedgingThreshold(), TimeUnit.MICROSECONDS);
+            if (completed == null) {
+                hedgedReads.increment();
+                log.trace("Download of '%s' exceeded the hedging threshold, sending a hedged request.", name);
+                hedge = completionService.submit(() -> downloadFile(name, deadline));
+                completed = completionService.take();
+            }
+            PingDataFile file;
+            try {
+                file = completed.get();
+            } catch (ExecutionException e) {
+                if (hedge == null) {
+                    throw e;
+                }
+                // The other request may still succeed
+                completed = completionService.take();
+                file = completed.get();
+            }
+            if (completed == hedge) {
+                hedgedReadWins.increment();
+            }
+            return file;
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } finally {
+            // The losing request is interrupted rather than left to complete in the background
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private static RuntimeException rethrow(final Throwable failure) {
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        return failure instanceof RuntimeException exception ? exception : new IllegalStateException(failure);
+    }
+
+    /**
+     * Returns the time (in us) after which a download is hedged, i.e. the configured percentile of the latency of previous downloads.
+     */
+    private long hedgingThreshold() {
+        return Math.max(downloadLatency.percentile(hedged_read_percentile), TimeUnit.MILLISECONDS.toMicros(hedged_read_min_delay));
+    }
+
+    /**
+     * Downloads the given blob and unmarshals its content from the download buffer, so that downloads running in parallel are also
+     * unmarshalled in parallel.
+     */
+    private PingDataFile downloadFile(final String name, final long deadline) {
+        ByteArrayDataOutputStream out = new ByteArrayDataOutputStream(STREAM_BUFFER_SIZE);
+        BlobDownloadResponse response = containerClient.getBlobClient(name).downloadStreamWithResponse(out, null, null, null, false,
+                timeout(get_timeout, deadline), Context.NONE);
+        return new PingDataFile(name, unmarshal(out.buffer(), 0, out.position()), response.getDeserializedHeaders().getETag());
+    }
+
+    private static Duration timeout(final long millis) {
+        return millis > 0 ? Duration.ofMillis(millis) : null;
+    }
+
+    /**
+     * Returns the timeout of a request, i.e. the given timeout (in ms) capped by the time left until the given deadline, if any.
+     */
+    private static Duration timeout(final long millis, final long deadline) {
+        if (deadline == 0) {
+            return timeout(millis);
+        }
+        long left = Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), 1);
+        return Duration.ofMillis(millis > 0 ? Math.min(millis, left) : left);
+    }
+
+    private static boolean isPast(final long deadline) {
+        return deadline != 0 && deadline - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Parses the ping data and adds them to the responses and discovery caches.
+     */
+    protected void parsePingData(final byte[] pingBytes, final List<Address> members, final Responses responses) {
+        addResponses(parsePingData(pingBytes), members, responses);
+    }
+
+    /**
+     * Parses the ping data.
+     *
+     * @return parsed ping data or {@code null} if these could not be parsed
+     */
+    protected List<PingData> parsePingData(final byte[] pingBytes) {
+        return pingBytes != null ? unmarshal(pingBytes, 0, pingBytes.length) : null;
+    }
 
-    static {
-        ClassConfigurator.addProtocol((short) 530, AZURE_PING.class);
+    /**
+     * Unmarshals the ping data without copying them.
+     *
+     * @return unmarshalled ping data or {@code null} if these could not be unmarshalled
+     */
+    private List<PingData> unmarshal(final byte[] buffer, final int offset, final int length) {
+        if (length <= 0) {
+            return null;
+        }
+        try {
+            return read(new ByteArrayDataInputStream(buffer, offset, length));
+        } catch (Exception e) {
+            recordError(Operation.READ_ALL);
+            log.error("Error unmarshalling ping data.", e);
+            return null;
+        }
     }
 
-    public AZURE_PING() {
-        super();
+    /**
+     * Adds the ping data to the responses of a read without filtering them or updating the discovery caches, which is left to {@link #readAll}.
+     */
+    private static void collect(final List<PingData> list, final Responses responses) {
+        if (list != null) {
+            list.forEach(data -> responses.addResponse(data, data.isCoord()));
+        }
+    }
 
-        // Disable shutdown hook by default
-        this.register_shutdown_hook = false;
+    private void addResponses(final List<PingData> list, final List<Address> members, final Responses responses) {
+        if (list != null) {
+            // This is a common piece of logic for all PING protocols copied from org/jgroups/protocols/FILE_PING.java:245
+            // Maybe could be extracted for all PING impls to share this logic?
+            for (PingData data : list) {
+                if (members == null || members.contains(data.getAddress())) {
+                    responses.addResponse(data, data.isCoord());
+                }
+                if (local_addr != null && !local_addr.equals(data.getAddress())) {
+                    addDiscoveryResponseToCaches(data.getAddress(), data.getLogicalName(), data.getPhysicalAddr());
+                }
+            }
+            // end copied block
+        }
+    }
+
+    /**
+     * Reads the aggregate blob maintained by the coordinator.
+     *
+     * @return {@code true} if the aggregate blob was fresh and contained all requested members, {@code false} if the ping data files of all members
+     * need to be read instead
+     */
+    private boolean readAggregate(final List<Address> members, final String clustername, final Responses responses) {
+        AggregateBlob aggregate = new AggregateBlob(containerClient.getBlobClient(aggregateFilename(clustername)), Duration.ofMillis(aggregate_blob_max_age));
+        try {
+            ByteArray data = aggregate.read(timeout(get_timeout));
+            if (data == null) {
+                log.debug("Aggregate ping data file '%s' is missing or stale, reading ping data files of all members.", aggregate.getName());
+                return false;
+            }
+            List<PingData> list = unmarshal(data.array(), data.offset(), data.length());
+            if (list == null || list.isEmpty()) {
+                return false;
+            }
+            if (members != null && !list.stream().map(PingData::getAddress).toList().containsAll(members)) {
+                log.debug("Aggregate ping data file '%s' is missing requested members, reading ping data files of all members.", aggregate.getName());
+                return false;
+            }
+            collect(list, responses);
+            return true;
+        } catch (Exception e) {
+            log.warn(String.format("Error reading aggregate ping data file '%s'.", aggregate.getName()), e);
+        }
+        return false;
     }
 
     @Override
-    public void init() throws Exception {
-        super.init();
+    protected void write(final List<PingData> list, final String clustername) {
+        if (list == null || clustername == null) {
+            return;
+        }
 
-        // Validate configuration
-        // Can throw IAEs
-        this.validateConfiguration();
+        CoalescingWriter<String, List<PingData>> writer = asyncWriter;
+        if (writer != null) {
+            if (writer.submit(clustername, list)) {
+                coalescedWrites.increment();
+            }
+            return;
+        }
+        writeNow(list, clustername);
+    }
 
+    private void writeNow(final List<PingData> list, final String clustername) {
+        long start = System.nanoTime();
         try {
-            BlobServiceClientBuilder builder = new BlobServiceClientBuilder();
+            call(Operation.WRITE, () -> writeFile(list, clustername, false));
+        } finally {
+            recordOperation(Operation.WRITE, start);
+        }
+    }
 
-            if (connection_string != null && !connection_string.isEmpty()) {
-                builder.connectionString(connection_string);
-            } else {
-                // Set credential: use shared key if access key is provided, otherwise fall back to DefaultAzureCredential
-                if (storage_access_key != null && !storage_access_key.isEmpty()) {
-                    builder.credential(new StorageSharedKeyCredential(storage_account_name, storage_access_key));
-                } else {
-                    try {
-                        builder.credential(new DefaultAzureCredentialBuilder().build());
-                    } catch (NoClassDefFoundError e) {
-                        throw new IllegalStateException("DefaultAzureCredential requires 'com.azure:azure-identity' dependency on the classpath.", e);
-                    }
+    /**
+     * Waits for the pending uploads of the given cluster, or of all clusters if {@code null}, so that these cannot recreate a file removed afterwards.
+     */
+    private void flushWrites(final String clustername) {
+        CoalescingWriter<String, List<PingData>> writer = asyncWriter;
+        if (writer == null) {
+            return;
+        }
+        try {
+            boolean flushed = clustername != null
+                    ? writer.flush(clustername, storage_call_timeout, TimeUnit.MILLISECONDS)
+                    : writer.flush(storage_call_timeout, TimeUnit.MILLISECONDS);
+            if (!flushed) {
+                log.warn("Pending ping data uploads did not complete within %d ms.", storage_call_timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Uploads the ping data file of this member. A refresh rewrites the ping data last uploaded only to renew the modification time
+     * of the file, which is no membership change, so it is neither recorded in the membership log nor notified.
+     */
+    private void writeFile(final List<PingData> list, final String clustername, final boolean refresh) {
+        String filename = addressToFilename(clustername, local_addr);
+        Replication replication = this.replication;
+        CompletableFuture<Void> replicated = null;
+
+        try {
+            ByteArray data = serialize(list);
+            if (replication != null) {
+                byte[] content = Arrays.copyOfRange(data.array(), data.offset(), data.offset() + data.length());
+                replicated = replication.replicate(String.format("uploading ping data file '%s'", filename), replica -> uploadReplica(replica, filename, content));
+            }
+
+            boolean uploaded;
+            try {
+                uploaded = upload(filename, data, refresh);
+            } catch (BlobStorageException e) {
+                if (!lazy_container_creation || e.getErrorCode() != BlobErrorCode.CONTAINER_NOT_FOUND) {
+                    throw e;
                 }
+                createContainer();
+                uploaded = upload(filename, data, refresh);
+            }
+            // A skipped upload neither renewed the file nor replaced its ping data
+            if (uploaded) {
+                ownPingData = list;
+                lastWrite = System.nanoTime();
+            }
+            if (uploaded && !refresh) {
+                appendMembershipLog(clustername, MembershipLog.RECORD_UPDATE, filename, Arrays.copyOfRange(data.array(), data.offset(), data.offset() + data.length()));
+                postEvent(clustername, () -> MembershipNotifications.update(local_addr, data));
+            }
 
-                // Set endpoint
-                if (blob_storage_uri != null && !blob_storage_uri.isEmpty()) {
-                    builder.endpoint(blob_storage_uri);
-                } else {
-                    String suffix = (endpoint_suffix != null && !endpoint_suffix.isEmpty()) ? endpoint_suffix : DEFAULT_ENDPOINT_SUFFIX;
-                    String protocol = use_https ? "https" : "http";
-                    builder.endpoint(String.format("%s://%s.blob.%s", protocol, storage_account_name, suffix));
+            // The coordinator's own file lists all members, which is exactly what the aggregate blob holds
+            AggregateBlob aggregate = aggregateBlob;
+            if (aggregate != null && is_coord && clustername.equals(cluster_name)) {
+                try {
+                    aggregate.update(data, timeout(put_timeout));
+                } catch (Exception e) {
+                    log.error(String.format("Error uploading aggregate ping data file '%s'.", aggregate.getName()), e);
                 }
             }
+        } catch (Exception ex) {
+            recordError(Operation.WRITE);
+            log.error("Error marshalling and uploading ping data.", ex);
+        } finally {
+            Replication.await(replicated);
+        }
+    }
 
-            BlobServiceClient blobServiceClient = builder.buildClient();
-            containerClient = blobServiceClient.getBlobContainerClient(container);
-            boolean created = containerClient.createIfNotExists();
+    /**
+     * Uploads the ping data file to a replica, overwriting it unconditionally: the digests and ETags of previous uploads are only kept
+     * for the storage account configured above.
+     */
+    private void uploadReplica(final StorageAccount replica, final String filename, final byte[] content) {
+        BlobClient blobClient = replica.containerClient().getBlobClient(filename);
+        try {
+            blobClient.uploadWithResponse(new BlobParallelUploadOptions(BinaryData.fromBytes(content)), timeout(put_timeout), Context.NONE);
+        } catch (BlobStorageException e) {
+            if (e.getErrorCode() != BlobErrorCode.CONTAINER_NOT_FOUND) {
+                throw e;
+            }
+            replica.containerClient().createIfNotExists();
+            blobClient.uploadWithResponse(new BlobParallelUploadOptions(BinaryData.fromBytes(content)), timeout(put_timeout), Context.NONE);
+        }
+    }
+
+    /**
+     * Marshals the ping data into the format stored in ping data files.
+     *
+     * @return marshalled ping data backed by the marshalling buffer, which is not copied
+     */
+    protected ByteArray serialize(final List<PingData> list) throws Exception {
+        ByteArrayDataOutputStream out = new ByteArrayDataOutputStream(STREAM_BUFFER_SIZE);
+        write(list, out);
+        return out.getBuffer();
+    }
 
-            if (created) {
-                log.info("Created container named '%s'.", container);
+    /**
+     * Uploads the ping data file.
+     *
+     * @return {@code false} if the upload was skipped, because the ping data did not change or the file was modified elsewhere meanwhile
+     */
+    private boolean upload(final String filename, final ByteArray data, final boolean force) throws NoSuchAlgorithmException {
+        // The marshalling buffer is not reused, so the storage client reads it in place even if the upload is abandoned on timeout
+        ByteBuffer content = ByteBuffer.wrap(data.array(), data.offset(), data.length());
+        BlobParallelUploadOptions options = new BlobParallelUploadOptions(BinaryData.fromByteBuffer(content.asReadOnlyBuffer()));
+        Map<String, String> metadata = new HashMap<>();
+        if (use_metadata) {
+            String encoded = StandardCharsets.ISO_8859_1.decode(Base64.getEncoder().encode(content.duplicate())).toString();
+            if (encoded.length() <= MAX_METADATA_VALUE_SIZE) {
+                metadata.put(PING_DATA_METADATA_KEY, encoded);
             } else {
-                log.debug("Using existing container named '%s'.", container);
+                log.debug("Ping data for '%s' exceed the metadata size limit, storing them in the file only.", filename);
+            }
+        }
+        Placement placement = localPlacement;
+        if (zone_aware && placement != null) {
+            if (placement.region() != null) {
+                metadata.put(REGION_METADATA_KEY, placement.region());
+            }
+            if (placement.zone() != null) {
+                metadata.put(ZONE_METADATA_KEY, placement.zone());
+            }
+        }
+        if (!metadata.isEmpty()) {
+            options.setMetadata(metadata);
+        }
+
+        BlobClient blobClient = containerClient.getBlobClient(filename);
+        if (!skip_unchanged_writes) {
+            blobClient.uploadWithResponse(options, timeout(put_timeout), Context.NONE);
+            return true;
+        }
+
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+        messageDigest.update(data.array(), data.offset(), data.length());
+        byte[] digest = messageDigest.digest();
+        synchronized (uploads) {
+            Upload last = uploads.get(filename);
+            // The info writer rewrites the file because another coordinator might have removed it, so never skip its writes
+            if (!force && last != null && Arrays.equals(last.digest(), digest) && !isInfoWriterRunning()) {
+                skippedWrites.increment();
+                log.trace("Ping data for '%s' did not change, skipping upload.", filename);
+                return false;
             }
 
-        } catch (Exception ex) {
-            log.error("Error creating a storage client! Check your configuration.");
-            throw ex;
+            Response<BlockBlobItem> response;
+            try {
+                // Only overwrite the version we uploaded last, so that a slow writer cannot clobber a newer record
+                options.setRequestConditions(last != null ? new BlobRequestConditions().setIfMatch(last.etag()) : null);
+                response = blobClient.uploadWithResponse(options, timeout(put_timeout), Context.NONE);
+            } catch (BlobStorageException e) {
+                if (last == null || (e.getStatusCode() != HttpURLConnection.HTTP_PRECON_FAILED && e.getStatusCode() != HttpURLConnection.HTTP_NOT_FOUND)) {
+                    uploads.remove(filename);
+                    throw e;
+                }
+                // The file was either removed or modified elsewhere since our last upload; only recreate a removed file
+                log.debug("Ping data file '%s' changed since the last upload, uploading only if it no longer exists.", filename);
+                try {
+                    options.setRequestConditions(new BlobRequestConditions().setIfNoneMatch("*"));
+                    response = blobClient.uploadWithResponse(options, timeout(put_timeout), Context.NONE);
+                } catch (BlobStorageException ex) {
+                    uploads.remove(filename);
+                    if (ex.getErrorCode() != BlobErrorCode.BLOB_ALREADY_EXISTS) {
+                        throw ex;
+                    }
+                    log.debug("Ping data file '%s' was modified elsewhere since the last upload, keeping the newer version.", filename);
+                    return false;
+                }
+            }
+            uploads.put(filename, new Upload(digest, response.getValue().getETag()));
         }
+        return true;
     }
 
-    public void validateConfiguration() throws IllegalArgumentException {
-        // Validate that container name is configured and must be all lowercase
-        if (container == null || !container.toLowerCase().equals(container) || container.contains("--")
-                || container.startsWith("-") || container.length() < 3 || container.length() > 63) {
-            throw new IllegalArgumentException("Container name must be configured and must meet Azure requirements (must be a valid DNS name).");
+    /**
+     * Rewrites the aggregate blob, so that it does not expire. Not guarded by the maintenance lease, as each coordinator publishes its own view
+     * with a single upload.
+     */
+    private void refreshAggregate() {
+        AggregateBlob aggregate = aggregateBlob;
+        if (aggregate == null) {
+            return;
         }
-        // Either connection_string or storage_account_name must be configured
-        if ((connection_string == null || connection_string.isEmpty()) && (storage_account_name == null || storage_account_name.isEmpty())) {
-            throw new IllegalArgumentException("Either connection_string or storage_account_name must be configured.");
+        try {
+            aggregate.refresh(timeout(put_timeout));
+        } catch (Exception e) {
+            log.error(String.format("Error uploading aggregate ping data file '%s'.", aggregate.getName()), e);
         }
-        // Let's inform users here that https would be preferred
-        if (!use_https && (connection_string == null || connection_string.isEmpty())) {
-            log.warn("Configuration is using HTTP, consider switching to HTTPS instead.");
+    }
+
+    private void removeAggregate() {
+        AggregateBlob aggregate = aggregateBlob;
+        if (aggregate == null) {
+            return;
+        }
+        try {
+            aggregate.delete(timeout(delete_timeout));
+        } catch (Exception e) {
+            log.error(String.format("Error deleting aggregate ping data file '%s'.", aggregate.getName()), e);
         }
+    }
 
+    private synchronized void startAggregateRefresher() {
+        if (aggregateRefresher == null || aggregateRefresher.isDone()) {
+            long interval = Math.max(aggregate_blob_max_age / 2, 1);
+            aggregateRefresher = timer.scheduleWithFixedDelay(this::refreshAggregate, interval, interval, TimeUnit.MILLISECONDS);
+        }
     }
 
-    @Override
-    protected void createRootDir() {
-        // Do not remove this!
-        // There is no root directory to create, overriding here with noop.
+    private synchronized void stopAggregateRefresher() {
+        if (aggregateRefresher != null) {
+            aggregateRefresher.cancel(false);
+            aggregateRefresher = null;
+        }
+        AggregateBlob aggregate = aggregateBlob;
+        if (aggregate != null) {
+            aggregate.reset();
+        }
     }
 
-    @Override
-    protected void readAll(final List<Address> members, final String clustername, final Responses responses) {
-        if (clustername == null) {
-            return;
+    private synchronized void startPingDataRefresher() {
+        if (pingDataRefresher == null || pingDataRefresher.isDone()) {
+            long interval = Math.max(ping_data_ttl / 3, 1);
+            pingDataRefresher = timer.scheduleWithFixedDelay(this::refreshPingData, interval, interval, TimeUnit.MILLISECONDS);
         }
+    }
 
-        String prefix = getSanitizedPrefix(clustername);
+    private synchronized void stopPingDataRefresher() {
+        if (pingDataRefresher != null) {
+            pingDataRefresher.cancel(false);
+            pingDataRefresher = null;
+        }
+        ownPingData = null;
+    }
 
-        ListBlobsOptions options = new ListBlobsOptions().setPrefix(prefix);
-        for (BlobItem blobItem : containerClient.listBlobs(options, null)) {
+    /**
+     * Rewrites the ping data file of this member unless it was written recently, so that it does not expire while the member is alive,
+     * and lets the coordinator delete expired files if enabled.
+     */
+    private void refreshPingData() {
+        String clustername = cluster_name;
+        if (clustername == null) {
+            return;
+        }
+        List<PingData> list = ownPingData;
+        if (list != null && System.nanoTime() - lastWrite >= TimeUnit.MILLISECONDS.toNanos(ping_data_ttl / 3)) {
+            long start = System.nanoTime();
             try {
-                BlobClient blobClient = containerClient.getBlobClient(blobItem.getName());
-                ByteArrayOutputStream os = new ByteArrayOutputStream(STREAM_BUFFER_SIZE);
-                blobClient.downloadStream(os);
-                byte[] pingBytes = os.toByteArray();
-                parsePingData(pingBytes, members, responses);
-            } catch (Exception t) {
-                log.error(String.format("Error fetching/reading ping data file '%s'.", blobItem.getName()), t);
+                call(Operation.WRITE, () -> refreshFile(list, clustername));
+            } catch (Exception e) {
+                log.warn(String.format("Error rewriting ping data for cluster '%s'.", clustername), e);
+            } finally {
+                recordOperation(Operation.WRITE, start);
             }
         }
+        if (remove_expired_ping_data && is_coord) {
+            removeExpiredFiles(clustername);
+        }
     }
 
-    protected void parsePingData(final byte[] pingBytes, final List<Address> members, final Responses responses) {
-        if (pingBytes == null || pingBytes.length <= 0) {
+    private void refreshFile(final List<PingData> list, final String clustername) {
+        synchronized (ownPingDataLock) {
+            // Removed since, e.g. because this member is no longer the coordinator or all ping data were removed
+            if (ownPingData == list) {
+                writeFile(list, clustername, true);
+            }
+        }
+    }
+
+    /**
+     * Stops refreshing the ping data file of this member, which is being removed.
+     */
+    private void clearOwnPingData() {
+        synchronized (ownPingDataLock) {
+            ownPingData = null;
+        }
+    }
+
+    /**
+     * Deletes expired ping data files of members which are not in the current view. A file is only deleted if it was not modified since it was listed.
+     */
+    private void removeExpiredFiles(final String clustername) {
+        if (!acquireMaintenanceLease(clustername)) {
             return;
         }
-        List<PingData> list;
+        View current = view;
+        Set<String> memberFiles = new HashSet<>();
+        if (current != null) {
+            current.getMembers().forEach(member -> memberFiles.add(addressToFilename(clustername, member)));
+        }
+
         try {
-            list = read(new ByteArrayInputStream(pingBytes));
-            if (list != null) {
-                // This is a common piece of logic for all PING protocols copied from org/jgroups/protocols/FILE_PING.java:245
-                // Maybe could be extracted for all PING impls to share this logic?
-                for (PingData data : list) {
-                    if (members == null || members.contains(data.getAddress())) {
-                        responses.addResponse(data, data.isCoord());
-                    }
-                    if (local_addr != null && !local_addr.equals(data.getAddress())) {
-                        addDiscoveryResponseToCaches(data.getAddress(), data.getLogicalName(), data.getPhysicalAddr());
+            for (BlobItem blobItem : containerClient.listBlobs(new ListBlobsOptions().setPrefix(getSanitizedPrefix(clustername)), timeout(list_timeout))) {
+                String name = blobItem.getName();
+                if (!isExpired(blobItem) || memberFiles.contains(name)) {
+                    continue;
+                }
+                try {
+                    containerClient.getBlobClient(name).deleteWithResponse(null, new BlobRequestConditions().setIfMatch(getETag(blobItem)), timeout(delete_timeout), Context.NONE);
+                    log.debug("Deleted expired ping data file '%s'.", name);
+                    appendMembershipLog(clustername, MembershipLog.RECORD_REMOVE, name, null);
+                } catch (BlobStorageException e) {
+                    if (e.getStatusCode() != HttpURLConnection.HTTP_PRECON_FAILED && e.getStatusCode() != HttpURLConnection.HTTP_NOT_FOUND) {
+                        throw e;
                     }
+                    log.debug("Expired ping data file '%s' was modified or deleted since it was listed, keeping it.", name);
                 }
-                // end copied block
             }
         } catch (Exception e) {
-            log.error("Error unmarshalling ping data.", e);
+            log.warn(String.format("Error deleting expired ping data files for cluster '%s'.", clustername), e);
         }
     }
 
     @Override
-    protected void write(final List<PingData> list, final String clustername) {
-        if (list == null || clustername == null) {
+    protected void remove(final String clustername, final Address addr) {
+        if (clustername == null || addr == null) {
             return;
         }
+        if (addr.equals(local_addr)) {
+            flushWrites(clustername);
+        }
 
-        String filename = addressToFilename(clustername, local_addr);
-        ByteArrayOutputStream out = new ByteArrayOutputStream(STREAM_BUFFER_SIZE);
-
+        long start = System.nanoTime();
         try {
-            write(list, out);
-            byte[] data = out.toByteArray();
-
-            // Upload the file
-            BlobClient blobClient = containerClient.getBlobClient(filename);
-            blobClient.upload(BinaryData.fromBytes(data), true);
-
-        } catch (Exception ex) {
-            log.error("Error marshalling and uploading ping data.", ex);
+            call(Operation.REMOVE, () -> removeFile(clustername, addr));
+        } finally {
+            recordOperation(Operation.REMOVE, start);
         }
-
     }
 
-    @Override
-    protected void remove(final String clustername, final Address addr) {
-        if (clustername == null || addr == null) {
-            return;
-        }
-
+    private void removeFile(final String clustername, final Address addr) {
         String filename = addressToFilename(clustername, addr);
+        if (addr.equals(local_addr) && clustername.equals(cluster_name)) {
+            clearOwnPingData();
+        }
+        uploads.remove(filename);
+        Replication replication = this.replication;
+        CompletableFuture<Void> replicated = replication == null ? null : replication.replicate(String.format("deleting ping data file '%s'", filename),
+                replica -> replica.containerClient().getBlobClient(filename).deleteIfExistsWithResponse(null, null, timeout(delete_timeout), Context.NONE));
 
         try {
             BlobClient blobClient = containerClient.getBlobClient(filename);
-            boolean deleted = blobClient.deleteIfExists();
+            boolean deleted = blobClient.deleteIfExistsWithResponse(null, null, timeout(delete_timeout), Context.NONE).getValue();
 
             if (deleted) {
                 log.debug("Deleted ping data file '%s'.", filename);
+                appendMembershipLog(clustername, MembershipLog.RECORD_REMOVE, filename, null);
+                postEvent(clustername, () -> MembershipNotifications.remove(addr));
             } else {
                 log.debug("Tried to delete ping data file '%s' but it was already deleted.", filename);
             }
 
         } catch (Exception ex) {
+            recordError(Operation.REMOVE);
             log.error(String.format("Error deleting ping data file '%s'.", filename), ex);
+        } finally {
+            Replication.await(replicated);
         }
     }
 
@@ -267,25 +2681,120 @@ public class AZURE_PING extends FILE_PING {
         if (clustername == null) {
             return;
         }
+        flushWrites(clustername);
+
+        long start = System.nanoTime();
+        try {
+            call(Operation.REMOVE_ALL, () -> removeAllFiles(clustername));
+        } catch (RuntimeException e) {
+            recordError(Operation.REMOVE_ALL);
+            throw e;
+        } finally {
+            recordOperation(Operation.REMOVE_ALL, start);
+        }
+    }
+
+    private void removeAllFiles(final String clustername) {
+        if (!acquireMaintenanceLease(clustername)) {
+            log.debug("Maintenance lease for cluster '%s' is held by another member, skipping removal of all ping data.", clustername);
+            return;
+        }
 
+        if (clustername.equals(cluster_name)) {
+            clearOwnPingData();
+        }
         String prefix = getSanitizedPrefix(clustername);
+        uploads.keySet().removeIf(filename -> filename.startsWith(prefix));
 
         ListBlobsOptions options = new ListBlobsOptions().setPrefix(prefix);
-        for (BlobItem blobItem : containerClient.listBlobs(options, null)) {
-            try {
-                BlobClient blobClient = containerClient.getBlobClient(blobItem.getName());
-                boolean deleted = blobClient.deleteIfExists();
-                if (deleted) {
-                    log.debug("Deleted ping data file '%s'.", blobItem.getName());
-                } else {
-                    log.debug("Tried to delete ping data file '%s' but it was already deleted.", blobItem.getName());
+        Replication replication = this.replication;
+        CompletableFuture<Void> replicated = replication == null ? null : replication.replicate(String.format("deleting ping data of cluster '%s'", clustername), replica -> {
+            for (BlobItem blobItem : replica.containerClient().listBlobs(options, timeout(list_timeout))) {
+                replica.containerClient().getBlobClient(blobItem.getName()).deleteIfExistsWithResponse(null, null, timeout(delete_timeout), Context.NONE);
+            }
+        });
+        try {
+            List<String> names = new ArrayList<>();
+            for (BlobItem blobItem : containerClient.listBlobs(options, timeout(list_timeout))) {
+                names.add(blobItem.getName());
+            }
+            deleteFiles(names, clustername);
+            if (!names.isEmpty()) {
+                appendMembershipLog(clustername, MembershipLog.RECORD_REMOVE_ALL, null, null);
+                postEvent(clustername, MembershipNotifications::removeAll);
+            }
+        } finally {
+            Replication.await(replicated);
+        }
+    }
+
+    /**
+     * Deletes the given ping data files, in batches if the Blob Batch API is available.
+     */
+    protected void deleteFiles(final List<String> names, final String clustername) {
+        BlobBatchDeleter deleter = batchDeleter;
+        if (deleter != null) {
+            for (int i = 0; i < names.size(); i += BlobBatchDeleter.MAX_BATCH_SIZE) {
+                List<String> batch = names.subList(i, Math.min(i + BlobBatchDeleter.MAX_BATCH_SIZE, names.size()));
+                Map<String, Integer> results;
+                try {
+                    results = deleter.delete(batch);
+                } catch (Exception e) {
+                    log.warn(String.format("Error submitting batch delete for cluster '%s', deleting files individually.", clustername), e);
+                    batch.forEach(name -> deleteFile(name, clustername));
+                    continue;
                 }
-            } catch (Exception e) {
-                log.error(String.format("Error deleting ping data file for cluster '%s'.", clustername), e);
+                results.forEach((name, statusCode) -> {
+                    if (statusCode != null && statusCode == HttpURLConnection.HTTP_NOT_FOUND) {
+                        log.debug("Tried to delete ping data file '%s' but it was already deleted.", name);
+                    } else if (statusCode != null && statusCode < HttpURLConnection.HTTP_MULT_CHOICE) {
+                        log.debug("Deleted ping data file '%s'.", name);
+                    } else {
+                        recordError(Operation.REMOVE_ALL);
+                        log.error("Error deleting ping data file '%s' for cluster '%s' in batch (status %s).", name, clustername, statusCode);
+                    }
+                });
+            }
+        } else {
+            names.forEach(name -> deleteFile(name, clustername));
+        }
+    }
+
+    private void deleteFile(final String name, final String clustername) {
+        try {
+            BlobClient blobClient = containerClient.getBlobClient(name);
+            boolean deleted = blobClient.deleteIfExistsWithResponse(null, null, timeout(delete_timeout), Context.NONE).getValue();
+            if (deleted) {
+                log.debug("Deleted ping data file '%s'.", name);
+            } else {
+                log.debug("Tried to delete ping data file '%s' but it was already deleted.", name);
             }
+        } catch (Exception e) {
+            recordError(Operation.REMOVE_ALL);
+            log.error(String.format("Error deleting ping data file for cluster '%s'.", clustername), e);
         }
     }
 
+    /**
+     * Unmarshalled content of a downloaded ping data file; {@code list} is {@code null} if the file was empty or could not be unmarshalled.
+     */
+    protected record PingDataFile(String name, List<PingData> list, String etag) {
+    }
+
+    /**
+     * Digest of the content and resulting ETag of an uploaded ping data file.
+     */
+    private record Upload(byte[] digest, String etag) {
+    }
+
+    /**
+     * Marshals a change event, only once it is known to be posted.
+     */
+    @FunctionalInterface
+    private interface EventSupplier {
+        byte[] get() throws Exception;
+    }
+
     /**
      * Converts cluster name and address into a filename.
      */
@@ -293,11 +2802,44 @@ public class AZURE_PING extends FILE_PING {
         return getSanitizedPrefix(clustername) + addressToFilename(address);
     }
 
+    /**
+     * Converts cluster name into the filename of the aggregate blob maintained by the coordinator.
+     * The name does not start with the sanitized prefix, so it is never mistaken for a member's ping data file.
+     */
+    protected static String aggregateFilename(final String clustername) {
+        return sanitize(clustername) + AGGREGATE_FILE_NAME_SUFFIX;
+    }
+
+    /**
+     * Converts cluster name into the filename of the blob leased to guard maintenance operations.
+     */
+    protected static String lockFilename(final String clustername) {
+        return sanitize(clustername) + LOCK_FILE_NAME_SUFFIX;
+    }
+
+    /**
+     * Converts an address into the key of the placement of the member, which the names of the ping data files it writes start with.
+     */
+    private static String placementKey(final Address address) {
+        return address instanceof UUID uuid ? uuid.toStringLong() : String.valueOf(address);
+    }
+
+    /**
+     * Converts cluster name into the filename of the membership log, which is not mistaken for a member's ping data file either.
+     */
+    protected static String logFilename(final String clustername) {
+        return sanitize(clustername) + LOG_FILE_NAME_SUFFIX;
+    }
+
     /**
      * Sanitizes names replacing backslashes and forward slashes with a dash and appends a separator.
      */
     protected static String getSanitizedPrefix(final String name) {
-        return name.replace('/', '-').replace('\\', '-') + CLUSTER_ADDRESS_FILE_NAME_SEPARATOR;
+        return sanitize(name) + CLUSTER_ADDRESS_FILE_NAME_SEPARATOR;
+    }
+
+    private static String sanitize(final String name) {
+        return name.replace('/', '-').replace('\\', '-');
     }
 
 
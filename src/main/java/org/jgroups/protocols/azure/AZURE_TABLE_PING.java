@@ -0,0 +1,348 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.net.HttpURLConnection;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.azure.core.credential.AzureNamedKeyCredential;
+import com.azure.core.http.HttpClient;
+import com.azure.core.util.Context;
+import com.azure.data.tables.TableClient;
+import com.azure.data.tables.TableClientBuilder;
+import com.azure.data.tables.models.ListEntitiesOptions;
+import com.azure.data.tables.models.TableEntity;
+import com.azure.data.tables.models.TableServiceException;
+import com.azure.data.tables.models.TableTransactionAction;
+import com.azure.data.tables.models.TableTransactionActionType;
+import org.jgroups.Address;
+import org.jgroups.annotations.Property;
+import org.jgroups.conf.ClassConfigurator;
+import org.jgroups.logging.Log;
+import org.jgroups.logging.LogFactory;
+import org.jgroups.protocols.FILE_PING;
+import org.jgroups.protocols.PingData;
+import org.jgroups.util.ByteArrayDataInputStream;
+import org.jgroups.util.ByteArrayDataOutputStream;
+import org.jgroups.util.Responses;
+
+/**
+ * Implementation of a {@link org.jgroups.protocols.Discovery} protocol for Microsoft Azure using Table Storage as cluster information store.
+ * The ping data of each member are stored in a row of their own with the cluster name as partition key and the address as row key,
+ * so that discovery reads the ping data of all members with a single partition query instead of listing and downloading a blob per member.
+ * <p>
+ * Each row also records the member which wrote it, so that the rows written by a member take the place of the file written by
+ * a member with {@link FILE_PING}: writing replaces the rows the member wrote before, e.g. dropping the rows of members which left
+ * the view when the coordinator writes the ping data of all members, and removing the data of a member removes the rows it wrote.
+ * View changes are therefore handled by {@link FILE_PING} itself.
+ */
+public class AZURE_TABLE_PING extends FILE_PING {
+
+    private static final Log log = LogFactory.getLog(AZURE_TABLE_PING.class);
+
+    @Property(description = "The name of the storage account.",
+            systemProperty = "JGROUPS_AZURE_STORAGE_ACCOUNT_NAME")
+    protected String storage_account_name;
+
+    @Property(description = "The secret account access key. If not specified, DefaultAzureCredential is used instead.",
+            systemProperty = "JGROUPS_AZURE_STORAGE_ACCESS_KEY",
+            exposeAsManagedAttribute = false)
+    protected String storage_access_key;
+
+    @Property(description = "Azure Storage connection string. When set, overrides storage_account_name, storage_access_key, use_https, endpoint_suffix, and table_storage_uri.",
+            systemProperty = "JGROUPS_AZURE_CONNECTION_STRING",
+            exposeAsManagedAttribute = false)
+    protected String connection_string;
+
+    @Property(description = "Table to store ping information in. Must start with a letter and consist of 3 to 63 alphanumeric characters.",
+            systemProperty = "JGROUPS_AZURE_TABLE")
+    protected String table;
+
+    @Property(description = "Whether or not to use HTTPS to connect to Azure.",
+            systemProperty = "JGROUPS_AZURE_USE_HTTPS")
+    protected boolean use_https = true;
+
+    @Property(description = "The endpointSuffix to use.",
+            systemProperty = "JGROUPS_AZURE_ENDPOINT_SUFFIX")
+    protected String endpoint_suffix = StorageAccountSettings.DEFAULT_ENDPOINT_SUFFIX;
+
+    @Property(description = "The full table service endpoint URI. When set, overrides use_https and endpoint_suffix.",
+            systemProperty = "JGROUPS_AZURE_TABLE_STORAGE_URI",
+            exposeAsManagedAttribute = false)
+    protected String table_storage_uri;
+
+    private static final String PING_DATA_PROPERTY = "PingData";
+    private static final String WRITER_PROPERTY = "Writer";
+    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z][A-Za-z0-9]{2,62}");
+    // Azure limits an entity group transaction to 100 entities of the same partition
+    private static final int MAX_TRANSACTION_SIZE = 100;
+
+    private TableClient tableClient;
+    // Replaces the HTTP client of the table client when set, e.g. with an in-process stand-in in tests
+    protected HttpClient httpClient;
+
+    static {
+        // Next to the ID of AZURE_PING, within the range JGroups reserves for external protocols
+        ClassConfigurator.addProtocol((short) 532, AZURE_TABLE_PING.class);
+    }
+
+    public AZURE_TABLE_PING() {
+        super();
+
+        // Disable shutdown hook by default
+        this.register_shutdown_hook = false;
+    }
+
+    @Override
+    public void init() throws Exception {
+        super.init();
+
+        // Validate configuration
+        // Can throw IAEs
+        this.validateConfiguration();
+
+        try {
+            TableClientBuilder builder = new TableClientBuilder().tableName(table);
+            if (httpClient != null) {
+                builder.httpClient(httpClient);
+            }
+            StorageAccountSettings settings = storageAccountSettings();
+            if (settings.useConnectionString()) {
+                builder.connectionString(connection_string);
+            } else {
+                builder.endpoint(settings.endpoint("table", table_storage_uri));
+                // Set credential: use shared key if access key is provided, otherwise fall back to DefaultAzureCredential
+                if (settings.useAccessKey()) {
+                    builder.credential(new AzureNamedKeyCredential(storage_account_name, storage_access_key));
+                } else {
+                    builder.credential(AZURE_PING.createTokenCredential());
+                }
+            }
+            tableClient = builder.buildClient();
+            createTable();
+        } catch (Exception ex) {
+            log.error("Error creating a table client! Check your configuration.");
+            throw ex;
+        }
+    }
+
+    private StorageAccountSettings storageAccountSettings() {
+        return new StorageAccountSettings(connection_string, storage_account_name, storage_access_key, use_https, endpoint_suffix);
+    }
+
+    public void validateConfiguration() throws IllegalArgumentException {
+        if (table == null || !TABLE_NAME_PATTERN.matcher(table).matches()) {
+            throw new IllegalArgumentException("Table name must be configured and must meet Azure requirements (3 to 63 alphanumeric characters starting with a letter).");
+        }
+        StorageAccountSettings settings = storageAccountSettings();
+        settings.validate();
+        // Let's inform users here that https would be preferred
+        if (settings.isInsecure()) {
+            log.warn("Configuration is using HTTP, consider switching to HTTPS instead.");
+        }
+    }
+
+    private void createTable() {
+        try {
+            tableClient.createTable();
+            log.info("Created table named '%s'.", table);
+        } catch (TableServiceException e) {
+            if (e.getResponse().getStatusCode() != HttpURLConnection.HTTP_CONFLICT) {
+                throw e;
+            }
+            log.debug("Using existing table named '%s'.", table);
+        }
+    }
+
+    @Override
+    protected void createRootDir() {
+        // Do not remove this!
+        // There is no root directory to create, overriding here with noop.
+    }
+
+    @Override
+    protected void readAll(final List<Address> members, final String clustername, final Responses responses) {
+        if (clustername == null) {
+            return;
+        }
+
+        ListEntitiesOptions options = new ListEntitiesOptions()
+                .setFilter(String.format("PartitionKey eq '%s'", partitionKey(clustername)))
+                .setSelect(List.of(PING_DATA_PROPERTY));
+        try {
+            for (TableEntity entity : tableClient.listEntities(options, null, Context.NONE)) {
+                if (!(entity.getProperty(PING_DATA_PROPERTY) instanceof byte[] pingBytes)) {
+                    log.warn("Row '%s' of table '%s' holds no ping data.", entity.getRowKey(), table);
+                    continue;
+                }
+                List<PingData> list = read(new ByteArrayDataInputStream(pingBytes));
+                if (list == null) {
+                    continue;
+                }
+                // This is a common piece of logic for all PING protocols copied from org/jgroups/protocols/FILE_PING.java:245
+                for (PingData data : list) {
+                    if (members == null || members.contains(data.getAddress())) {
+                        responses.addResponse(data, data.isCoord());
+                    }
+                    if (local_addr != null && !local_addr.equals(data.getAddress())) {
+                        addDiscoveryResponseToCaches(data.getAddress(), data.getLogicalName(), data.getPhysicalAddr());
+                    }
+                }
+                // end copied block
+            }
+        } catch (TableServiceException e) {
+            if (e.getResponse().getStatusCode() != HttpURLConnection.HTTP_NOT_FOUND) {
+                throw e;
+            }
+            log.debug("Table named '%s' does not exist, no ping data to read.", table);
+        }
+    }
+
+    @Override
+    protected void write(final List<PingData> list, final String clustername) {
+        if (list == null || clustername == null) {
+            return;
+        }
+
+        String partitionKey = partitionKey(clustername);
+        String writer = rowKey(local_addr);
+        List<TableTransactionAction> actions = new ArrayList<>(list.size());
+        Set<String> rowKeys = new HashSet<>();
+        try {
+            for (PingData data : list) {
+                ByteArrayDataOutputStream out = new ByteArrayDataOutputStream(128);
+                write(List.of(data), out);
+                TableEntity entity = new TableEntity(partitionKey, rowKey(data.getAddress()))
+                        .addProperty(PING_DATA_PROPERTY, Arrays.copyOf(out.buffer(), out.position()))
+                        .addProperty(WRITER_PROPERTY, writer);
+                actions.add(new TableTransactionAction(TableTransactionActionType.UPSERT_REPLACE, entity));
+                rowKeys.add(entity.getRowKey());
+            }
+            for (int i = 0; i < actions.size(); i += MAX_TRANSACTION_SIZE) {
+                tableClient.submitTransaction(actions.subList(i, Math.min(i + MAX_TRANSACTION_SIZE, actions.size())));
+            }
+            // Like a file which is overwritten, the rows written before which are not part of the list are dropped
+            List<TableEntity> stale = listRows(clustername, writer);
+            stale.removeIf(entity -> rowKeys.contains(entity.getRowKey()));
+            deleteRows(clustername, stale);
+        } catch (Exception ex) {
+            log.error(String.format("Error writing ping data of cluster '%s' to table '%s'.", clustername, table), ex);
+        }
+    }
+
+    /**
+     * Removes the rows written by the given member, like {@link FILE_PING} removes the file written by a member.
+     */
+    @Override
+    protected void remove(final String clustername, final Address addr) {
+        if (clustername == null || addr == null) {
+            return;
+        }
+
+        try {
+            deleteRows(clustername, listRows(clustername, rowKey(addr)));
+        } catch (Exception ex) {
+            log.error(String.format("Error deleting rows written by '%s' in cluster '%s'.", addr, clustername), ex);
+        }
+    }
+
+    @Override
+    protected void removeAll(final String clustername) {
+        if (clustername == null) {
+            return;
+        }
+
+        try {
+            deleteRows(clustername, listRows(clustername, null));
+        } catch (Exception ex) {
+            log.error(String.format("Error deleting rows of cluster '%s'.", clustername), ex);
+        }
+    }
+
+    /**
+     * Lists the rows of the cluster written by the given member, or all rows of the cluster if the writer is {@code null}.
+     * The rows carry their keys and ETag, but no properties.
+     */
+    private List<TableEntity> listRows(final String clustername, final String writer) {
+        String filter = String.format("PartitionKey eq '%s'", partitionKey(clustername));
+        if (writer != null) {
+            filter += String.format(" and %s eq '%s'", WRITER_PROPERTY, writer);
+        }
+        ListEntitiesOptions options = new ListEntitiesOptions().setFilter(filter).setSelect(List.of("PartitionKey", "RowKey"));
+        List<TableEntity> rows = new ArrayList<>();
+        try {
+            tableClient.listEntities(options, null, Context.NONE).forEach(rows::add);
+        } catch (TableServiceException e) {
+            if (e.getResponse().getStatusCode() != HttpURLConnection.HTTP_NOT_FOUND) {
+                throw e;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Deletes the given rows with entity group transactions unless they changed since they were listed, so that rows rewritten
+     * concurrently by another member are kept. A transaction fails as a whole if one of its rows changed or was deleted concurrently,
+     * in which case its rows are deleted one by one instead.
+     */
+    private void deleteRows(final String clustername, final List<TableEntity> rows) {
+        for (int i = 0; i < rows.size(); i += MAX_TRANSACTION_SIZE) {
+            List<TableEntity> chunk = rows.subList(i, Math.min(i + MAX_TRANSACTION_SIZE, rows.size()));
+            List<TableTransactionAction> actions = chunk.stream()
+                    .map(row -> new TableTransactionAction(TableTransactionActionType.DELETE, row, true))
+                    .toList();
+            try {
+                tableClient.submitTransaction(actions);
+                log.debug("Deleted %d rows of cluster '%s'.", chunk.size(), clustername);
+            } catch (TableServiceException e) {
+                log.debug("Transaction deleting rows of cluster '%s' failed, deleting them one by one.", clustername);
+                for (TableEntity row : chunk) {
+                    try {
+                        tableClient.deleteEntityWithResponse(row, true, null, Context.NONE);
+                    } catch (TableServiceException ex) {
+                        int status = ex.getResponse().getStatusCode();
+                        if (status != HttpURLConnection.HTTP_NOT_FOUND && status != HttpURLConnection.HTTP_PRECON_FAILED) {
+                            log.error(String.format("Error deleting row '%s' of cluster '%s'.", row.getRowKey(), clustername), ex);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Encodes the cluster name into a partition key, which must not contain slashes, backslashes, '#', '?' or control characters.
+     * The encoding contains no quotes either, so the key can be used in query filters as is.
+     */
+    protected static String partitionKey(final String clustername) {
+        return URLEncoder.encode(clustername, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes the address into a row key, subject to the same restrictions as partition keys.
+     */
+    protected static String rowKey(final Address address) {
+        return URLEncoder.encode(addressAsString(address), StandardCharsets.UTF_8);
+    }
+}
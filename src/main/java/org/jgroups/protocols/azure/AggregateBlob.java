@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+
+import com.azure.core.util.BinaryData;
+import com.azure.core.util.Context;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.models.BlobDownloadResponse;
+import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
+import org.jgroups.util.ByteArray;
+import org.jgroups.util.ByteArrayDataOutputStream;
+
+/**
+ * Blob maintained by the coordinator of a cluster holding the ping data of all members, i.e. the content of the coordinator's own ping data file,
+ * from which discovery reads the ping data with a single request. The coordinator rewrites the blob periodically, so that one which is older
+ * than its maximum age, e.g. left behind by a crashed coordinator, is not used.
+ */
+class AggregateBlob {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final BlobClient blobClient;
+    private final Duration maxAge;
+    // Content last uploaded by this member, which refreshing rewrites
+    private volatile byte[] content;
+
+    AggregateBlob(final BlobClient blobClient, final Duration maxAge) {
+        this.blobClient = blobClient;
+        this.maxAge = maxAge;
+    }
+
+    String getName() {
+        return blobClient.getBlobName();
+    }
+
+    /**
+     * Downloads the marshalled ping data. The age is taken from the clock of the service, which also set the modification time,
+     * as the clock of this member may be skewed.
+     *
+     * @return the ping data backed by the download buffer, or {@code null} if the blob does not exist or is older than the maximum age
+     */
+    ByteArray read(final Duration timeout) {
+        ByteArrayDataOutputStream out = new ByteArrayDataOutputStream(BUFFER_SIZE);
+        BlobDownloadResponse response;
+        try {
+            response = blobClient.downloadStreamWithResponse(out, null, null, null, false, timeout, Context.NONE);
+        } catch (BlobStorageException e) {
+            if (e.getErrorCode() != BlobErrorCode.BLOB_NOT_FOUND && e.getErrorCode() != BlobErrorCode.CONTAINER_NOT_FOUND) {
+                throw e;
+            }
+            return null;
+        }
+        OffsetDateTime lastModified = response.getDeserializedHeaders().getLastModified();
+        OffsetDateTime now = response.getDeserializedHeaders().getDateProperty();
+        if (now == null) {
+            now = OffsetDateTime.now();
+        }
+        if (lastModified == null || lastModified.isBefore(now.minus(maxAge))) {
+            return null;
+        }
+        return new ByteArray(out.buffer(), 0, out.position());
+    }
+
+    /**
+     * Uploads the marshalled ping data, unless these did not change since last uploaded by this member.
+     *
+     * @return {@code false} if the ping data did not change, i.e. were not uploaded
+     */
+    boolean update(final ByteArray data, final Duration timeout) {
+        byte[] current = content;
+        if (current != null && Arrays.equals(current, 0, current.length, data.array(), data.offset(), data.offset() + data.length())) {
+            return false;
+        }
+        content = Arrays.copyOfRange(data.array(), data.offset(), data.offset() + data.length());
+        upload(content, timeout);
+        return true;
+    }
+
+    /**
+     * Rewrites the ping data last uploaded by this member, renewing the modification time of the blob.
+     */
+    void refresh(final Duration timeout) {
+        byte[] current = content;
+        if (current != null) {
+            upload(current, timeout);
+        }
+    }
+
+    /**
+     * Forgets the ping data last uploaded, e.g. once this member is no longer the coordinator, so that neither refreshing rewrites them
+     * nor the next update is skipped.
+     */
+    void reset() {
+        content = null;
+    }
+
+    void delete(final Duration timeout) {
+        blobClient.deleteIfExistsWithResponse(null, null, timeout, Context.NONE);
+    }
+
+    private void upload(final byte[] data, final Duration timeout) {
+        blobClient.uploadWithResponse(new BlobParallelUploadOptions(BinaryData.fromBytes(data)), timeout, Context.NONE);
+    }
+}
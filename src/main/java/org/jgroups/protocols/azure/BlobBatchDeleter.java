@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.azure.core.http.rest.Response;
+import com.azure.core.util.Context;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.batch.BlobBatch;
+import com.azure.storage.blob.batch.BlobBatchClient;
+import com.azure.storage.blob.batch.BlobBatchClientBuilder;
+
+/**
+ * Deletes blobs using the Blob Batch API submitting up to {@value #MAX_BATCH_SIZE} deletes per request.
+ * Only referenced when the optional 'com.azure:azure-storage-blob-batch' dependency is on the classpath.
+ */
+class BlobBatchDeleter {
+
+    /**
+     * Maximum number of sub-requests permitted by the service in a single batch.
+     */
+    static final int MAX_BATCH_SIZE = 256;
+
+    private final BlobBatchClient batchClient;
+    private final String containerName;
+
+    BlobBatchDeleter(final BlobContainerClient containerClient) {
+        this.batchClient = new BlobBatchClientBuilder(containerClient).buildClient();
+        this.containerName = containerClient.getBlobContainerName();
+    }
+
+    /**
+     * Deletes the given blobs in a single batch request.
+     *
+     * @param names names of at most {@value #MAX_BATCH_SIZE} blobs to delete
+     * @return HTTP status code of each individual delete or {@code null} if no response was received for it
+     */
+    Map<String, Integer> delete(final List<String> names) {
+        if (names.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must not contain more than " + MAX_BATCH_SIZE + " blobs.");
+        }
+
+        BlobBatch batch = batchClient.getBlobBatch();
+        Map<String, Response<Void>> responses = new LinkedHashMap<>();
+        for (String name : names) {
+            responses.put(name, batch.deleteBlob(containerName, name));
+        }
+
+        // Do not throw on individual failures, these are reported by the status code of each sub-request
+        batchClient.submitBatchWithResponse(batch, false, null, Context.NONE);
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Response<Void>> entry : responses.entrySet()) {
+            Integer statusCode;
+            try {
+                statusCode = entry.getValue().getStatusCode();
+            } catch (RuntimeException e) {
+                statusCode = null;
+            }
+            result.put(entry.getKey(), statusCode);
+        }
+        return result;
+    }
+}
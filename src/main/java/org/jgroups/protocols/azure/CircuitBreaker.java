@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker guarding reads from the storage service. It opens after a number of consecutive failures, so that requests are not sent
+ * for a while, then lets a single request through; the circuit closes if that request succeeds and stays open for another period otherwise.
+ */
+class CircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private int failures;
+    private boolean open;
+    private long openedAt;
+
+    CircuitBreaker(final int failureThreshold, final long openTime, final TimeUnit unit) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = unit.toNanos(openTime);
+    }
+
+    /**
+     * Returns whether a request may be sent, i.e. the circuit is closed or a single trial request is due.
+     */
+    synchronized boolean allowRequest() {
+        if (!open) {
+            return true;
+        }
+        if (System.nanoTime() - openedAt < openNanos) {
+            return false;
+        }
+        // Further requests wait for the outcome of this one for another period
+        openedAt = System.nanoTime();
+        return true;
+    }
+
+    synchronized void success() {
+        failures = 0;
+        open = false;
+    }
+
+    /**
+     * Records a failed request.
+     *
+     * @return {@code true} if the circuit was opened by this failure
+     */
+    synchronized boolean failure() {
+        failures++;
+        if (open) {
+            openedAt = System.nanoTime();
+            return false;
+        }
+        if (failures >= failureThreshold) {
+            open = true;
+            openedAt = System.nanoTime();
+            return true;
+        }
+        return false;
+    }
+
+    synchronized boolean isOpen() {
+        return open;
+    }
+}
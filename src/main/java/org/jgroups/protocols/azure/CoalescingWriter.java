@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Writes values asynchronously, keeping only the latest value per key: a value submitted while an earlier one for the same key is still
+ * pending replaces it, and at most one write per key is in flight at any time. Callers never wait for the writes, except when flushing.
+ * The writer is expected to handle its own errors.
+ */
+class CoalescingWriter<K, V> {
+
+    private final Executor executor;
+    private final BiConsumer<K, V> writer;
+    // Keys with a pending or in-flight write; a key is removed once its last write completed
+    private final Map<K, Slot<V>> slots = new HashMap<>();
+
+    CoalescingWriter(final Executor executor, final BiConsumer<K, V> writer) {
+        this.executor = executor;
+        this.writer = writer;
+    }
+
+    /**
+     * Schedules a write of the given value.
+     *
+     * @return {@code true} if the value superseded a pending value which is now never written
+     */
+    boolean submit(final K key, final V value) {
+        boolean superseded;
+        synchronized (this) {
+            Slot<V> slot = slots.computeIfAbsent(key, k -> new Slot<>());
+            superseded = slot.pending != null;
+            slot.pending = value;
+            if (slot.draining) {
+                return superseded;
+            }
+            slot.draining = true;
+        }
+        try {
+            executor.execute(() -> drain(key));
+        } catch (RejectedExecutionException e) {
+            // Shut down concurrently
+            drain(key);
+        }
+        return superseded;
+    }
+
+    private void drain(final K key) {
+        while (true) {
+            V value;
+            synchronized (this) {
+                Slot<V> slot = slots.get(key);
+                value = slot.pending;
+                if (value == null) {
+                    slots.remove(key);
+                    notifyAll();
+                    return;
+                }
+                slot.pending = null;
+            }
+            try {
+                writer.accept(key, value);
+            } catch (RuntimeException e) {
+                // Keeps draining, the writer logs its own errors
+            }
+        }
+    }
+
+    /**
+     * Waits until the pending and in-flight writes of the given key completed.
+     *
+     * @param timeout maximum time to wait, 0 to wait indefinitely
+     * @return {@code true} if all writes completed, {@code false} if the timeout elapsed first
+     */
+    boolean flush(final K key, final long timeout, final TimeUnit unit) throws InterruptedException {
+        return awaitCompletion(key, timeout, unit);
+    }
+
+    /**
+     * Waits until all pending and in-flight writes completed.
+     *
+     * @param timeout maximum time to wait, 0 to wait indefinitely
+     * @return {@code true} if all writes completed, {@code false} if the timeout elapsed first
+     */
+    boolean flush(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return awaitCompletion(null, timeout, unit);
+    }
+
+    private synchronized boolean awaitCompletion(final K key, final long timeout, final TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (key != null ? slots.containsKey(key) : !slots.isEmpty()) {
+            if (timeout <= 0) {
+                wait();
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    private static final class Slot<V> {
+        private V pending;
+        private boolean draining;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.azure.core.http.HttpPipelinePosition;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import com.azure.core.http.policy.RetryPolicy;
+import com.azure.core.http.policy.RetryStrategy;
+
+/**
+ * Exponential backoff with jitter: the delay before a retry is chosen at random between the base delay and the exponentially growing cap,
+ * so that members retrying after the same failure, e.g. throttling of a shared storage account, do not retry in lockstep.
+ * Which responses and exceptions are retried is left to the defaults of {@link RetryStrategy}.
+ */
+class JitteredRetryStrategy implements RetryStrategy {
+
+    private final int maxRetries;
+    private final long baseDelay;
+    private final long maxDelay;
+
+    JitteredRetryStrategy(final int maxRetries, final Duration baseDelay, final Duration maxDelay) {
+        this.maxRetries = maxRetries;
+        this.baseDelay = Math.max(baseDelay.toMillis(), 1);
+        this.maxDelay = Math.max(maxDelay.toMillis(), this.baseDelay);
+    }
+
+    @Override
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    @Override
+    public Duration calculateRetryDelay(final int retryAttempts) {
+        long cap = Math.min(maxDelay, baseDelay << Math.min(retryAttempts, 30));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(baseDelay, cap + 1));
+    }
+
+    /**
+     * Returns a retry policy using this strategy which runs once per call, i.e. around the retry policy of the storage client.
+     */
+    HttpPipelinePolicy policy() {
+        return new RetryPolicy(this) {
+            @Override
+            public HttpPipelinePosition getPipelinePosition() {
+                return HttpPipelinePosition.PER_CALL;
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import org.jgroups.util.ByteArray;
+
+/**
+ * File on the local disk holding the marshalled ping data of a cluster, so that a member can reach the members it last knew about while the
+ * storage service cannot be read. The file starts with the name of its cluster on a line of its own, followed by the ping data in the format
+ * of ping data files.
+ */
+class LocalSnapshot {
+
+    private final Path path;
+    // Content last written to the file
+    private byte[] content;
+
+    LocalSnapshot(final Path path) {
+        this.path = path;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Reads the marshalled ping data of the given cluster.
+     *
+     * @return the ping data backed by the content of the file, or {@code null} if there is no file or it belongs to another cluster
+     */
+    ByteArray read(final String clustername) throws IOException {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        byte[] header = header(clustername);
+        if (content.length < header.length || !Arrays.equals(content, 0, header.length, header, 0, header.length)) {
+            return null;
+        }
+        return new ByteArray(content, header.length, content.length - header.length);
+    }
+
+    /**
+     * Replaces the file with the marshalled ping data of the given cluster, unless these did not change since last written.
+     *
+     * @return {@code false} if the ping data did not change, i.e. the file was not written
+     */
+    synchronized boolean write(final String clustername, final ByteArray data) throws IOException {
+        byte[] header = header(clustername);
+        byte[] content = Arrays.copyOf(header, header.length + data.length());
+        System.arraycopy(data.array(), data.offset(), content, header.length, data.length());
+        if (Arrays.equals(content, this.content)) {
+            return false;
+        }
+        // Written to a temporary file first, so that a crash never leaves a partial snapshot behind
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temporary, content);
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        this.content = content;
+        return true;
+    }
+
+    private static byte[] header(final String clustername) {
+        return (clustername + '\n').getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.net.HttpURLConnection;
+
+import com.azure.core.util.BinaryData;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.specialized.BlobLeaseClient;
+import com.azure.storage.blob.specialized.BlobLeaseClientBuilder;
+
+/**
+ * Lease on a per-cluster lock blob which guards maintenance operations so that only a single member runs them at a time.
+ */
+class MaintenanceLease {
+
+    private final BlobClient lockBlob;
+    private final BlobLeaseClient leaseClient;
+    private final int durationSeconds;
+    private volatile boolean held;
+
+    MaintenanceLease(final BlobClient lockBlob, final int durationSeconds) {
+        this.lockBlob = lockBlob;
+        this.leaseClient = new BlobLeaseClientBuilder().blobClient(lockBlob).buildClient();
+        this.durationSeconds = durationSeconds;
+    }
+
+    /**
+     * Acquires the lease unless it is already held by this member.
+     *
+     * @return {@code true} if this member holds the lease, {@code false} if another member holds it
+     */
+    synchronized boolean tryAcquire() {
+        if (held) {
+            return true;
+        }
+        try {
+            acquire();
+        } catch (BlobStorageException e) {
+            if (e.getErrorCode() != BlobErrorCode.BLOB_NOT_FOUND) {
+                throw e;
+            }
+            createLockBlob();
+            acquire();
+        }
+        return held;
+    }
+
+    private void acquire() {
+        try {
+            leaseClient.acquireLease(durationSeconds);
+            held = true;
+        } catch (BlobStorageException e) {
+            if (e.getStatusCode() != HttpURLConnection.HTTP_CONFLICT) {
+                throw e;
+            }
+            // Leased by another member
+        }
+    }
+
+    private void createLockBlob() {
+        try {
+            lockBlob.upload(BinaryData.fromBytes(new byte[0]), false);
+        } catch (BlobStorageException e) {
+            if (e.getStatusCode() != HttpURLConnection.HTTP_CONFLICT) {
+                throw e;
+            }
+            // Created concurrently by another member
+        }
+    }
+
+    /**
+     * Renews the lease if it is held; the lease is considered lost if it cannot be renewed.
+     */
+    synchronized void renew() {
+        if (!held) {
+            return;
+        }
+        try {
+            leaseClient.renewLease();
+        } catch (RuntimeException e) {
+            held = false;
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the lease if it is held.
+     */
+    synchronized void release() {
+        if (!held) {
+            return;
+        }
+        held = false;
+        leaseClient.releaseLease();
+    }
+
+    boolean isHeld() {
+        return held;
+    }
+}
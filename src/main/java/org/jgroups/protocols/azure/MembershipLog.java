@@ -0,0 +1,317 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import com.azure.core.util.Context;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.models.AppendBlobRequestConditions;
+import com.azure.storage.blob.models.BlobDownloadResponse;
+import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRange;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.options.AppendBlobCreateOptions;
+import com.azure.storage.blob.specialized.AppendBlobClient;
+import org.jgroups.Address;
+import org.jgroups.protocols.PingData;
+
+/**
+ * Append blob logging the changes of the ping data files of a cluster, so that members learn about these by reading the tail of the log
+ * appended since their last read instead of all ping data files.
+ * <p>
+ * Each record is prefixed by its length; an update record holds the name and content of a ping data file, a removal record its name.
+ * The log is rewritten from the ping data files by compaction, which starts a new generation, stored in the blob metadata, with a begin record.
+ * Reads fetch the tail from one byte before the consumed offset, so that every read, even one without new records, returns the metadata
+ * and detects a new generation in a single request.
+ */
+class MembershipLog {
+
+    static final byte RECORD_BEGIN = 0;
+    static final byte RECORD_UPDATE = 1;
+    static final byte RECORD_REMOVE = 2;
+    static final byte RECORD_REMOVE_ALL = 3;
+
+    /**
+     * Maximum number of blocks the service accepts for an append blob; defined here as the storage client only offers a deprecated constant.
+     */
+    private static final int MAX_BLOCKS = 50_000;
+
+    private static final String GENERATION_METADATA_KEY = "jgroupsloggeneration";
+    // Accepted by all service versions
+    private static final int MAX_BLOCK_SIZE = 4 * 1024 * 1024;
+
+    private final BlobClient blobClient;
+    private final AppendBlobClient appendBlobClient;
+    private final Function<byte[], List<PingData>> parser;
+
+    // Consumed generation and offset, and the ping data of each file as of that offset
+    private String generation;
+    private long offset;
+    private final Map<String, List<PingData>> files = new LinkedHashMap<>();
+    private volatile boolean valid;
+
+    /**
+     * @param parser unmarshals the content of a ping data file
+     */
+    MembershipLog(final BlobClient blobClient, final Function<byte[], List<PingData>> parser) {
+        this.blobClient = blobClient;
+        this.appendBlobClient = blobClient.getAppendBlobClient();
+        this.parser = parser;
+    }
+
+    String getName() {
+        return blobClient.getBlobName();
+    }
+
+    /**
+     * Returns whether the last read found a complete generation of the log.
+     */
+    boolean isValid() {
+        return valid;
+    }
+
+    static byte[] record(final byte type, final String name, final byte[] content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0);
+            out.writeByte(type);
+            if (name != null) {
+                out.writeUTF(name);
+            }
+            if (content != null) {
+                out.write(content);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] record = bytes.toByteArray();
+        int length = record.length - Integer.BYTES;
+        record[0] = (byte) (length >>> 24);
+        record[1] = (byte) (length >>> 16);
+        record[2] = (byte) (length >>> 8);
+        record[3] = (byte) length;
+        return record;
+    }
+
+    /**
+     * Reads the records appended since the last read and returns the ping data of all files.
+     *
+     * @return {@code null} if the log does not exist or holds no complete generation, in which case the ping data files need to be read instead
+     */
+    synchronized List<PingData> read(final Duration timeout) {
+        if (generation != null) {
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                BlobDownloadResponse response = blobClient.downloadStreamWithResponse(out, new BlobRange(offset - 1), null, null, false, timeout, Context.NONE);
+                if (generation.equals(response.getDeserializedHeaders().getMetadata().get(GENERATION_METADATA_KEY))) {
+                    byte[] tail = out.toByteArray();
+                    offset += apply(tail, 1, files);
+                    valid = true;
+                    return members();
+                }
+            } catch (BlobStorageException e) {
+                // The log was removed, or replaced by a generation shorter than the consumed offset
+                if (e.getErrorCode() != BlobErrorCode.INVALID_RANGE && e.getErrorCode() != BlobErrorCode.BLOB_NOT_FOUND) {
+                    throw e;
+                }
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BlobDownloadResponse response;
+        try {
+            response = blobClient.downloadStreamWithResponse(out, null, null, null, false, timeout, Context.NONE);
+        } catch (BlobStorageException e) {
+            if (e.getErrorCode() != BlobErrorCode.BLOB_NOT_FOUND) {
+                throw e;
+            }
+            reset();
+            return null;
+        }
+        byte[] log = out.toByteArray();
+        // A generation is complete once its begin record was appended; a compaction might still be appending it
+        if (log.length <= Integer.BYTES || log[Integer.BYTES] != RECORD_BEGIN) {
+            reset();
+            return null;
+        }
+        Map<String, List<PingData>> read = new LinkedHashMap<>();
+        long consumed = apply(log, 0, read);
+        generation = response.getDeserializedHeaders().getMetadata().get(GENERATION_METADATA_KEY);
+        offset = consumed;
+        files.clear();
+        files.putAll(read);
+        valid = generation != null;
+        return valid ? members() : null;
+    }
+
+    /**
+     * Returns the names of the ping data files as of the last read.
+     */
+    synchronized Set<String> getFilenames() {
+        return new HashSet<>(files.keySet());
+    }
+
+    private void reset() {
+        generation = null;
+        offset = 0;
+        files.clear();
+        valid = false;
+    }
+
+    private List<PingData> members() {
+        Map<Address, PingData> members = new LinkedHashMap<>();
+        for (List<PingData> list : files.values()) {
+            list.forEach(data -> members.put(data.getAddress(), data));
+        }
+        return new ArrayList<>(members.values());
+    }
+
+    /**
+     * Applies the complete records of the given buffer from the given position.
+     *
+     * @return number of bytes consumed, excluding an incomplete trailing record
+     */
+    private long apply(final byte[] buffer, final int position, final Map<String, List<PingData>> target) {
+        int index = position;
+        try {
+            while (buffer.length - index >= Integer.BYTES) {
+                int length = ((buffer[index] & 0xff) << 24) | ((buffer[index + 1] & 0xff) << 16) | ((buffer[index + 2] & 0xff) << 8) | (buffer[index + 3] & 0xff);
+                if (length <= 0 || buffer.length - index - Integer.BYTES < length) {
+                    break;
+                }
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer, index + Integer.BYTES, length));
+                byte type = in.readByte();
+                switch (type) {
+                    case RECORD_UPDATE -> {
+                        String name = in.readUTF();
+                        List<PingData> list = parser.apply(in.readAllBytes());
+                        target.put(name, list != null ? list : List.of());
+                    }
+                    case RECORD_REMOVE -> target.remove(in.readUTF());
+                    case RECORD_REMOVE_ALL -> target.clear();
+                    default -> {
+                        // Begin records and records of unknown types carry no ping data
+                    }
+                }
+                index += Integer.BYTES + length;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return index - position;
+    }
+
+    /**
+     * Appends a record to the current generation.
+     *
+     * @return {@code false} if the log does not exist, i.e. the record is left to the next compaction
+     */
+    boolean append(final byte[] record, final Duration timeout) {
+        try {
+            appendBlobClient.appendBlockWithResponse(new ByteArrayInputStream(record), record.length, null, null, timeout, Context.NONE);
+            return true;
+        } catch (BlobStorageException e) {
+            if (e.getErrorCode() != BlobErrorCode.BLOB_NOT_FOUND) {
+                throw e;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Returns the properties of the log or {@code null} if it does not exist.
+     */
+    BlobProperties getProperties(final Duration timeout) {
+        try {
+            return blobClient.getPropertiesWithResponse(null, timeout, Context.NONE).getValue();
+        } catch (BlobStorageException e) {
+            if (e.getErrorCode() != BlobErrorCode.BLOB_NOT_FOUND) {
+                throw e;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether the log needs to be compacted: it is missing or incomplete, larger than the given size, close to the maximum number of blocks,
+     * or it does not list the given ping data files, e.g. because appending a record failed.
+     *
+     * @param properties properties of the log, {@code null} if it does not exist
+     * @param filenames  names of the ping data files in the container
+     */
+    boolean needsCompaction(final BlobProperties properties, final Set<String> filenames, final long maxSize, final Duration timeout) {
+        if (properties == null || properties.getBlobSize() > maxSize) {
+            return true;
+        }
+        Integer blocks = properties.getCommittedBlockCount();
+        if (blocks != null && blocks >= MAX_BLOCKS * 9 / 10) {
+            return true;
+        }
+        return read(timeout) == null || !getFilenames().equals(filenames);
+    }
+
+    /**
+     * Replaces the log by a new generation holding the given records. Fails with a {@link BlobStorageException} if the log was modified
+     * since the given properties were read, or if another member appended to the new generation before its begin record.
+     *
+     * @param properties properties of the log read before the records were collected, {@code null} if it did not exist
+     * @param records    update records of all ping data files
+     */
+    void compact(final BlobProperties properties, final List<byte[]> records, final Duration timeout) {
+        BlobRequestConditions conditions = properties != null ? new BlobRequestConditions().setIfMatch(properties.getETag())
+                : new BlobRequestConditions().setIfNoneMatch("*");
+        appendBlobClient.createWithResponse(new AppendBlobCreateOptions()
+                .setMetadata(Map.of(GENERATION_METADATA_KEY, UUID.randomUUID().toString()))
+                .setRequestConditions(conditions), timeout, Context.NONE);
+
+        ByteArrayOutputStream block = new ByteArrayOutputStream();
+        block.writeBytes(record(RECORD_BEGIN, null, null));
+        long position = 0;
+        for (byte[] record : records) {
+            if (block.size() + record.length > MAX_BLOCK_SIZE) {
+                position = appendBlock(block.toByteArray(), position, timeout);
+                block.reset();
+            }
+            block.writeBytes(record);
+        }
+        appendBlock(block.toByteArray(), position, timeout);
+    }
+
+    private long appendBlock(final byte[] block, final long position, final Duration timeout) {
+        // The begin record must come first, and records of other members must not be interleaved with the compacted ones
+        AppendBlobRequestConditions conditions = new AppendBlobRequestConditions().setAppendPosition(position);
+        appendBlobClient.appendBlockWithResponse(new ByteArrayInputStream(block), block.length, null, conditions, timeout, Context.NONE);
+        return position + block.length;
+    }
+}
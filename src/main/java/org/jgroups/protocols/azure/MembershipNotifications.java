@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.jgroups.Address;
+import org.jgroups.protocols.PingData;
+import org.jgroups.util.ByteArray;
+import org.jgroups.util.ByteArrayDataInputStream;
+import org.jgroups.util.ByteArrayDataOutputStream;
+import org.jgroups.util.Util;
+
+/**
+ * Change events of the ping data files of the local cluster, which a member posts to the notification queues of the other members when it
+ * writes or removes ping data files, and which it applies from its own notification queue to the discovery caches and the membership snapshot.
+ * <p>
+ * An event starts with its type; an update is followed by the address of the member which wrote the file and the content of the file,
+ * a removal by the address of the member whose file was removed.
+ */
+class MembershipNotifications {
+
+    static final byte EVENT_UPDATE = 1;
+    static final byte EVENT_REMOVE = 2;
+    static final byte EVENT_REMOVE_ALL = 3;
+
+    private final NotificationQueue queue;
+    private final MembershipSnapshot snapshot;
+    private final Function<InputStream, List<PingData>> parser;
+    private final Consumer<PingData> discovered;
+    private final long ttlNanos;
+    // Start of the last poll which emptied the notification queue, 0 if none did yet
+    private long lastCompletePoll;
+
+    /**
+     * @param parser     unmarshals the content of a ping data file
+     * @param discovered adds ping data to the discovery caches
+     * @param ttl        time to live of the events in the notification queues
+     */
+    MembershipNotifications(final NotificationQueue queue, final MembershipSnapshot snapshot, final Function<InputStream, List<PingData>> parser,
+                            final Consumer<PingData> discovered, final Duration ttl) {
+        this.queue = queue;
+        this.snapshot = snapshot;
+        this.parser = parser;
+        this.discovered = discovered;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    NotificationQueue getQueue() {
+        return queue;
+    }
+
+    static byte[] update(final Address owner, final ByteArray content) throws Exception {
+        ByteArrayDataOutputStream out = new ByteArrayDataOutputStream(Byte.BYTES + Util.size(owner) + content.length());
+        out.writeByte(EVENT_UPDATE);
+        Util.writeAddress(owner, out);
+        out.write(content.array(), content.offset(), content.length());
+        return Arrays.copyOf(out.buffer(), out.position());
+    }
+
+    static byte[] remove(final Address owner) throws Exception {
+        ByteArrayDataOutputStream out = new ByteArrayDataOutputStream(Byte.BYTES + Util.size(owner));
+        out.writeByte(EVENT_REMOVE);
+        Util.writeAddress(owner, out);
+        return Arrays.copyOf(out.buffer(), out.position());
+    }
+
+    static byte[] removeAll() {
+        return new byte[] { EVENT_REMOVE_ALL };
+    }
+
+    /**
+     * Starts receiving the events anew, e.g. after the member reconnected, forgetting those applied before.
+     */
+    synchronized void reset() {
+        lastCompletePoll = 0;
+        snapshot.resetNotified();
+    }
+
+    /**
+     * Posts the event to the notification queues of the given members.
+     *
+     * @return {@code false} if the event exceeds the maximum message size, i.e. was not posted and is left to reading the ping data files
+     */
+    boolean post(final byte[] event, final Collection<String> recipients, final Duration timeout) {
+        if (event.length > NotificationQueue.MAX_MESSAGE_SIZE) {
+            return false;
+        }
+        queue.post(event, recipients, timeout);
+        return true;
+    }
+
+    /**
+     * Applies an event to the discovery caches and the membership snapshot of the given cluster.
+     *
+     * @return {@code false} if the event is of an unknown type, i.e. was ignored
+     */
+    boolean apply(final String clustername, final byte[] event) throws Exception {
+        ByteArrayDataInputStream in = new ByteArrayDataInputStream(event);
+        switch (in.readByte()) {
+            case EVENT_UPDATE -> {
+                Address owner = Util.readAddress(in);
+                List<PingData> list = parser.apply(in);
+                if (list != null) {
+                    list.forEach(discovered);
+                    snapshot.update(clustername, owner, list);
+                }
+            }
+            case EVENT_REMOVE -> snapshot.update(clustername, Util.readAddress(in), null);
+            case EVENT_REMOVE_ALL -> snapshot.removeAll(clustername);
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records a poll started at the given time which emptied the notification queue. A membership snapshot which was confirmed by the previous
+     * complete poll remains fresh, i.e. answers discovery requests without reading all ping data files, as long as no event can have expired
+     * unseen in between.
+     */
+    synchronized void completed(final String clustername, final long start) {
+        long previous = lastCompletePoll;
+        lastCompletePoll = start;
+        if (previous != 0 && start - previous < ttlNanos) {
+            snapshot.confirm(clustername, previous, start);
+        }
+    }
+}
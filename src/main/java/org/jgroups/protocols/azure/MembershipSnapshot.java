@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.jgroups.Address;
+import org.jgroups.protocols.PingData;
+
+/**
+ * In-memory snapshot of the ping data of the local cluster, from which discovery requests are answered while it is fresh.
+ * It is refreshed by reading the ping data of all members, and updated in between by the change events of the ping data files,
+ * which also keep it fresh as long as no event can have been missed.
+ */
+class MembershipSnapshot {
+
+    private record Snapshot(String clustername, List<PingData> list, long timestamp) {
+        boolean isFresh(final String clustername, final long now, final long maxStalenessNanos) {
+            return this.clustername.equals(clustername) && now - timestamp <= maxStalenessNanos;
+        }
+    }
+
+    private final LongSupplier nanoClock;
+    private final Object lock = new Object();
+    private volatile Snapshot snapshot;
+    // Ping data last notified per file, by the address of the member which wrote it; guarded by lock
+    private final Map<Address, List<PingData>> notifiedFiles = new HashMap<>();
+
+    MembershipSnapshot() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock source of the time (in ns) by which the age of the snapshot is measured, like {@link System#nanoTime()}
+     */
+    MembershipSnapshot(final LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the ping data of the snapshot of the given cluster, refreshing it first if it is older than the given staleness;
+     * concurrent callers wait for a single refresh.
+     *
+     * @param refresher refreshes the snapshot of the given cluster, see {@link #refresh}
+     * @return the ping data, or {@code null} if the snapshot is still not fresh, e.g. because the refresh failed
+     */
+    List<PingData> get(final String clustername, final long maxStalenessNanos, final Runnable refresher) {
+        Snapshot current = snapshot;
+        if (current == null || !current.isFresh(clustername, nanoClock.getAsLong(), maxStalenessNanos)) {
+            synchronized (lock) {
+                current = snapshot;
+                if (current == null || !current.isFresh(clustername, nanoClock.getAsLong(), maxStalenessNanos)) {
+                    refresher.run();
+                    current = snapshot;
+                }
+            }
+        }
+        return current != null && current.isFresh(clustername, nanoClock.getAsLong(), maxStalenessNanos) ? current.list() : null;
+    }
+
+    /**
+     * Replaces the snapshot with the ping data of the given cluster read by the reader; its age counts from the start of the read.
+     *
+     * @param reader reads the ping data of all members of a cluster, returning {@code null} if the read did not complete
+     * @return {@code false} if the read did not complete, i.e. the previous snapshot was kept
+     */
+    boolean refresh(final String clustername, final Function<String, List<PingData>> reader) {
+        long start = nanoClock.getAsLong();
+        synchronized (lock) {
+            List<PingData> list = reader.apply(clustername);
+            if (list == null) {
+                return false;
+            }
+            snapshot = new Snapshot(clustername, List.copyOf(list), start);
+            return true;
+        }
+    }
+
+    /**
+     * Discards the snapshot, so that the next discovery request reads the ping data of all members.
+     */
+    void clear() {
+        synchronized (lock) {
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Forgets the ping data notified so far, e.g. when the change events start to be received again after some may have been missed.
+     */
+    void resetNotified() {
+        synchronized (lock) {
+            notifiedFiles.clear();
+        }
+    }
+
+    /**
+     * Applies the change event of a ping data file: an update replaces the ping data last notified for the file, a removal, i.e. {@code null}
+     * ping data, drops them. Members only listed by the previous version of a file, e.g. those which left the view of the coordinator,
+     * are dropped from the snapshot unless another notified file lists them.
+     *
+     * @param owner address of the member which wrote the file
+     */
+    void update(final String clustername, final Address owner, final List<PingData> list) {
+        synchronized (lock) {
+            List<PingData> previous = list != null ? notifiedFiles.put(owner, list) : notifiedFiles.remove(owner);
+            Snapshot current = snapshot;
+            if (current == null || !current.clustername().equals(clustername)) {
+                return;
+            }
+            Set<Address> dropped = new HashSet<>();
+            if (previous != null) {
+                previous.forEach(data -> dropped.add(data.getAddress()));
+            }
+            if (list == null) {
+                dropped.add(owner);
+            }
+            for (List<PingData> notified : notifiedFiles.values()) {
+                notified.forEach(data -> dropped.remove(data.getAddress()));
+            }
+            Map<Address, PingData> members = new LinkedHashMap<>();
+            current.list().forEach(data -> members.put(data.getAddress(), data));
+            members.keySet().removeAll(dropped);
+            if (list != null) {
+                list.forEach(data -> members.put(data.getAddress(), data));
+            }
+            snapshot = new Snapshot(clustername, List.copyOf(members.values()), current.timestamp());
+        }
+    }
+
+    /**
+     * Applies the change event of the removal of all ping data files of the given cluster.
+     */
+    void removeAll(final String clustername) {
+        synchronized (lock) {
+            notifiedFiles.clear();
+            Snapshot current = snapshot;
+            if (current != null && current.clustername().equals(clustername)) {
+                snapshot = new Snapshot(clustername, List.of(), current.timestamp());
+            }
+        }
+    }
+
+    /**
+     * Renews the snapshot of the given cluster as of the given time, at which all change events since the given earlier time were applied,
+     * provided that the snapshot was taken or renewed after that earlier time, i.e. does not miss any change.
+     */
+    void confirm(final String clustername, final long since, final long now) {
+        synchronized (lock) {
+            Snapshot current = snapshot;
+            if (current != null && current.clustername().equals(clustername) && current.timestamp() - since >= 0) {
+                snapshot = new Snapshot(clustername, current.list(), now);
+            }
+        }
+    }
+}
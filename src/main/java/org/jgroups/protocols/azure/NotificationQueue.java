@@ -0,0 +1,198 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import com.azure.core.credential.TokenCredential;
+import com.azure.core.http.HttpClient;
+import com.azure.core.util.BinaryData;
+import com.azure.core.util.Context;
+import com.azure.storage.common.StorageSharedKeyCredential;
+import com.azure.storage.queue.QueueClient;
+import com.azure.storage.queue.QueueMessageEncoding;
+import com.azure.storage.queue.QueueServiceAsyncClient;
+import com.azure.storage.queue.QueueServiceClientBuilder;
+import com.azure.storage.queue.models.QueueErrorCode;
+import com.azure.storage.queue.models.QueueMessageItem;
+import com.azure.storage.queue.models.QueueStorageException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-member queues of membership change events of a cluster. An event is posted to the queue of every recipient, and each member
+ * receives the events of its own queue, which hides them until they expire after their time to live, so that every event is
+ * transferred once per member rather than with every poll, and no event is hidden behind older ones which were not deleted yet.
+ * Only referenced when the optional 'com.azure:azure-storage-queue' dependency is on the classpath.
+ */
+class NotificationQueue {
+
+    /**
+     * Maximum number of messages the service returns by a single receive.
+     */
+    static final int MAX_RECEIVED_MESSAGES = 32;
+
+    /**
+     * Maximum number of receives of a poll, after which the remaining events are left for the next poll.
+     */
+    static final int MAX_RECEIVES_PER_POLL = 8;
+
+    /**
+     * Maximum size of a message before Base64 encoding, which must not exceed 64 KiB.
+     */
+    static final int MAX_MESSAGE_SIZE = 48 * 1024;
+
+    private static final int MAX_QUEUE_NAME_LENGTH = 63;
+    // Maximum number of queues an event is sent to, or which are deleted, concurrently
+    private static final int MAX_CONCURRENT_REQUESTS = 16;
+
+    /**
+     * Events received by a poll, and whether the poll emptied the queue.
+     */
+    record Poll(List<byte[]> events, boolean complete) {
+    }
+
+    private final QueueServiceAsyncClient serviceClient;
+    private final QueueClient queueClient;
+    private final String container;
+    private final String clustername;
+    private final Duration timeToLive;
+
+    /**
+     * Creates a client of the queue of the given member from either a connection string or an endpoint with a shared key or token credential.
+     */
+    NotificationQueue(final HttpClient httpClient, final String connectionString, final String endpoint, final StorageSharedKeyCredential keyCredential,
+                      final TokenCredential tokenCredential, final String container, final String clustername, final String member, final Duration timeToLive) {
+        QueueServiceClientBuilder builder = new QueueServiceClientBuilder()
+                .httpClient(httpClient)
+                .messageEncoding(QueueMessageEncoding.BASE64);
+        if (connectionString != null) {
+            builder.connectionString(connectionString);
+        } else {
+            builder.endpoint(endpoint);
+            if (keyCredential != null) {
+                builder.credential(keyCredential);
+            } else {
+                builder.credential(tokenCredential);
+            }
+        }
+        this.serviceClient = builder.buildAsyncClient();
+        this.queueClient = builder.buildClient().getQueueClient(queueName(container, clustername, member));
+        this.container = container;
+        this.clustername = clustername;
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Derives the name of the queue of a member from the container name, which follows the same naming rules,
+     * a checksum of the cluster name, which may contain any characters, and a hash of the member.
+     */
+    static String queueName(final String container, final String clustername, final String member) {
+        CRC32 crc = new CRC32();
+        crc.update(clustername.getBytes(StandardCharsets.UTF_8));
+        long hash = UUID.nameUUIDFromBytes(member.getBytes(StandardCharsets.UTF_8)).getMostSignificantBits();
+        String suffix = String.format("-%08x-%016x", crc.getValue(), hash);
+        String prefix = container.substring(0, Math.min(container.length(), MAX_QUEUE_NAME_LENGTH - suffix.length()));
+        // Dashes must not be consecutive
+        while (prefix.endsWith("-")) {
+            prefix = prefix.substring(0, prefix.length() - 1);
+        }
+        return prefix + suffix;
+    }
+
+    String getName() {
+        return queueClient.getQueueName();
+    }
+
+    String getClusterName() {
+        return clustername;
+    }
+
+    void create(final Duration timeout) {
+        queueClient.createIfNotExistsWithResponse(null, timeout, Context.NONE);
+    }
+
+    void delete(final Duration timeout) {
+        queueClient.deleteIfExistsWithResponse(timeout, Context.NONE);
+    }
+
+    /**
+     * Deletes the queues of the given members, e.g. of members which crashed and thus did not delete their own queue.
+     * Queues which do not exist are skipped; the others are still deleted if deleting some fails.
+     */
+    void delete(final Collection<String> members, final Duration timeout) {
+        Flux.fromIterable(members)
+                .flatMapDelayError(member -> {
+                    Mono<?> delete = serviceClient.getQueueAsyncClient(queueName(container, clustername, member)).deleteIfExists();
+                    return timeout != null ? delete.timeout(timeout) : delete;
+                }, MAX_CONCURRENT_REQUESTS, 1)
+                .then()
+                .block();
+    }
+
+    /**
+     * Posts an event to the queues of the given members. Members whose queue does not exist, as they did not poll yet or left,
+     * are skipped; the event is still posted to the others if posting to some fails.
+     */
+    void post(final byte[] event, final Collection<String> recipients, final Duration timeout) {
+        if (event.length > MAX_MESSAGE_SIZE) {
+            throw new IllegalArgumentException("Event of " + event.length + " bytes exceeds the maximum message size of " + MAX_MESSAGE_SIZE + " bytes.");
+        }
+        BinaryData message = BinaryData.fromBytes(event);
+        Flux.fromIterable(recipients)
+                .flatMapDelayError(member -> {
+                    Mono<?> send = serviceClient.getQueueAsyncClient(queueName(container, clustername, member)).sendMessageWithResponse(message, null, timeToLive);
+                    return (timeout != null ? send.timeout(timeout) : send)
+                            .onErrorResume(e -> e instanceof QueueStorageException qse && qse.getErrorCode() == QueueErrorCode.QUEUE_NOT_FOUND, e -> Mono.empty());
+                }, MAX_CONCURRENT_REQUESTS, 1)
+                .then()
+                .block();
+    }
+
+    /**
+     * Receives the events of the queue of this member, in the order of the queue. Received events remain hidden until they expire.
+     */
+    Poll poll(final Duration timeout) {
+        List<byte[]> events = new ArrayList<>();
+        try {
+            for (int i = 0; i < MAX_RECEIVES_PER_POLL; i++) {
+                int count = 0;
+                for (QueueMessageItem message : queueClient.receiveMessages(MAX_RECEIVED_MESSAGES, timeToLive, timeout, Context.NONE)) {
+                    count++;
+                    events.add(message.getBody().toBytes());
+                }
+                if (count < MAX_RECEIVED_MESSAGES) {
+                    return new Poll(events, true);
+                }
+            }
+        } catch (QueueStorageException e) {
+            if (e.getErrorCode() != QueueErrorCode.QUEUE_NOT_FOUND) {
+                throw e;
+            }
+            // Not created yet, or deleted since; events posted before are lost, so the poll is incomplete
+            create(timeout);
+            return new Poll(events, false);
+        }
+        return new Poll(events, false);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import org.jgroups.protocols.PingData;
+
+/**
+ * Bounded least-recently-used cache of parsed ping data files keyed by blob name.
+ * Entries are only returned while the ETag of the blob matches the ETag the entry was cached with.
+ */
+class PingDataCache {
+
+    private final Map<String, Entry> entries;
+
+    PingDataCache(final int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached ping data for the given blob, or {@code null} if the blob is not cached or its ETag changed.
+     */
+    synchronized List<PingData> get(final String name, final String etag) {
+        Entry entry = entries.get(name);
+        return entry != null && etag != null && Objects.equals(entry.etag, etag) ? entry.data : null;
+    }
+
+    synchronized void put(final String name, final String etag, final List<PingData> data) {
+        if (etag == null || data == null) {
+            entries.remove(name);
+        } else {
+            entries.put(name, new Entry(etag, data));
+        }
+    }
+
+    synchronized void remove(final String name) {
+        entries.remove(name);
+    }
+
+    /**
+     * Evicts all entries for blobs which are no longer listed.
+     */
+    synchronized void retainAll(final Collection<String> names) {
+        entries.keySet().retainAll(names);
+    }
+
+    /**
+     * Evicts all entries for blobs whose name matches the given predicate.
+     */
+    synchronized void removeIf(final Predicate<String> names) {
+        entries.keySet().removeIf(names);
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry(String etag, List<PingData> data) {
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jgroups.protocols.azure;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.json.JsonProviders;
+import com.azure.json.JsonReader;
+import com.azure.json.JsonToken;
+
+/**
+ * Region and availability zone of a member; either may be {@code null} if unknown. Zones are named after their region,
+ * e.g. {@code westeurope-2}, like the zone labels of AKS nodes.
+ */
+record Placement(String region, String zone) {
+
+    /**
+     * Compute metadata of the Azure Instance Metadata Service, which is only reachable from within the virtual machine.
+     */
+    static final String INSTANCE_METADATA_URI = "http://169.254.169.254/metadata/instance/compute?api-version=2021-02-01";
+
+    private static final HttpHeaderName METADATA_HEADER = HttpHeaderName.fromString("Metadata");
+
+    /**
+     * Returns how close a member with the given placement is: 0 within the same zone, 1 within the same region and 2 otherwise or if unknown.
+     */
+    int distance(final Placement other) {
+        if (other == null) {
+            return 2;
+        }
+        if (zone != null && zone.equals(other.zone)) {
+            return 0;
+        }
+        return region != null && region.equals(other.region) ? 1 : 2;
+    }
+
+    /**
+     * Returns the placement with the region and zone of the given placement replaced by those of this one, where set.
+     */
+    Placement override(final Placement placement) {
+        return new Placement(region != null ? region : placement.region, zone != null ? zone : placement.zone);
+    }
+
+    boolean isKnown() {
+        return region != null || zone != null;
+    }
+
+    /**
+     * Queries the placement of the local virtual machine from the instance metadata service at the given URI.
+     *
+     * @throws IOException if the service did not respond within the timeout or with an error
+     */
+    static Placement fromInstanceMetadata(final HttpClient httpClient, final String uri, final Duration timeout) throws IOException {
+        HttpRequest request = new HttpRequest(HttpMethod.GET, uri).setHeader(METADATA_HEADER, "true");
+        byte[] body;
+        try (HttpResponse response = httpClient.send(request).block(timeout)) {
+            if (response == null) {
+                throw new IOException("No response from instance metadata service at " + uri);
+            }
+            if (response.getStatusCode() != 200) {
+                throw new IOException(String.format("Instance metadata service at %s responded with status %d", uri, response.getStatusCode()));
+            }
+            body = response.getBodyAsBinaryData().toBytes();
+        } catch (IllegalStateException e) {
+            // Thrown by block() on timeout
+            throw new IOException("No response from instance metadata service at " + uri, e);
+        }
+
+        String location = null;
+        String zone = null;
+        try (JsonReader reader = JsonProviders.createReader(body)) {
+            if (reader.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected instance metadata: " + new String(body, StandardCharsets.UTF_8));
+            }
+            while (reader.nextToken() != JsonToken.END_OBJECT) {
+                String field = reader.getFieldName();
+                reader.nextToken();
+                if ("location".equals(field)) {
+                    location = emptyToNull(reader.getString());
+                } else if ("zone".equals(field)) {
+                    zone = emptyToNull(reader.getString());
+                } else {
+                    reader.skipChildren();
+                }
+            }
+        }
+        // Zones are only numbered within their region
+        return new Placement(location, zone != null && location != null ? location + "-" + zone : zone);
+    }
+
+    private static String emptyToNull(final String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
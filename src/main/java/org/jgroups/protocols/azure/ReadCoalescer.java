@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jgroups.protocols.azure;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import com.azure.core.http.HttpClient;
+import org.jgroups.protocols.PingData;
+
+/**
+ * Single-flight registry of the reads of all ping data of a cluster within a JVM. A read started while another one of the same cluster is in flight
+ * waits for it and shares its ping data instead of reading all files again, and so does a read started within the reuse window after it completed.
+ * The reuse window is that of the caller which started the read, but a caller never accepts a completed read older than its own window.
+ * Only complete reads are shared: the callers waiting for a read which was interrupted or left files out on its deadline read for themselves.
+ * Only instances sharing an HTTP client, i.e. the same storage account and credential, share their reads.
+ */
+final class ReadCoalescer {
+
+    /**
+     * Cluster whose reads are shared.
+     */
+    record Key(HttpClient httpClient, String containerUrl, String clustername) {
+    }
+
+    /**
+     * Ping data read by a caller; {@code complete} is {@code false} if the read was interrupted or left files out on its deadline.
+     */
+    record Read(List<PingData> list, boolean complete) {
+    }
+
+    /**
+     * Ping data of all members; {@code shared} tells whether these were read by another caller. {@code list} is {@code null}
+     * if the caller was interrupted or timed out while waiting for the read of another caller, i.e. did not get the ping data.
+     */
+    record Result(List<PingData> list, boolean shared) {
+    }
+
+    private static final Map<Key, Flight> flights = new HashMap<>();
+
+    /**
+     * Returns the ping data of an in-flight or recent read of the given cluster, or reads them by the given reader otherwise.
+     * A failed read is propagated to the callers waiting for it, but never reused.
+     *
+     * @param reuseWindow time (in ns) after its completion during which a read is reused, 0 to only share reads in flight
+     * @param timeout time (in ns) the caller waits at most for the read of another caller, 0 to wait without bound
+     */
+    static Result read(final Key key, final long reuseWindow, final long timeout, final Supplier<Read> reader) {
+        Flight flight;
+        boolean leader = false;
+        synchronized (flights) {
+            long now = System.nanoTime();
+            flights.values().removeIf(existing -> existing.isExpired(now, existing.reuseWindow));
+            flight = flights.get(key);
+            if (flight == null || flight.isExpired(now, reuseWindow)) {
+                flight = new Flight(reuseWindow);
+                flights.put(key, flight);
+                leader = true;
+            }
+        }
+
+        if (leader) {
+            Read read;
+            try {
+                read = reader.get();
+            } catch (RuntimeException | Error e) {
+                flight.future.completeExceptionally(e);
+                remove(key, flight);
+                throw e;
+            }
+            List<PingData> list = List.copyOf(read.list());
+            if (!read.complete()) {
+                flight.future.complete(null);
+                remove(key, flight);
+                return new Result(list, false);
+            }
+            flight.completed = System.nanoTime();
+            flight.future.complete(list);
+            if (reuseWindow <= 0) {
+                remove(key, flight);
+            }
+            return new Result(list, false);
+        }
+
+        try {
+            List<PingData> list = timeout > 0 ? flight.future.get(timeout, TimeUnit.NANOSECONDS) : flight.future.get();
+            if (list == null) {
+                return new Result(List.copyOf(reader.get().list()), false);
+            }
+            return new Result(list, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result(null, true);
+        } catch (TimeoutException e) {
+            return new Result(null, true);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void remove(final Key key, final Flight flight) {
+        synchronized (flights) {
+            flights.remove(key, flight);
+        }
+    }
+
+    private static final class Flight {
+        // Completed with null if the read was not complete
+        private final CompletableFuture<List<PingData>> future = new CompletableFuture<>();
+        private final long reuseWindow;
+        // Written before the future is completed; 0 while in flight
+        private volatile long completed;
+
+        private Flight(final long reuseWindow) {
+            this.reuseWindow = reuseWindow;
+        }
+
+        private boolean isExpired(final long now, final long reuseWindow) {
+            long completed = this.completed;
+            return completed != 0 && now - completed >= reuseWindow;
+        }
+    }
+
+    private ReadCoalescer() {
+    }
+}
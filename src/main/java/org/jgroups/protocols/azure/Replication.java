@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.jgroups.Address;
+import org.jgroups.logging.Log;
+import org.jgroups.protocols.PingData;
+
+/**
+ * Ping data replicated from the primary storage account to further storage accounts: writes and removals are sent to all replicas in parallel,
+ * while reads race the healthiest storage accounts and merge the ping data of the first ones which respond.
+ */
+class Replication {
+
+    private final StorageAccount primary;
+    private final List<StorageAccount> replicas;
+    private final ExecutorService executor;
+    private final int quorum;
+    private final long readDelayMillis;
+    private final Log log;
+
+    /**
+     * @param quorum          number of storage accounts whose ping data are merged by a read
+     * @param readDelayMillis time after which the next storage account is read if none responded yet, 0 to read all storage accounts at once
+     */
+    Replication(final StorageAccount primary, final List<StorageAccount> replicas, final ExecutorService executor, final int quorum,
+                final long readDelayMillis, final Log log) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.executor = executor;
+        this.quorum = quorum;
+        this.readDelayMillis = readDelayMillis;
+        this.log = log;
+    }
+
+    /**
+     * Reads the ping data from the storage accounts in order of their health and merges those of the first {@code quorum} storage accounts
+     * which respond with ping data. The next storage account is read when one fails or responds without ping data, e.g. because it was added recently,
+     * or when none responded within the read delay. Reads still running afterwards complete in the background, updating the health scores.
+     *
+     * @param reader reads the ping data of the given cluster from a storage account
+     * @throws RuntimeException the failure of the last storage account which failed, if none responded with ping data
+     */
+    List<PingData> read(final String clustername, final Function<StorageAccount, List<PingData>> reader) {
+        List<StorageAccount> accounts = new ArrayList<>(replicas.size() + 1);
+        accounts.add(primary);
+        accounts.addAll(replicas);
+        accounts.sort(Comparator.comparingDouble(StorageAccount::score));
+        int quorum = Math.min(this.quorum, accounts.size());
+
+        CompletionService<List<PingData>> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<List<PingData>>, StorageAccount> pending = new HashMap<>();
+        Map<Address, PingData> merged = new LinkedHashMap<>();
+        int next = 0;
+        int responded = 0;
+        RuntimeException failure = null;
+        for (int initial = readDelayMillis > 0 ? quorum : accounts.size(); next < initial; next++) {
+            StorageAccount account = accounts.get(next);
+            pending.put(completionService.submit(() -> read(account, reader)), account);
+        }
+        try {
+            while (responded < quorum && !pending.isEmpty()) {
+                Future<List<PingData>> future = next < accounts.size()
+                        ? completionService.poll(readDelayMillis, TimeUnit.MILLISECONDS)
+                        : completionService.take();
+                if (future != null) {
+                    StorageAccount account = pending.remove(future);
+                    try {
+                        List<PingData> list = future.get();
+                        if (!list.isEmpty()) {
+                            list.forEach(data -> merged.putIfAbsent(data.getAddress(), data));
+                            responded++;
+                            continue;
+                        }
+                        log.debug("Storage account '%s' holds no ping data of cluster '%s'.", account.name(), clustername);
+                    } catch (ExecutionException e) {
+                        if (e.getCause() instanceof Error error) {
+                            throw error;
+                        }
+                        failure = e.getCause() instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(e.getCause());
+                        log.debug("Error reading ping data of cluster '%s' from storage account '%s': %s", clustername, account.name(), e.getCause());
+                    }
+                }
+                if (next < accounts.size()) {
+                    StorageAccount account = accounts.get(next++);
+                    pending.put(completionService.submit(() -> read(account, reader)), account);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (responded == 0 && failure != null) {
+            throw failure;
+        }
+        if (responded < quorum && !merged.isEmpty()) {
+            log.debug("Only %d of %d storage accounts responded with ping data of cluster '%s'.", responded, quorum, clustername);
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Reads a storage account, recording the latency and outcome of the read in its health score.
+     */
+    private static List<PingData> read(final StorageAccount account, final Function<StorageAccount, List<PingData>> reader) {
+        long start = System.nanoTime();
+        try {
+            List<PingData> list = reader.apply(account);
+            account.success(System.nanoTime() - start);
+            return list;
+        } catch (RuntimeException e) {
+            account.failure(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the given storage call for each replica in parallel; failures are logged, as a replica must not fail the operation.
+     *
+     * @return future completed once the calls of all replicas completed
+     */
+    CompletableFuture<Void> replicate(final String action, final Consumer<StorageAccount> task) {
+        Executor replicaCalls = command -> {
+            try {
+                executor.execute(command);
+            } catch (RejectedExecutionException e) {
+                // Stopped concurrently
+                command.run();
+            }
+        };
+        return CompletableFuture.allOf(replicas.stream().map(replica -> CompletableFuture.runAsync(() -> {
+            try {
+                task.accept(replica);
+            } catch (Exception e) {
+                log.warn(String.format("Error %s in storage account '%s'.", action, replica.name()), e);
+            }
+        }, replicaCalls)).toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Waits for the storage calls of all replicas to complete.
+     */
+    static void await(final CompletableFuture<Void> replicated) {
+        if (replicated == null) {
+            return;
+        }
+        try {
+            replicated.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Failures are logged per replica
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.azure.core.credential.TokenCredential;
+import com.azure.core.http.HttpClient;
+
+/**
+ * Reference-counted registry of the HTTP clients and credentials of AZURE_PING instances within a JVM. Instances with the same endpoint,
+ * credential and transport configuration share one HTTP client, i.e. its connection pool and TLS sessions, and one credential, i.e. its token cache.
+ * Each instance still builds its own storage client on top of these, so that its statistics are kept apart.
+ */
+final class SharedClientRegistry {
+
+    /**
+     * Effective configuration which the shared clients depend on.
+     */
+    record Key(String connectionString, String endpoint, String accountName, String accessKey, int maxConnections, long connectionIdleTimeout, String httpClientProvider) {
+        @Override
+        public String toString() {
+            // Never expose secrets
+            return String.format("Key[endpoint=%s, accountName=%s, maxConnections=%d, connectionIdleTimeout=%d, httpClientProvider=%s]",
+                    endpoint, accountName, maxConnections, connectionIdleTimeout, httpClientProvider);
+        }
+    }
+
+    /**
+     * Clients shared by instances with the same {@link Key}; {@code credential} is {@code null} unless token-based authentication is used.
+     */
+    record Clients(HttpClient httpClient, TokenCredential credential) {
+    }
+
+    private static final Map<Key, Entry> entries = new HashMap<>();
+
+    /**
+     * Returns the clients registered for the given key, creating them if this is the first reference.
+     */
+    static synchronized Clients acquire(final Key key, final Supplier<Clients> factory) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(factory.get());
+            entries.put(key, entry);
+        }
+        entry.references++;
+        return entry.clients;
+    }
+
+    /**
+     * Drops a reference to the clients registered for the given key, forgetting them once no reference is left.
+     */
+    static synchronized void release(final Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && --entry.references <= 0) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Returns the number of references to the clients registered for the given key.
+     */
+    static synchronized int references(final Key key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.references : 0;
+    }
+
+    private static final class Entry {
+        private final Clients clients;
+        private int references;
+
+        private Entry(final Clients clients) {
+            this.clients = clients;
+        }
+    }
+
+    private SharedClientRegistry() {
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.concurrent.TimeUnit;
+
+import com.azure.storage.blob.BlobContainerClient;
+
+/**
+ * A storage account holding ping data along with a health score derived from its recent reads, by which discovery decides
+ * which storage accounts to read first when ping data are replicated to several of them.
+ */
+class StorageAccount {
+
+    // Weight of the latest read in the moving average of the read latency
+    private static final double WEIGHT = 0.2;
+    // Added to the latency of a failed read, so that a failing storage account ranks behind slow but working ones
+    private static final long FAILURE_PENALTY = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final BlobContainerClient containerClient;
+    private double averageLatency;
+    private boolean sampled;
+    private int failures;
+
+    StorageAccount(final String name, final BlobContainerClient containerClient) {
+        this.name = name;
+        this.containerClient = containerClient;
+    }
+
+    String name() {
+        return name;
+    }
+
+    BlobContainerClient containerClient() {
+        return containerClient;
+    }
+
+    synchronized void success(final long latencyNanos) {
+        record(latencyNanos);
+        failures = 0;
+    }
+
+    synchronized void failure(final long latencyNanos) {
+        record(latencyNanos + FAILURE_PENALTY);
+        failures++;
+    }
+
+    private void record(final long latencyNanos) {
+        averageLatency = sampled ? averageLatency + WEIGHT * (latencyNanos - averageLatency) : latencyNanos;
+        sampled = true;
+    }
+
+    /**
+     * Returns the health score, lower being healthier: the moving average of the read latency (in ns) with failed reads penalized.
+     * A storage account which was not read yet scores 0, so that it is read first.
+     */
+    synchronized double score() {
+        return averageLatency;
+    }
+
+    synchronized int failures() {
+        return failures;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s[latency=%.1f ms, failures=%d]", name, averageLatency / TimeUnit.MILLISECONDS.toNanos(1), failures);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+/**
+ * The storage account settings shared by {@link AZURE_PING} and {@link AZURE_TABLE_PING}, which both declare them as properties:
+ * either a connection string, or the name of the storage account with an access key, falling back to DefaultAzureCredential without one,
+ * and the endpoint of each service derived from the name unless configured explicitly.
+ *
+ * @param connectionString connection string, which overrides all other settings
+ * @param accountName      name of the storage account
+ * @param accessKey        secret access key of the storage account
+ * @param useHttps         whether endpoints derived from the name use HTTPS
+ * @param endpointSuffix   suffix of endpoints derived from the name
+ */
+record StorageAccountSettings(String connectionString, String accountName, String accessKey, boolean useHttps, String endpointSuffix) {
+
+    static final String DEFAULT_ENDPOINT_SUFFIX = "core.windows.net";
+
+    /**
+     * @throws IllegalArgumentException if neither a connection string nor the name of the storage account is configured
+     */
+    void validate() throws IllegalArgumentException {
+        if (!useConnectionString() && (accountName == null || accountName.isEmpty())) {
+            throw new IllegalArgumentException("Either connection_string or storage_account_name must be configured.");
+        }
+    }
+
+    boolean useConnectionString() {
+        return connectionString != null && !connectionString.isEmpty();
+    }
+
+    /**
+     * Returns whether the access key authenticates requests, i.e. it is configured and not overridden by a connection string.
+     */
+    boolean useAccessKey() {
+        return !useConnectionString() && accessKey != null && !accessKey.isEmpty();
+    }
+
+    /**
+     * Returns whether requests are sent over plain HTTP by the settings, for which a warning is due; a connection string states its own protocol.
+     */
+    boolean isInsecure() {
+        return !useHttps && !useConnectionString();
+    }
+
+    /**
+     * Returns the endpoint of the given service of the storage account.
+     *
+     * @param service    the service, i.e. {@code blob}, {@code queue} or {@code table}
+     * @param serviceUri endpoint configured explicitly for the service, used instead if set
+     */
+    String endpoint(final String service, final String serviceUri) {
+        if (serviceUri != null && !serviceUri.isEmpty()) {
+            return serviceUri;
+        }
+        String suffix = (endpointSuffix != null && !endpointSuffix.isEmpty()) ? endpointSuffix : DEFAULT_ENDPOINT_SUFFIX;
+        return String.format("%s://%s.%s.%s", useHttps ? "https" : "http", accountName, service, suffix);
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpPipelineNextSyncPolicy;
+import com.azure.core.http.HttpPipelinePosition;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import org.jgroups.util.Util;
+import reactor.core.publisher.Mono;
+
+/**
+ * Request, traffic and latency statistics of the storage operations performed by {@link AZURE_PING}.
+ * HTTP level statistics are collected by pipeline policies added to the storage client, which pass requests on untouched while statistics are disabled.
+ */
+class StorageMetrics {
+
+    enum Operation {
+        INIT,
+        READ_ALL,
+        WRITE,
+        REMOVE,
+        REMOVE_ALL,
+    }
+
+    private final Map<Operation, OperationMetrics> operations = new EnumMap<>(Operation.class);
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final BooleanSupplier enabled;
+
+    StorageMetrics(final BooleanSupplier enabled) {
+        this.enabled = enabled;
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, new OperationMetrics());
+        }
+    }
+
+    /**
+     * Records completion of an operation started at the given {@link System#nanoTime()}.
+     */
+    void record(final Operation operation, final long startNanos) {
+        operations.get(operation).latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+    }
+
+    void error(final Operation operation) {
+        operations.get(operation).errors.increment();
+    }
+
+    OperationMetrics get(final Operation operation) {
+        return operations.get(operation);
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    long retries() {
+        return Math.max(0, requests.sum() - calls.sum());
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long bytesSent() {
+        return bytesSent.sum();
+    }
+
+    long bytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    void reset() {
+        operations.values().forEach(OperationMetrics::reset);
+        for (LongAdder adder : new LongAdder[] {calls, requests, errors, bytesSent, bytesReceived}) {
+            adder.reset();
+        }
+    }
+
+    /**
+     * Policy counting logical service calls; runs once per call regardless of retries.
+     */
+    HttpPipelinePolicy callPolicy() {
+        return new HttpPipelinePolicy() {
+            @Override
+            public Mono<HttpResponse> process(HttpPipelineCallContext context, HttpPipelineNextPolicy next) {
+                if (enabled.getAsBoolean()) {
+                    calls.increment();
+                }
+                return next.process();
+            }
+
+            @Override
+            public HttpResponse processSync(HttpPipelineCallContext context, HttpPipelineNextSyncPolicy next) {
+                if (enabled.getAsBoolean()) {
+                    calls.increment();
+                }
+                return next.processSync();
+            }
+
+            @Override
+            public HttpPipelinePosition getPipelinePosition() {
+                return HttpPipelinePosition.PER_CALL;
+            }
+        };
+    }
+
+    /**
+     * Policy counting HTTP requests, errors and transferred bytes; runs for every attempt including retries.
+     */
+    HttpPipelinePolicy requestPolicy() {
+        return new HttpPipelinePolicy() {
+            @Override
+            public Mono<HttpResponse> process(HttpPipelineCallContext context, HttpPipelineNextPolicy next) {
+                if (!enabled.getAsBoolean()) {
+                    return next.process();
+                }
+                onRequest(context);
+                return next.process().doOnSuccess(StorageMetrics.this::onResponse).doOnError(e -> errors.increment());
+            }
+
+            @Override
+            public HttpResponse processSync(HttpPipelineCallContext context, HttpPipelineNextSyncPolicy next) {
+                if (!enabled.getAsBoolean()) {
+                    return next.processSync();
+                }
+                onRequest(context);
+                try {
+                    HttpResponse response = next.processSync();
+                    onResponse(response);
+                    return response;
+                } catch (RuntimeException e) {
+                    errors.increment();
+                    throw e;
+                }
+            }
+
+            @Override
+            public HttpPipelinePosition getPipelinePosition() {
+                return HttpPipelinePosition.PER_RETRY;
+            }
+        };
+    }
+
+    private void onRequest(final HttpPipelineCallContext context) {
+        requests.increment();
+        bytesSent.add(contentLength(context.getHttpRequest().getHeaders().getValue(HttpHeaderName.CONTENT_LENGTH)));
+    }
+
+    private void onResponse(final HttpResponse response) {
+        if (response == null) {
+            return;
+        }
+        // Missing blobs and failed preconditions are expected outcomes rather than errors
+        int status = response.getStatusCode();
+        if (status >= 500 || status == 429 || status == 403 || status == 401) {
+            errors.increment();
+        }
+        bytesReceived.add(contentLength(response.getHeaderValue(HttpHeaderName.CONTENT_LENGTH)));
+    }
+
+    private static long contentLength(final String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Number of invocations, errors and latency distribution of a single operation.
+     */
+    static class OperationMetrics {
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        long count() {
+            return latency.count();
+        }
+
+        long errors() {
+            return errors.sum();
+        }
+
+        LatencyHistogram latency() {
+            return latency;
+        }
+
+        void reset() {
+            errors.reset();
+            latency.reset();
+        }
+
+        @Override
+        public String toString() {
+            long count = count();
+            if (count == 0) {
+                return "n/a";
+            }
+            return String.format("count=%d, errors=%d, p50=%s, p99=%s, max=%s", count, errors(),
+                    Util.printTime(latency.percentile(50), TimeUnit.MICROSECONDS),
+                    Util.printTime(latency.percentile(99), TimeUnit.MICROSECONDS),
+                    Util.printTime(latency.max(), TimeUnit.MICROSECONDS));
+        }
+    }
+}
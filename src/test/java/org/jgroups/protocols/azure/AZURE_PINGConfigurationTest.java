@@ -16,6 +16,11 @@
 
 package org.jgroups.protocols.azure;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.Assert;
 import org.junit.Test;
 
 /**
@@ -82,4 +87,66 @@ public class AZURE_PINGConfigurationTest {
         azure.validateConfiguration();
     }
 
+    @Test
+    public void testValidationInvalidSettings() {
+        Map<String, Consumer<AZURE_PING>> settings = new LinkedHashMap<>();
+        settings.put("negative read_all_timeout", ping -> ping.read_all_timeout = -1);
+        settings.put("aggregate blob without max age", ping -> {
+            ping.use_aggregate_blob = true;
+            ping.aggregate_blob_max_age = 0;
+        });
+        settings.put("maintenance lease duration out of range", ping -> {
+            ping.use_maintenance_lease = true;
+            ping.maintenance_lease_duration = 90_000;
+        });
+        settings.put("negative max_connections", ping -> ping.max_connections = -1);
+        settings.put("virtual threads without storage call timeout", ping -> {
+            ping.use_virtual_threads = true;
+            ping.storage_call_timeout = 0;
+        });
+        settings.put("snapshot max staleness below refresh interval", ping -> {
+            ping.snapshot_refresh_interval = 10_000;
+            ping.snapshot_max_staleness = 5_000;
+        });
+        settings.put("removal of expired ping data without TTL", ping -> ping.remove_expired_ping_data = true);
+        settings.put("negative get_timeout", ping -> ping.get_timeout = -1);
+        settings.put("retry delay above max retry delay", ping -> {
+            ping.max_retries = 3;
+            ping.retry_delay = 1000;
+            ping.max_retry_delay = 100;
+        });
+        settings.put("hedged read percentile out of range", ping -> ping.hedged_read_percentile = 100);
+        settings.put("local snapshot without circuit breaker threshold", ping -> {
+            ping.local_snapshot_file = "/tmp/azure-ping.snapshot";
+            ping.circuit_breaker_threshold = 0;
+        });
+        settings.put("read quorum exceeding storage accounts", ping -> {
+            ping.replica_endpoints = "https://replica1.blob.core.windows.net, https://replica2.blob.core.windows.net";
+            ping.read_quorum = 4;
+        });
+        settings.put("negative replica_read_delay", ping -> ping.replica_read_delay = -1);
+        settings.put("notification TTL below poll interval", ping -> {
+            ping.use_notification_queue = true;
+            ping.notification_poll_interval = 5_000;
+            ping.notification_ttl = 2_000;
+        });
+        settings.put("non-positive membership log max size", ping -> {
+            ping.use_membership_log = true;
+            ping.membership_log_max_size = 0;
+        });
+        settings.put("negative read_reuse_window", ping -> ping.read_reuse_window = -1);
+
+        settings.forEach((description, setting) -> {
+            AZURE_PING ping = new AZURE_PING();
+            ping.storage_account_name = "myaccount";
+            ping.container = "mycontainer";
+            setting.accept(ping);
+            try {
+                ping.validateConfiguration();
+                Assert.fail("Configuration with " + description + " must be rejected");
+            } catch (IllegalArgumentException expected) {
+                // Rejected
+            }
+        });
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.jgroups.conf.ClassConfigurator;
+import org.jgroups.protocols.FILE_PING;
+import org.jgroups.stack.IpAddress;
+import org.jgroups.util.UUID;
+import org.junit.Test;
+
+/**
+ * Unit test for AZURE_TABLE_PING protocol configuration.
+ */
+public class AZURE_TABLE_PINGConfigurationTest {
+
+    private final AZURE_TABLE_PING azure;
+
+    public AZURE_TABLE_PINGConfigurationTest() {
+        azure = new AZURE_TABLE_PING();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidationMissingConfiguration() {
+        azure.validateConfiguration();
+    }
+
+    @Test
+    public void testValidationAllConfigured() {
+        azure.storage_account_name = "myaccount";
+        azure.storage_access_key = "1wsRK265DNm8v7LxT6txU2qZ_3DsBnbv";
+        azure.table = "mytable";
+        azure.validateConfiguration();
+    }
+
+    @Test
+    public void testValidationWithConnectionStringWithoutAccountName() {
+        azure.connection_string = "DefaultEndpointsProtocol=https;AccountName=myaccount;AccountKey=mykey;EndpointSuffix=core.windows.net";
+        azure.table = "mytable";
+        azure.validateConfiguration();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidationWithoutAccountName() {
+        azure.table = "mytable";
+        azure.validateConfiguration();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidationWrongTableName() {
+        azure.storage_account_name = "myaccount";
+        azure.table = "my-table";
+        azure.validateConfiguration();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValidationTableNameStartingWithDigit() {
+        azure.storage_account_name = "myaccount";
+        azure.table = "1table";
+        azure.validateConfiguration();
+    }
+
+    @Test
+    public void testProtocolId() {
+        // Headers must resolve to this protocol rather than to FILE_PING or AZURE_PING
+        assertEquals(AZURE_TABLE_PING.class, ClassConfigurator.getProtocol(azure.getId()));
+        assertNotEquals(ClassConfigurator.getProtocolId(FILE_PING.class), azure.getId());
+        assertNotEquals(new AZURE_PING().getId(), azure.getId());
+    }
+
+    @Test
+    public void testKeysContainNoForbiddenCharacters() throws Exception {
+        String partitionKey = AZURE_TABLE_PING.partitionKey("``\\//--+ěščřžýáíé==''!@#$%^&*()_{}<>?");
+        assertEquals(-1, indexOfAny(partitionKey, "/\\#?'"));
+        String rowKey = AZURE_TABLE_PING.rowKey(new IpAddress("127.0.0.1", 7800));
+        assertEquals(-1, indexOfAny(rowKey, "/\\#?'"));
+        assertEquals(-1, indexOfAny(AZURE_TABLE_PING.rowKey(UUID.randomUUID()), "/\\#?'"));
+    }
+
+    private static int indexOfAny(String value, String characters) {
+        for (int i = 0; i < value.length(); i++) {
+            if (characters.indexOf(value.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
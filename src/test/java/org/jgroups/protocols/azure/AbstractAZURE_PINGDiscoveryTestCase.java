@@ -49,6 +49,13 @@ public abstract class AbstractAZURE_PINGDiscoveryTestCase {
         return GENUINE_CREDENTIALS_AVAILABLE;
     }
 
+    /**
+     * Returns the stack file which the channels are created from.
+     */
+    protected String getStackConfiguration() {
+        return STACK_XML_CONFIGURATION;
+    }
+
     @Test
     public void testDiscovery() throws Exception {
         discover(RANDOM_CLUSTER_NAME);
@@ -82,7 +89,7 @@ public abstract class AbstractAZURE_PINGDiscoveryTestCase {
     private List<JChannel> create(String clusterName) throws Exception {
         List<JChannel> result = new LinkedList<>();
         for (int i = 0; i < CHANNEL_COUNT; i++) {
-            JChannel channel = new JChannel(STACK_XML_CONFIGURATION);
+            JChannel channel = new JChannel(getStackConfiguration());
 
             channel.connect(clusterName);
             if (i == 0) {
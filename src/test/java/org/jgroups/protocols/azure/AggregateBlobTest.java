@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobServiceClientBuilder;
+import org.jgroups.util.ByteArray;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link AggregateBlob}.
+ */
+public class AggregateBlobTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration MAX_AGE = Duration.ofMinutes(1);
+
+    private InMemoryBlobService service;
+    private BlobContainerClient containerClient;
+
+    @Before
+    public void setUp() {
+        service = new InMemoryBlobService();
+        containerClient = new BlobServiceClientBuilder()
+                .httpClient(service)
+                .connectionString(InMemoryBlobService.CONNECTION_STRING)
+                .buildClient()
+                .getBlobContainerClient("jgroups");
+    }
+
+    @Test
+    public void testUpdateAndRead() {
+        AggregateBlob writer = newBlob();
+        AggregateBlob reader = newBlob();
+        // Neither the container nor the blob exist yet
+        assertNull(reader.read(TIMEOUT));
+        containerClient.create();
+        assertNull(reader.read(TIMEOUT));
+
+        assertTrue(writer.update(bytes("members"), TIMEOUT));
+        assertEquals("members", string(reader.read(TIMEOUT)));
+
+        // Unchanged ping data are not uploaded again, unless forgotten
+        long requests = service.getRequestCount();
+        assertFalse(writer.update(new ByteArray("-members-".getBytes(StandardCharsets.UTF_8), 1, 7), TIMEOUT));
+        assertEquals(requests, service.getRequestCount());
+        writer.reset();
+        assertTrue(writer.update(bytes("members"), TIMEOUT));
+
+        writer.delete(TIMEOUT);
+        assertNull(reader.read(TIMEOUT));
+    }
+
+    @Test
+    public void testStaleBlobIsNotRead() {
+        containerClient.create();
+        AggregateBlob blob = newBlob();
+        blob.update(bytes("members"), TIMEOUT);
+        service.put("jgroups", blob.getName(), service.get("jgroups", blob.getName()), OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(2));
+        assertNull(blob.read(TIMEOUT));
+
+        // Refreshing renews the blob with the ping data last uploaded
+        blob.refresh(TIMEOUT);
+        assertEquals("members", string(blob.read(TIMEOUT)));
+
+        // Nothing to refresh once forgotten
+        blob.reset();
+        service.put("jgroups", blob.getName(), service.get("jgroups", blob.getName()), OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(2));
+        blob.refresh(TIMEOUT);
+        assertNull(blob.read(TIMEOUT));
+    }
+
+    @Test
+    public void testAgeByServiceClock() {
+        containerClient.create();
+        AggregateBlob blob = newBlob();
+        blob.update(bytes("members"), TIMEOUT);
+        // The clock of this member is an hour ahead of the service
+        service.clockOffset(Duration.ofHours(-1));
+        assertArrayEquals("members".getBytes(StandardCharsets.UTF_8), blob.read(TIMEOUT).copy().array());
+
+        // The clock of this member is an hour behind the service, which wrote the blob two minutes ago
+        service.clockOffset(Duration.ofHours(1));
+        service.put("jgroups", blob.getName(), service.get("jgroups", blob.getName()), OffsetDateTime.now(ZoneOffset.UTC).plusHours(1).minusMinutes(2));
+        assertNull(blob.read(TIMEOUT));
+    }
+
+    private AggregateBlob newBlob() {
+        return new AggregateBlob(containerClient.getBlobClient("cluster.members"), MAX_AGE);
+    }
+
+    private static ByteArray bytes(final String content) {
+        return new ByteArray(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String string(final ByteArray data) {
+        return new String(data.array(), data.offset(), data.length(), StandardCharsets.UTF_8);
+    }
+}
@@ -34,7 +34,7 @@ import org.testcontainers.DockerClientFactory;
 import org.testcontainers.containers.GenericContainer;
 
 /**
- * Tests against a containerized Azurite service using both blob_storage_uri and connection_string.
+ * Tests against a containerized Azurite service using both blob_storage_uri and connection_string, and with the notification queue enabled.
  *
  * @author Radoslav Husar
  */
@@ -44,15 +44,17 @@ public class AzuriteAZURE_PINGDiscoveryTestCase extends AbstractAZURE_PINGDiscov
     public enum ConfigurationType {
         BLOB_STORAGE_URI,
         CONNECTION_STRING,
+        NOTIFICATION_QUEUE,
     }
 
     // These are fixed; well-known configuration properties for Azurite container
     private static final String AZURITE_ACCOUNT_NAME = "devstoreaccount1";
     private static final String AZURITE_ACCOUNT_KEY = "Eby8vdM02xNOcqFlqUwJPLlmEtlCDXJ1OUzFT50uSRZ6IFsuFq2UVErCz4I6tq/K1SZFPTOtr/KBHBeksoGMGw==";
     private static final int AZURITE_BLOB_PORT = 10000;
+    private static final int AZURITE_QUEUE_PORT = 10001;
 
     // All known property keys matching @Property(systemProperty = ...) in AZURE_PING
-    private static final String[] PROPERTY_KEYS = {"JGROUPS_AZURE_CONNECTION_STRING", "JGROUPS_AZURE_BLOB_STORAGE_URI", "JGROUPS_AZURE_STORAGE_ACCOUNT_NAME", "JGROUPS_AZURE_STORAGE_ACCESS_KEY", "JGROUPS_AZURE_CONTAINER"};
+    private static final String[] PROPERTY_KEYS = {"JGROUPS_AZURE_CONNECTION_STRING", "JGROUPS_AZURE_BLOB_STORAGE_URI", "JGROUPS_AZURE_STORAGE_ACCOUNT_NAME", "JGROUPS_AZURE_STORAGE_ACCESS_KEY", "JGROUPS_AZURE_CONTAINER", "JGROUPS_AZURE_USE_NOTIFICATION_QUEUE"};
 
     private static GenericContainer<?> azurite;
     private static final Map<String, String> savedProperties = new HashMap<>();
@@ -81,8 +83,8 @@ public class AzuriteAZURE_PINGDiscoveryTestCase extends AbstractAZURE_PINGDiscov
         // n.b. for reference https://mcr.microsoft.com/en-us/artifact/mar/azure-storage/azurite/tags
         // n.b. --skipApiVersionCheck is needed because Azurite doesn't yet support the 2026-02-06 API version used by the latest SDK
         azurite = new GenericContainer<>("mcr.microsoft.com/azure-storage/azurite:3.35.0")
-                .withCommand("azurite-blob", "--blobHost", "0.0.0.0", "--skipApiVersionCheck")
-                .withExposedPorts(AZURITE_BLOB_PORT);
+                .withCommand("azurite", "--blobHost", "0.0.0.0", "--queueHost", "0.0.0.0", "--skipApiVersionCheck")
+                .withExposedPorts(AZURITE_BLOB_PORT, AZURITE_QUEUE_PORT);
         azurite.start();
 
         // Save existing properties to restore after tests
@@ -110,6 +112,12 @@ public class AzuriteAZURE_PINGDiscoveryTestCase extends AbstractAZURE_PINGDiscov
                 String connectionString = String.format("DefaultEndpointsProtocol=http;AccountName=%s;AccountKey=%s;BlobEndpoint=%s", AZURITE_ACCOUNT_NAME, AZURITE_ACCOUNT_KEY, blobEndpoint);
                 System.setProperty("JGROUPS_AZURE_CONNECTION_STRING", connectionString);
                 break;
+            case NOTIFICATION_QUEUE:
+                String queueEndpoint = "http://" + azurite.getHost() + ":" + azurite.getMappedPort(AZURITE_QUEUE_PORT) + "/" + AZURITE_ACCOUNT_NAME;
+                System.setProperty("JGROUPS_AZURE_CONNECTION_STRING", String.format("DefaultEndpointsProtocol=http;AccountName=%s;AccountKey=%s;BlobEndpoint=%s;QueueEndpoint=%s",
+                        AZURITE_ACCOUNT_NAME, AZURITE_ACCOUNT_KEY, blobEndpoint, queueEndpoint));
+                System.setProperty("JGROUPS_AZURE_USE_NOTIFICATION_QUEUE", "true");
+                break;
         }
     }
 
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jgroups.util.Util;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * Tests AZURE_TABLE_PING against a containerized Azurite table service using both table_storage_uri and connection_string.
+ */
+@RunWith(Parameterized.class)
+public class AzuriteAZURE_TABLE_PINGDiscoveryTestCase extends AbstractAZURE_PINGDiscoveryTestCase {
+
+    public enum ConfigurationType {
+        TABLE_STORAGE_URI,
+        CONNECTION_STRING,
+    }
+
+    public static final String STACK_XML_CONFIGURATION = "org/jgroups/protocols/azure/tcp-azure-table.xml";
+    public static final String DEFAULT_TABLE = "jgroupspingtesting";
+
+    // These are fixed; well-known configuration properties for Azurite container
+    private static final String AZURITE_ACCOUNT_NAME = "devstoreaccount1";
+    private static final String AZURITE_ACCOUNT_KEY = "Eby8vdM02xNOcqFlqUwJPLlmEtlCDXJ1OUzFT50uSRZ6IFsuFq2UVErCz4I6tq/K1SZFPTOtr/KBHBeksoGMGw==";
+    private static final int AZURITE_TABLE_PORT = 10002;
+
+    // All known property keys matching @Property(systemProperty = ...) in AZURE_TABLE_PING
+    private static final String[] PROPERTY_KEYS = {"JGROUPS_AZURE_CONNECTION_STRING", "JGROUPS_AZURE_TABLE_STORAGE_URI", "JGROUPS_AZURE_STORAGE_ACCOUNT_NAME", "JGROUPS_AZURE_STORAGE_ACCESS_KEY", "JGROUPS_AZURE_TABLE"};
+
+    private static GenericContainer<?> azurite;
+    private static final Map<String, String> savedProperties = new HashMap<>();
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<ConfigurationType> data() {
+        return Arrays.asList(ConfigurationType.values());
+    }
+
+    private final ConfigurationType configurationType;
+
+    public AzuriteAZURE_TABLE_PINGDiscoveryTestCase(ConfigurationType configurationType) {
+        this.configurationType = configurationType;
+    }
+
+    @Override
+    protected String getStackConfiguration() {
+        return STACK_XML_CONFIGURATION;
+    }
+
+    @BeforeClass
+    public static void setUp() {
+        if (!isDockerAvailable() && !Util.checkForLinux()) {
+            Assume.assumeTrue("Podman/Docker environment is not available - skipping tests against Azurite service.", false);
+        } else if (!isDockerAvailable()) {
+            fail("Credentials are not provided, thus Podman/Docker on Linux is required to run tests against Azurite!");
+        }
+
+        // n.b. keep the version in sync with AzuriteAZURE_PINGDiscoveryTestCase
+        azurite = new GenericContainer<>("mcr.microsoft.com/azure-storage/azurite:3.35.0")
+                .withCommand("azurite-table", "--tableHost", "0.0.0.0", "--skipApiVersionCheck")
+                .withExposedPorts(AZURITE_TABLE_PORT);
+        azurite.start();
+
+        // Save existing properties to restore after tests
+        Arrays.stream(PROPERTY_KEYS).forEach(key -> savedProperties.put(key, System.getProperty(key)));
+    }
+
+    @Before
+    public void setUpProperties() {
+        // Start each test with unset properties
+        Arrays.stream(PROPERTY_KEYS).forEach(System::clearProperty);
+
+        String tableEndpoint = "http://" + azurite.getHost() + ":" + azurite.getMappedPort(AZURITE_TABLE_PORT) + "/" + AZURITE_ACCOUNT_NAME;
+
+        System.setProperty("JGROUPS_AZURE_TABLE", DEFAULT_TABLE);
+
+        switch (configurationType) {
+            case TABLE_STORAGE_URI:
+                // Configure using individual properties
+                System.setProperty("JGROUPS_AZURE_TABLE_STORAGE_URI", tableEndpoint);
+                System.setProperty("JGROUPS_AZURE_STORAGE_ACCOUNT_NAME", AZURITE_ACCOUNT_NAME);
+                System.setProperty("JGROUPS_AZURE_STORAGE_ACCESS_KEY", AZURITE_ACCOUNT_KEY);
+                break;
+            case CONNECTION_STRING:
+                // Configure using connection string; clear individual credential properties
+                String connectionString = String.format("DefaultEndpointsProtocol=http;AccountName=%s;AccountKey=%s;TableEndpoint=%s", AZURITE_ACCOUNT_NAME, AZURITE_ACCOUNT_KEY, tableEndpoint);
+                System.setProperty("JGROUPS_AZURE_CONNECTION_STRING", connectionString);
+                break;
+        }
+    }
+
+    @AfterClass
+    public static void cleanup() {
+        // Restore original properties so that GenuineAZURE_PINGDiscoveryTestCase picks up genuine credentials passed by the user
+        for (Map.Entry<String, String> entry : savedProperties.entrySet()) {
+            if (entry.getValue() != null) {
+                System.setProperty(entry.getKey(), entry.getValue());
+            } else {
+                System.clearProperty(entry.getKey());
+            }
+        }
+
+        if (azurite != null) {
+            azurite.stop();
+        }
+    }
+
+    private static boolean isDockerAvailable() {
+        try {
+            DockerClientFactory.instance().client();
+            return true;
+        } catch (Throwable ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link CircuitBreaker}.
+ */
+public class CircuitBreakerTest {
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 1, TimeUnit.HOURS);
+        Assert.assertFalse(breaker.failure());
+        Assert.assertFalse(breaker.failure());
+        breaker.success();
+        Assert.assertFalse(breaker.failure());
+        Assert.assertFalse(breaker.failure());
+        Assert.assertTrue(breaker.allowRequest());
+
+        Assert.assertTrue(breaker.failure());
+        Assert.assertTrue(breaker.isOpen());
+        Assert.assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void testTrialRequest() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 50, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(breaker.failure());
+        Assert.assertFalse(breaker.allowRequest());
+
+        Thread.sleep(100);
+        // A single trial request, which fails
+        Assert.assertTrue(breaker.allowRequest());
+        Assert.assertFalse(breaker.allowRequest());
+        Assert.assertFalse(breaker.failure());
+        Assert.assertFalse(breaker.allowRequest());
+
+        Thread.sleep(100);
+        // A single trial request, which succeeds
+        Assert.assertTrue(breaker.allowRequest());
+        breaker.success();
+        Assert.assertFalse(breaker.isOpen());
+        Assert.assertTrue(breaker.allowRequest());
+    }
+}
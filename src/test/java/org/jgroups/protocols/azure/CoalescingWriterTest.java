@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link CoalescingWriter}.
+ */
+public class CoalescingWriterTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testLatestValueWins() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> written = new CopyOnWriteArrayList<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CoalescingWriter<String, String> writer = new CoalescingWriter<>(executor, (key, value) -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(value);
+            inFlight.decrementAndGet();
+        });
+
+        Assert.assertFalse(writer.submit("a", "1"));
+        Assert.assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        // The first write is in flight, the others replace each other
+        Assert.assertFalse(writer.submit("a", "2"));
+        Assert.assertTrue(writer.submit("a", "3"));
+        Assert.assertFalse(writer.flush("a", 100, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        Assert.assertTrue(writer.flush("a", 10, TimeUnit.SECONDS));
+        Assert.assertEquals(List.of("1", "3"), written);
+        Assert.assertEquals(1, maxInFlight.get());
+    }
+
+    @Test
+    public void testFlushAll() throws InterruptedException {
+        List<String> written = new CopyOnWriteArrayList<>();
+        CoalescingWriter<String, String> writer = new CoalescingWriter<>(executor, (key, value) -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(key + value);
+        });
+
+        writer.submit("a", "1");
+        writer.submit("b", "1");
+        Assert.assertTrue(writer.flush(0, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(2, written.size());
+        Assert.assertTrue(written.containsAll(List.of("a1", "b1")));
+    }
+
+    @Test
+    public void testFailedWrite() throws InterruptedException {
+        List<String> written = new CopyOnWriteArrayList<>();
+        CoalescingWriter<String, String> writer = new CoalescingWriter<>(executor, (key, value) -> {
+            if (value.equals("1")) {
+                throw new IllegalStateException();
+            }
+            written.add(value);
+        });
+
+        writer.submit("a", "1");
+        Assert.assertTrue(writer.flush("a", 10, TimeUnit.SECONDS));
+        writer.submit("a", "2");
+        Assert.assertTrue(writer.flush("a", 10, TimeUnit.SECONDS));
+        Assert.assertEquals(List.of("2"), written);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.azure.core.http.HttpMethod;
+import org.jgroups.JChannel;
+import org.jgroups.protocols.MERGE3;
+import org.jgroups.protocols.SHARED_LOOPBACK;
+import org.jgroups.protocols.UNICAST3;
+import org.jgroups.protocols.pbcast.GMS;
+import org.jgroups.protocols.pbcast.NAKACK2;
+import org.jgroups.protocols.pbcast.STABLE;
+import org.jgroups.util.Util;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Functional tests for AZURE_PING discovery of large clusters against an {@link InMemoryBlobService}, which need neither network
+ * access nor a container. Channels run over SHARED_LOOPBACK so that only the discovery protocol talks to the (simulated) storage service.
+ * The number of channels can be changed using the {@code jgroups.azure.scale.channels} system property. Tests starting that many channels
+ * take about a minute, so they are skipped unless run with the {@code scale} profile.
+ */
+public class InMemoryAZURE_PINGScaleTestCase {
+
+    private static final boolean SCALE_TESTS = Boolean.getBoolean("jgroups.azure.scale");
+    private static final int CHANNEL_COUNT = Integer.getInteger("jgroups.azure.scale.channels", 200);
+    private static final int JOIN_CONCURRENCY = 16;
+    private static final long VIEW_TIMEOUT = TimeUnit.MINUTES.toMillis(2);
+
+    private final InMemoryBlobService service = new InMemoryBlobService().latency(1, TimeUnit.MILLISECONDS);
+    private final List<JChannel> channels = new ArrayList<>();
+
+    @After
+    public void close() {
+        // Close the coordinator last to avoid a view handover per leaving member
+        Collections.reverse(channels);
+        channels.forEach(JChannel::close);
+        channels.clear();
+    }
+
+    @Test
+    public void testScale() throws Exception {
+        assumeScaleTests();
+        discover(CHANNEL_COUNT, ping -> {});
+    }
+
+    @Test
+    public void testScaleAggregateBlob() throws Exception {
+        assumeScaleTests();
+        discover(CHANNEL_COUNT, ping -> ping.use_aggregate_blob = true);
+    }
+
+    @Test
+    public void testDiscoveryWithThrottlingAndFaults() throws Exception {
+        // Failed downloads are not retried, so joining members may miss the coordinator and form partitions which MERGE3 heals
+        service.throttle(20).fault(request -> request.getHttpMethod() == HttpMethod.GET && request.getUrl().getQuery() == null, 0.2, 403, "AuthorizationFailure");
+        discover(20, ping -> ping.max_concurrent_downloads = 4);
+    }
+
+    private static void assumeScaleTests() {
+        Assume.assumeTrue("Scale tests are only run with the 'scale' profile, test will be ignored!", SCALE_TESTS);
+    }
+
+    private void discover(final int count, final Consumer<AZURE_PING> configurator) throws Exception {
+        String clusterName = UUID.randomUUID().toString();
+        long start = System.nanoTime();
+
+        // Let's be clear about the coordinator, then let the other members join concurrently
+        channels.add(connect(clusterName, configurator));
+        ExecutorService executor = Executors.newFixedThreadPool(JOIN_CONCURRENCY);
+        try {
+            List<Future<JChannel>> futures = new ArrayList<>();
+            for (int i = 1; i < count; i++) {
+                futures.add(executor.submit(() -> connect(clusterName, configurator)));
+            }
+            for (Future<JChannel> future : futures) {
+                channels.add(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Util.waitUntilAllChannelsHaveSameView(VIEW_TIMEOUT, 100, channels.toArray(new JChannel[0]));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        for (JChannel channel : channels) {
+            Assert.assertEquals("member count", count, channel.getView().size());
+        }
+        System.out.printf("%d members discovered in %d ms with %d storage requests (%.1f per join, %d throttled)%n",
+                count, elapsed, service.getRequestCount(), (double) service.getRequestCount() / count, service.getThrottledRequestCount());
+    }
+
+    private JChannel connect(final String clusterName, final Consumer<AZURE_PING> configurator) throws Exception {
+        AZURE_PING ping = new AZURE_PING();
+        ping.httpClient = service;
+        ping.connection_string = InMemoryBlobService.CONNECTION_STRING;
+        ping.container = AbstractAZURE_PINGDiscoveryTestCase.DEFAULT_CONTAINER;
+        configurator.accept(ping);
+
+        JChannel channel = new JChannel(new SHARED_LOOPBACK(), ping, new MERGE3().setMinInterval(1000).setMaxInterval(3000), new NAKACK2(), new UNICAST3(), new STABLE(), new GMS());
+        channel.connect(clusterName);
+        return channel;
+    }
+}
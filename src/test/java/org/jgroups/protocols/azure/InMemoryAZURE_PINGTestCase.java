@@ -0,0 +1,1047 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import org.jgroups.Address;
+import org.jgroups.JChannel;
+import org.jgroups.View;
+import org.jgroups.protocols.MERGE3;
+import org.jgroups.protocols.PingData;
+import org.jgroups.protocols.SHARED_LOOPBACK;
+import org.jgroups.protocols.UNICAST3;
+import org.jgroups.protocols.pbcast.GMS;
+import org.jgroups.protocols.pbcast.NAKACK2;
+import org.jgroups.protocols.pbcast.STABLE;
+import org.jgroups.stack.IpAddress;
+import org.jgroups.util.ByteArray;
+import org.jgroups.util.NameCache;
+import org.jgroups.util.Responses;
+import org.jgroups.util.Util;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Functional tests for AZURE_PING behavior against an {@link InMemoryBlobService}.
+ */
+public class InMemoryAZURE_PINGTestCase {
+
+    private static final String CONTAINER = AbstractAZURE_PINGDiscoveryTestCase.DEFAULT_CONTAINER;
+
+    private final InMemoryBlobService service = new InMemoryBlobService();
+    private final List<JChannel> channels = new ArrayList<>();
+    private final String clusterName = UUID.randomUUID().toString();
+
+    @After
+    public void close() {
+        Collections.reverse(channels);
+        channels.forEach(JChannel::close);
+        channels.clear();
+    }
+
+    @Test
+    public void testLazyContainerCreation() throws Exception {
+        long latency = TimeUnit.SECONDS.toMillis(2);
+        service.latency(latency, TimeUnit.MILLISECONDS);
+
+        // Initialization must not wait for the storage service
+        long start = System.nanoTime();
+        JChannel channel = create(ping -> ping.lazy_container_creation = true);
+        Assert.assertTrue("initialization blocked on the storage service", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < latency);
+
+        service.latency(0, TimeUnit.MILLISECONDS);
+        channel.connect(clusterName);
+        create(ping -> ping.lazy_container_creation = true).connect(clusterName);
+
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        Assert.assertTrue(service.hasContainer(CONTAINER));
+    }
+
+    @Test
+    public void testLazyContainerCreationOnWrite() throws Exception {
+        // The background check fails, so the container has to be created by the first write
+        service.fault(request -> request.getHttpMethod() == HttpMethod.GET && "restype=container".equals(request.getUrl().getQuery()), 1, 403, "AuthorizationFailure");
+        create(ping -> ping.lazy_container_creation = true).connect(clusterName);
+        create(ping -> ping.lazy_container_creation = true).connect(clusterName);
+
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        Assert.assertTrue(service.hasContainer(CONTAINER));
+    }
+
+    @Test
+    public void testVirtualThreads() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            create(ping -> {
+                ping.use_virtual_threads = true;
+                ping.max_concurrent_downloads = 4;
+            }).connect(clusterName);
+        }
+
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        AZURE_PING ping = channels.get(0).getProtocolStack().findProtocol(AZURE_PING.class);
+        waitForDiscovery(ping, 3);
+
+        // Storage calls run on the protocol's own threads, virtual ones on JDK 21 or later, rather than on the calling JGroups thread
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        service.delay(request -> {
+            threads.add(Thread.currentThread().getName());
+            return false;
+        }, 0, TimeUnit.MILLISECONDS);
+        Responses responses = new Responses(false);
+        ping.readAll(null, clusterName, responses);
+        Assert.assertEquals(3, responses.size());
+        Assert.assertFalse(threads.toString(), threads.contains(Thread.currentThread().getName()));
+        Assert.assertTrue(threads.toString(), threads.stream().anyMatch(name -> name.startsWith("AZURE_PING-storage")));
+    }
+
+    @Test
+    public void testReadAllTimeout() throws Exception {
+        JChannel channel = create(ping -> {
+            ping.max_concurrent_downloads = 4;
+            ping.read_all_timeout = 500;
+            ping.ping_data_cache_size = 0;
+        });
+        channel.connect(clusterName);
+        AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+
+        // Ping data files of further members, one of which is slow to download
+        List<Address> members = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Address member = org.jgroups.util.UUID.randomUUID();
+            ByteArray bytes = ping.serialize(pingData(member, "member" + i));
+            service.put(CONTAINER, AZURE_PING.addressToFilename(clusterName, member), Arrays.copyOfRange(bytes.array(), bytes.offset(), bytes.offset() + bytes.length()));
+            members.add(member);
+        }
+        String slowFilename = AZURE_PING.addressToFilename(clusterName, members.get(0));
+        long latency = TimeUnit.SECONDS.toMillis(3);
+        service.delay(request -> isDownload(request) && request.getUrl().getPath().endsWith("/" + slowFilename), latency, TimeUnit.MILLISECONDS);
+
+        // Downloads run in parallel, and discovery returns the ping data read until the deadline
+        Responses responses = new Responses(false);
+        long start = System.nanoTime();
+        ping.readAll(null, clusterName, responses);
+        Assert.assertTrue("discovery waited for the slow download", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < latency);
+        Assert.assertEquals(4, responses.size());
+        Assert.assertFalse(responses.containsResponseFrom(members.get(0)));
+        members.subList(1, members.size()).forEach(member -> Assert.assertTrue(responses.containsResponseFrom(member)));
+        service.clearFaults();
+    }
+
+    @Test
+    public void testReadAllTimeoutOfSequentialDownloads() throws Exception {
+        JChannel channel = create(ping -> ping.read_all_timeout = 500);
+        channel.connect(clusterName);
+        AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+
+        // Ping data files of further members, one of which is slow to download
+        List<Address> members = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Address member = org.jgroups.util.UUID.randomUUID();
+            ByteArray bytes = ping.serialize(pingData(member, "member" + i));
+            service.put(CONTAINER, AZURE_PING.addressToFilename(clusterName, member), Arrays.copyOfRange(bytes.array(), bytes.offset(), bytes.offset() + bytes.length()));
+            members.add(member);
+        }
+        String slowFilename = AZURE_PING.addressToFilename(clusterName, members.get(0));
+        long latency = TimeUnit.SECONDS.toMillis(3);
+        service.delay(request -> isDownload(request) && request.getUrl().getPath().endsWith("/" + slowFilename), latency, TimeUnit.MILLISECONDS);
+
+        // Downloads run one after the other, and the slow one is cut short by the deadline rather than holding up discovery
+        Responses responses = new Responses(false);
+        long start = System.nanoTime();
+        ping.readAll(null, clusterName, responses);
+        Assert.assertTrue("discovery waited for the slow download", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < latency);
+        Assert.assertFalse(responses.containsResponseFrom(members.get(0)));
+        service.clearFaults();
+    }
+
+    @Test
+    public void testListOnlyDiscovery() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            create(ping -> {
+                ping.use_metadata = true;
+                ping.ping_data_cache_size = 0;
+            }).connect(clusterName);
+        }
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        AZURE_PING ping = channels.get(1).getProtocolStack().findProtocol(AZURE_PING.class);
+        waitForDiscovery(ping, 2);
+
+        // Ping data are read from the metadata returned by the listing, so discovery downloads no file
+        AtomicInteger downloads = new AtomicInteger();
+        service.fault(request -> isDownload(request) && downloads.incrementAndGet() > 0, 1, 500, "InternalError");
+        service.resetRequestCounts();
+        Responses responses = new Responses(false);
+        ping.readAll(null, clusterName, responses);
+        Assert.assertEquals(2, responses.size());
+        Assert.assertEquals(0, downloads.get());
+        Assert.assertEquals(1, service.getRequestCount());
+        service.clearFaults();
+    }
+
+    @Test
+    public void testBatchDelete() throws Exception {
+        JChannel channel = create(ping -> {});
+        channel.connect(clusterName);
+        AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+        String prefix = AZURE_PING.getSanitizedPrefix(clusterName);
+        for (int i = 0; i < 300; i++) {
+            service.put(CONTAINER, prefix + "stale " + i, new byte[1], OffsetDateTime.now(ZoneOffset.UTC));
+        }
+
+        // 301 files are deleted with two batch requests
+        AtomicInteger batches = new AtomicInteger();
+        AtomicInteger deletes = new AtomicInteger();
+        service.fault(request -> count(request, batches, deletes), 1, 500, "InternalError");
+        ping.removeAll(clusterName);
+        Assert.assertEquals(0, service.count(CONTAINER, prefix));
+        Assert.assertEquals(2, batches.get());
+        Assert.assertEquals(0, deletes.get());
+        Assert.assertEquals(0, ping.metrics.get(StorageMetrics.Operation.REMOVE_ALL).errors());
+        service.clearFaults();
+    }
+
+    @Test
+    public void testBatchDeleteFallback() throws Exception {
+        JChannel channel = create(ping -> {});
+        channel.connect(clusterName);
+        AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+        String prefix = AZURE_PING.getSanitizedPrefix(clusterName);
+        for (int i = 0; i < 10; i++) {
+            service.put(CONTAINER, prefix + "stale " + i, new byte[1], OffsetDateTime.now(ZoneOffset.UTC));
+        }
+
+        // A rejected batch request makes the files be deleted one by one
+        AtomicInteger batches = new AtomicInteger();
+        AtomicInteger deletes = new AtomicInteger();
+        service.fault(request -> count(request, batches, deletes), 1, 500, "InternalError");
+        service.fault(InMemoryAZURE_PINGTestCase::isBatch, 1, 400, "InvalidInput");
+        ping.removeAll(clusterName);
+        Assert.assertEquals(0, service.count(CONTAINER, prefix));
+        Assert.assertEquals(1, batches.get());
+        Assert.assertEquals(11, deletes.get());
+        service.clearFaults();
+    }
+
+    @Test
+    public void testMaintenanceLease() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            create(ping -> {
+                ping.use_maintenance_lease = true;
+                ping.maintenance_lease_duration = 15_000;
+            }).connect(clusterName);
+        }
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        AZURE_PING coordinator = channels.get(0).getProtocolStack().findProtocol(AZURE_PING.class);
+        AZURE_PING member = channels.get(1).getProtocolStack().findProtocol(AZURE_PING.class);
+        String stale = AZURE_PING.getSanitizedPrefix(clusterName) + "stale";
+        coordinator.removeAll(clusterName);
+        service.put(CONTAINER, stale, new byte[1]);
+
+        // The other member skips maintenance while the lease is held, without blocking the protocol during the slow lease request
+        AtomicInteger leaseRequests = new AtomicInteger();
+        service.delay(request -> "lease".equals(InMemoryBlobService.parseQuery(request.getUrl().getQuery()).get("comp")) && leaseRequests.incrementAndGet() > 0,
+                2, TimeUnit.SECONDS);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> removal = executor.submit(() -> member.removeAll(clusterName));
+            Util.waitUntil(10_000, 10, () -> leaseRequests.get() > 0);
+            CompletableFuture.runAsync(() -> {
+                synchronized (member) {
+                    Assert.assertFalse(removal.isDone());
+                }
+            }).get(1, TimeUnit.SECONDS);
+            removal.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        service.clearFaults();
+        Assert.assertEquals(1, service.count(CONTAINER, stale));
+
+        // The lease is released when the coordinator leaves, so that the new coordinator takes over
+        channels.remove(0).close();
+        member.removeAll(clusterName);
+        Assert.assertEquals(0, service.count(CONTAINER, stale));
+    }
+
+    @Test
+    public void testMaintenanceLeaseReleasedOffViewThread() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            create(ping -> {
+                ping.use_maintenance_lease = true;
+                ping.maintenance_lease_duration = 15_000;
+            }).connect(clusterName);
+        }
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        AZURE_PING coordinator = channels.get(0).getProtocolStack().findProtocol(AZURE_PING.class);
+        AZURE_PING member = channels.get(1).getProtocolStack().findProtocol(AZURE_PING.class);
+        String stale = AZURE_PING.getSanitizedPrefix(clusterName) + "stale";
+
+        // The other member holds the lease, e.g. as coordinator of a merged subgroup
+        member.removeAll(clusterName);
+        service.put(CONTAINER, stale, new byte[1]);
+
+        // A view change releases it without the slow lease request blocking the thread handling the view
+        long latency = TimeUnit.SECONDS.toMillis(2);
+        service.delay(request -> "lease".equals(InMemoryBlobService.parseQuery(request.getUrl().getQuery()).get("comp")), latency, TimeUnit.MILLISECONDS);
+        View view = channels.get(1).getView();
+        long start = System.nanoTime();
+        member.handleView(view, view, false);
+        Assert.assertTrue("the view change waited for the lease request", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < latency);
+        service.clearFaults();
+
+        // Once released, the coordinator takes over
+        Util.waitUntil(10_000, 100, () -> {
+            coordinator.removeAll(clusterName);
+            return service.count(CONTAINER, stale) == 0;
+        });
+    }
+
+    @Test
+    public void testAggregateBlobClockSkew() throws Exception {
+        // The clock of this member is an hour ahead of the service
+        service.clockOffset(Duration.ofHours(-1));
+        JChannel channel = create(ping -> ping.use_aggregate_blob = true);
+        channel.connect(clusterName);
+        AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+        String aggregate = AZURE_PING.aggregateFilename(clusterName);
+        Assert.assertEquals(1, service.count(CONTAINER, aggregate));
+
+        // The fresh aggregate blob is used without listing the ping data files
+        AtomicInteger listings = new AtomicInteger();
+        service.fault(request -> isListing(request) && listings.incrementAndGet() < 0, 1, 500, "InternalError");
+        Responses responses = new Responses(false);
+        ping.readAll(null, clusterName, responses);
+        Assert.assertEquals(1, responses.size());
+        Assert.assertEquals(0, listings.get());
+
+        // The clock of this member is an hour behind the service, which wrote the aggregate blob two minutes ago
+        service.clockOffset(Duration.ofHours(1));
+        service.put(CONTAINER, aggregate, service.get(CONTAINER, aggregate), OffsetDateTime.now(ZoneOffset.UTC).plusHours(1).minusMinutes(2));
+        responses = new Responses(false);
+        ping.readAll(null, clusterName, responses);
+        Assert.assertEquals(1, responses.size());
+        Assert.assertEquals(1, listings.get());
+        service.clearFaults();
+    }
+
+    @Test
+    public void testStorageCallTimeout() throws Exception {
+        JChannel channel = create(ping -> {
+            ping.use_virtual_threads = true;
+            ping.storage_call_timeout = 200;
+        });
+        channel.connect(clusterName);
+        AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+
+        long latency = TimeUnit.SECONDS.toMillis(2);
+        service.latency(latency, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        ping.remove(clusterName, channel.getAddress());
+        Assert.assertTrue("caller waited for the storage call", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < latency);
+        Assert.assertEquals(1, ping.metrics.get(StorageMetrics.Operation.REMOVE).errors());
+        service.latency(0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testAbandonedReadAll() throws Exception {
+        JChannel channel = create(ping -> {
+            ping.use_virtual_threads = true;
+            ping.storage_call_timeout = 500;
+            ping.ping_data_cache_size = 0;
+            ping.use_metadata = true;
+        });
+        channel.connect(clusterName);
+        AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+        // Listed first and without metadata, so that it needs to be downloaded before the file of the member is read from its metadata
+        ByteArray bytes = ping.serialize(pingData(org.jgroups.util.UUID.randomUUID(), "other"));
+        service.put(CONTAINER, AZURE_PING.getSanitizedPrefix(clusterName) + "-other", bytes.copy().array());
+
+        // A read abandoned on timeout adds no responses, not even those read after the timeout
+        service.delay(InMemoryAZURE_PINGTestCase::isDownload, 1, TimeUnit.SECONDS);
+        Responses responses = new Responses(false);
+        ping.readAll(null, clusterName, responses);
+        Assert.assertEquals(0, responses.size());
+        Thread.sleep(1500);
+        Assert.assertEquals(0, responses.size());
+        service.clearFaults();
+    }
+
+    @Test
+    public void testStatisticsDisabled() throws Exception {
+        JChannel channel = create(ping -> ping.enableStats(false));
+        channel.connect(clusterName);
+        AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+
+        service.resetRequestCounts();
+        ping.readAll(null, clusterName, new Responses(false));
+        Assert.assertTrue(service.getRequestCount() > 0);
+        Assert.assertEquals(0, ping.getStorageRequests());
+        Assert.assertEquals(0, ping.getStorageBytesReceived());
+
+        ping.enableStats(true);
+        ping.readAll(null, clusterName, new Responses(false));
+        Assert.assertTrue(ping.getStorageRequests() > 0);
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            create(ping -> {
+                ping.snapshot_refresh_interval = 500;
+                ping.snapshot_max_staleness = 10_000;
+            }).connect(clusterName);
+        }
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        // Let the background task pick up all members
+        AZURE_PING ping = channels.get(0).getProtocolStack().findProtocol(AZURE_PING.class);
+        waitForDiscovery(ping, 3);
+
+        // Discovery is answered from memory while the storage service is slow
+        long latency = TimeUnit.SECONDS.toMillis(2);
+        service.latency(latency, TimeUnit.MILLISECONDS);
+        Responses responses = new Responses(false);
+        long start = System.nanoTime();
+        ping.readAll(null, clusterName, responses);
+        Assert.assertTrue("discovery waited for the storage service", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < latency);
+        Assert.assertEquals(3, responses.size());
+        Assert.assertTrue(ping.snapshotHits.sum() > 0);
+        service.latency(0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testExpiredPingData() throws Exception {
+        // Ping data file left behind by a crashed member an hour ago
+        Address crashed = org.jgroups.util.UUID.randomUUID();
+        PingData data = new PingData(crashed, false, "crashed", new IpAddress("127.0.0.1", 7800));
+        ByteArray bytes = new AZURE_PING().serialize(List.of(data));
+        service.put(CONTAINER, AZURE_PING.addressToFilename(clusterName, crashed), Arrays.copyOfRange(bytes.array(), bytes.offset(), bytes.offset() + bytes.length()),
+                OffsetDateTime.now(ZoneOffset.UTC).minusHours(1));
+
+        JChannel channel = create(ping -> {
+            ping.ping_data_ttl = 3000;
+            ping.remove_expired_ping_data = true;
+        });
+        channel.connect(clusterName);
+        AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+        Assert.assertTrue(ping.skippedExpiredFiles.sum() > 0);
+
+        // The janitor deletes the expired file, while the file of the live member is rewritten before it expires
+        Util.waitUntil(10_000, 100, () -> service.count(CONTAINER, AZURE_PING.getSanitizedPrefix(clusterName)) == 1);
+        Thread.sleep(4000);
+        Responses responses = new Responses(false);
+        ping.readAll(null, clusterName, responses);
+        Assert.assertTrue(responses.containsResponseFrom(channel.getAddress()));
+        Assert.assertFalse(responses.containsResponseFrom(crashed));
+    }
+
+    @Test
+    public void testRemovedPingDataIsNotRefreshed() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            create(ping -> ping.ping_data_ttl = 1500).connect(clusterName);
+        }
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        String oldCoordinator = AZURE_PING.addressToFilename(clusterName, channels.get(0).getAddress());
+        Util.waitUntil(10_000, 100, () -> service.get(CONTAINER, oldCoordinator) != null);
+
+        // The coordinator leaves, and the new coordinator writes the ping data of the remaining members
+        channels.remove(0).close();
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        JChannel coordinator = channels.get(0);
+        String filename = AZURE_PING.addressToFilename(clusterName, coordinator.getAddress());
+        Util.waitUntil(10_000, 100, () -> service.get(CONTAINER, filename) != null);
+
+        // A member which is no longer the coordinator removes its file, which its refresher must not rewrite with its stale ping data
+        AZURE_PING ping = coordinator.getProtocolStack().findProtocol(AZURE_PING.class);
+        ping.remove(clusterName, coordinator.getAddress());
+        Thread.sleep(1500);
+        Assert.assertNull(service.get(CONTAINER, filename));
+        Assert.assertNull(service.get(CONTAINER, oldCoordinator));
+    }
+
+    @Test
+    public void testSkippedWritesDoNotDelayRefresh() throws Exception {
+        JChannel channel = create(ping -> {
+            ping.ping_data_ttl = 1500;
+            ping.skip_unchanged_writes = true;
+            ping.use_membership_log = true;
+        });
+        channel.connect(clusterName);
+        AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+        String logFilename = AZURE_PING.logFilename(clusterName);
+        Util.waitUntil(10_000, 100, () -> service.get(CONTAINER, logFilename) != null);
+        // Ping data written on connecting may still change, e.g. once the view is installed
+        ping.writeInfo();
+        int logSize = service.get(CONTAINER, logFilename).length;
+
+        // Unchanged ping data written over several TTLs are skipped, but the file is still refreshed before it expires
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(4000);
+        while (System.nanoTime() - deadline < 0) {
+            ping.writeInfo();
+            Thread.sleep(100);
+        }
+        Assert.assertTrue(ping.skippedWrites.sum() > 0);
+        Responses responses = new Responses(false);
+        ping.readAll(null, clusterName, responses);
+        Assert.assertTrue(responses.containsResponseFrom(channel.getAddress()));
+        // Refreshing the file is no membership change
+        Assert.assertEquals(logSize, service.get(CONTAINER, logFilename).length);
+    }
+
+    @Test
+    public void testHedgedReads() throws Exception {
+        create(ping -> {}).connect(clusterName);
+        JChannel channel = create(ping -> {
+            ping.ping_data_cache_size = 0;
+            ping.hedged_read_percentile = 50;
+            ping.hedged_read_min_delay = 100;
+        });
+        channel.connect(clusterName);
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+        waitForDiscovery(ping, 2);
+
+        // Only the first download is slow, so that the hedged request answers
+        long latency = TimeUnit.SECONDS.toMillis(3);
+        AtomicBoolean first = new AtomicBoolean(true);
+        service.delay(request -> isDownload(request) && first.getAndSet(false), latency, TimeUnit.MILLISECONDS);
+        Responses responses = new Responses(false);
+        long start = System.nanoTime();
+        ping.readAll(null, clusterName, responses);
+        Assert.assertTrue("discovery waited for the slow download", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < latency);
+        Assert.assertEquals(2, responses.size());
+        Assert.assertEquals(1, ping.hedgedReads.sum());
+        Assert.assertEquals(1, ping.hedgedReadWins.sum());
+        // The losing primary download is cancelled rather than left to complete, and recorded with the time it ran
+        Util.waitUntil(1_000, 10, () -> ping.downloadLatency.max() >= TimeUnit.MILLISECONDS.toMicros(ping.hedged_read_min_delay));
+        Assert.assertTrue(ping.downloadLatency.max() < TimeUnit.MILLISECONDS.toMicros(latency));
+        service.clearFaults();
+    }
+
+    @Test
+    public void testGetTimeout() throws Exception {
+        JChannel channel = create(ping -> {
+            ping.ping_data_cache_size = 0;
+            ping.get_timeout = 200;
+        });
+        channel.connect(clusterName);
+
+        long latency = TimeUnit.SECONDS.toMillis(3);
+        service.delay(InMemoryAZURE_PINGTestCase::isDownload, latency, TimeUnit.MILLISECONDS);
+        AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+        long start = System.nanoTime();
+        ping.readAll(null, clusterName, new Responses(false));
+        Assert.assertTrue("download did not time out", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < latency);
+    }
+
+    @Test
+    public void testRetries() throws Exception {
+        // The first download of each file fails
+        Set<String> downloaded = ConcurrentHashMap.newKeySet();
+        service.fault(request -> isDownload(request) && downloaded.add(request.getUrl().toString()), 1, 503, "ServerBusy");
+        for (int i = 0; i < 3; i++) {
+            create(ping -> {
+                ping.ping_data_cache_size = 0;
+                ping.max_retries = 3;
+                ping.retry_delay = 10;
+                ping.max_retry_delay = 50;
+            }).connect(clusterName);
+        }
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+
+        waitForDiscovery(channels.get(2).getProtocolStack().findProtocol(AZURE_PING.class), 3);
+        // Whichever member downloaded a file first had to retry
+        long retries = channels.stream().mapToLong(channel -> channel.getProtocolStack().<AZURE_PING>findProtocol(AZURE_PING.class).getStorageRetries()).sum();
+        Assert.assertTrue(retries > 0);
+    }
+
+    @Test
+    public void testLocalSnapshot() throws Exception {
+        Path file = Files.createTempFile("azure-ping", ".snapshot");
+        try {
+            create(ping -> {}).connect(clusterName);
+            JChannel channel = create(ping -> {
+                ping.local_snapshot_file = file.toString();
+                ping.circuit_breaker_threshold = 2;
+                ping.max_retries = 0;
+            });
+            channel.connect(clusterName);
+            Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+            AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+            waitForDiscovery(ping, 2);
+
+            // Storage outage
+            service.fault(request -> true, 1, 503, "ServerBusy");
+            for (int i = 0; i < 3; i++) {
+                Responses responses = new Responses(false);
+                ping.readAll(null, clusterName, responses);
+                Assert.assertEquals(2, responses.size());
+            }
+            Assert.assertTrue(ping.isCircuitBreakerOpen());
+            Assert.assertEquals(3, ping.localSnapshotReads.sum());
+
+            // The open circuit breaker suspends reading the storage service
+            long requests = service.getRequestCount();
+            ping.readAll(null, clusterName, new Responses(false));
+            Assert.assertEquals(requests, service.getRequestCount());
+        } finally {
+            service.clearFaults();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testLocalSnapshotSeedsInitialDiscovery() throws Exception {
+        Path file = Files.createTempFile("azure-ping", ".snapshot");
+        try {
+            create(ping -> {}).connect(clusterName);
+            // Member known from before a restart, which is not in the storage service
+            Address known = org.jgroups.util.UUID.randomUUID();
+            ByteArray bytes = new AZURE_PING().serialize(List.of(new PingData(known, true, "known", new IpAddress("127.0.0.1", 7800))));
+            Files.writeString(file, clusterName + '\n');
+            Files.write(file, bytes.copy().array(), StandardOpenOption.APPEND);
+
+            // The initial discovery of the restarting member adds the known member to the discovery caches
+            JChannel channel = create(ping -> ping.local_snapshot_file = file.toString());
+            channel.connect(clusterName);
+            Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+            AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+            Assert.assertEquals(1, ping.localSnapshotReads.sum());
+            Assert.assertEquals("known", NameCache.get(known));
+
+            // Only the initial discovery is seeded
+            Responses responses = new Responses(false);
+            ping.findMembers(null, false, responses);
+            Assert.assertFalse(responses.containsResponseFrom(known));
+            Assert.assertEquals(1, ping.localSnapshotReads.sum());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testSkipUnchangedWrites() throws Exception {
+        JChannel channel = create(ping -> ping.skip_unchanged_writes = true);
+        channel.connect(clusterName);
+        AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+        String filename = AZURE_PING.addressToFilename(clusterName, channel.getAddress());
+        Util.waitUntil(10_000, 100, () -> service.count(CONTAINER, filename) == 1);
+
+        List<PingData> list = pingData(channel.getAddress(), "written");
+        ping.write(list, clusterName);
+        byte[] written = service.get(CONTAINER, filename);
+
+        // Unchanged ping data are not uploaded again
+        long skipped = ping.skippedWrites.sum();
+        service.resetRequestCounts();
+        ping.write(list, clusterName);
+        Assert.assertEquals(0, service.getRequestCount());
+        Assert.assertEquals(skipped + 1, ping.skippedWrites.sum());
+        Assert.assertArrayEquals(written, service.get(CONTAINER, filename));
+
+        // Changed ping data do not overwrite a file modified elsewhere since the last upload
+        ByteArray other = ping.serialize(pingData(channel.getAddress(), "modified"));
+        byte[] modified = Arrays.copyOfRange(other.array(), other.offset(), other.offset() + other.length());
+        service.put(CONTAINER, filename, modified);
+        ping.write(pingData(channel.getAddress(), "changed"), clusterName);
+        Assert.assertArrayEquals(modified, service.get(CONTAINER, filename));
+
+        // The upload was forgotten, so the next write overwrites the file, and a file removed since is recreated
+        ping.write(list, clusterName);
+        Assert.assertArrayEquals(written, service.get(CONTAINER, filename));
+        service.remove(CONTAINER, filename);
+        ByteArray recreated = ping.serialize(pingData(channel.getAddress(), "recreated"));
+        ping.write(pingData(channel.getAddress(), "recreated"), clusterName);
+        Assert.assertArrayEquals(Arrays.copyOfRange(recreated.array(), recreated.offset(), recreated.offset() + recreated.length()), service.get(CONTAINER, filename));
+    }
+
+    @Test
+    public void testAsyncWrites() throws Exception {
+        JChannel channel = create(ping -> {
+            ping.async_writes = true;
+            ping.skip_unchanged_writes = false;
+        });
+        channel.connect(clusterName);
+        Util.waitUntil(10_000, 100, () -> service.count(CONTAINER, clusterName) == 1);
+        AZURE_PING ping = channel.getProtocolStack().findProtocol(AZURE_PING.class);
+
+        // Writers do not wait for the storage service, and updates submitted meanwhile replace each other
+        long latency = TimeUnit.SECONDS.toMillis(1);
+        service.delay(request -> request.getHttpMethod() == HttpMethod.PUT, latency, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            ping.writeInfo();
+        }
+        Assert.assertTrue("writer waited for the storage service", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < latency);
+        Assert.assertTrue(ping.coalescedWrites.sum() >= 3);
+
+        // Pending uploads complete before the file is removed, so that they cannot recreate it
+        ping.remove(clusterName, channel.getAddress());
+        Assert.assertEquals(0, service.count(CONTAINER, clusterName));
+        service.clearFaults();
+    }
+
+    @Test
+    public void testReplicas() throws Exception {
+        String replicaAccount = "replica1";
+        String replicaConnectionString = String.format("DefaultEndpointsProtocol=http;AccountName=%s;AccountKey=%s;BlobEndpoint=http://127.0.0.1:10000/%s",
+                replicaAccount, InMemoryBlobService.ACCOUNT_KEY, replicaAccount);
+        InMemoryBlobService replica = new InMemoryBlobService();
+        HttpClient router = request -> (request.getUrl().getPath().startsWith("/" + replicaAccount + "/") ? replica : service).send(request);
+        for (int i = 0; i < 2; i++) {
+            create(ping -> {
+                ping.httpClient = router;
+                ping.replica_connection_strings = replicaConnectionString;
+                ping.read_quorum = 2;
+                ping.max_retries = 0;
+            }).connect(clusterName);
+        }
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        AZURE_PING ping = channels.get(1).getProtocolStack().findProtocol(AZURE_PING.class);
+        waitForDiscovery(ping, 2);
+        String prefix = AZURE_PING.getSanitizedPrefix(clusterName);
+        Assert.assertEquals(service.count(CONTAINER, prefix), replica.count(CONTAINER, prefix));
+
+        // Ping data held by a single storage account only are merged by the read quorum
+        Address other = org.jgroups.util.UUID.randomUUID();
+        ByteArray bytes = new AZURE_PING().serialize(List.of(new PingData(other, false, "other", new IpAddress("127.0.0.1", 7800))));
+        replica.put(CONTAINER, AZURE_PING.addressToFilename(clusterName, other), Arrays.copyOfRange(bytes.array(), bytes.offset(), bytes.offset() + bytes.length()));
+        Responses responses = new Responses(false);
+        ping.readAll(null, clusterName, responses);
+        Assert.assertEquals(3, responses.size());
+
+        // Discovery is answered by the replica while the storage account configured first is unavailable, which is then read last
+        service.fault(request -> true, 1, 503, "ServerBusy");
+        responses = new Responses(false);
+        ping.readAll(null, clusterName, responses);
+        Assert.assertEquals(3, responses.size());
+        Assert.assertTrue(ping.getStorageAccounts(), ping.getStorageAccounts().startsWith("[" + replicaAccount));
+        service.clearFaults();
+
+        // Removals are replicated as well, leaving only the file of the other member behind
+        close();
+        Assert.assertEquals(0, service.count(CONTAINER, prefix));
+        Assert.assertEquals(1, replica.count(CONTAINER, prefix));
+    }
+
+    @Test
+    public void testNotifications() throws Exception {
+        InMemoryQueueService queues = new InMemoryQueueService();
+        HttpClient router = request -> (request.getUrl().getPort() == 10001 ? queues : service).send(request);
+        Consumer<AZURE_PING> configurator = ping -> {
+            ping.httpClient = router;
+            ping.connection_string = InMemoryBlobService.CONNECTION_STRING + ";QueueEndpoint=" + InMemoryQueueService.ENDPOINT;
+            ping.use_notification_queue = true;
+            ping.notification_poll_interval = 100;
+            // Full reads are only a rare consistency check
+            ping.snapshot_refresh_interval = 60_000;
+            ping.snapshot_max_staleness = 60_000;
+        };
+        create(configurator).connect(clusterName);
+        create(configurator).connect(clusterName);
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        AZURE_PING ping = channels.get(1).getProtocolStack().findProtocol(AZURE_PING.class);
+        waitForDiscovery(ping, 2);
+        Assert.assertTrue(queues.hasQueue(queueName(channels.get(1))));
+
+        // A joining member is learned from the change event of the coordinator, without reading the ping data files.
+        // Like a crashed member, it does not delete its own queue when it leaves
+        long reads = ping.metrics.get(StorageMetrics.Operation.READ_ALL).count();
+        InMemoryQueueService elsewhere = new InMemoryQueueService();
+        HttpClient crashing = request -> (request.getUrl().getPort() == 10001 && request.getHttpMethod() == HttpMethod.DELETE ? elsewhere : router).send(request);
+        JChannel joiner = create(configurator.andThen(joining -> joining.httpClient = crashing));
+        joiner.connect(clusterName);
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        waitForDiscovery(ping, 3);
+        Assert.assertTrue(ping.notificationEvents.sum() > 0);
+
+        // So is a leaving member from the removal of its ping data file
+        String joinerQueue = queueName(joiner);
+        channels.remove(joiner);
+        joiner.close();
+        Util.waitUntil(10_000, 100, () -> {
+            Responses responses = new Responses(false);
+            ping.readAll(null, clusterName, responses);
+            return responses.size() == 2;
+        });
+        Assert.assertEquals(reads, ping.metrics.get(StorageMetrics.Operation.READ_ALL).count());
+        // The coordinator deletes the queue of the member which left
+        Util.waitUntil(10_000, 100, () -> !queues.hasQueue(joinerQueue),
+                () -> "the queue of a member which left was not deleted");
+    }
+
+    @Test
+    public void testMembershipLog() throws Exception {
+        Consumer<AZURE_PING> configurator = ping -> {
+            ping.use_membership_log = true;
+            ping.membership_log_compaction_interval = 100;
+        };
+        // Requests of the coordinator, which keeps checking whether the log needs compaction, are not counted
+        AtomicLong requests = new AtomicLong();
+        create(configurator).connect(clusterName);
+        create(configurator.andThen(ping -> ping.httpClient = request -> {
+            requests.incrementAndGet();
+            return service.send(request);
+        })).connect(clusterName);
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        AZURE_PING ping = channels.get(1).getProtocolStack().findProtocol(AZURE_PING.class);
+        waitForDiscovery(ping, 2);
+        Util.waitUntil(10_000, 100, () -> {
+            long logReads = ping.membershipLogReads.sum();
+            Responses responses = new Responses(false);
+            ping.readAll(null, clusterName, responses);
+            return ping.membershipLogReads.sum() > logReads && responses.size() == 2;
+        });
+        AZURE_PING coordinator = channels.get(0).getProtocolStack().findProtocol(AZURE_PING.class);
+        Assert.assertTrue(coordinator.membershipLogCompactions.sum() > 0);
+
+        // Discovery reads the tail of the log in a single request, regardless of the number of ping data files
+        requests.set(0);
+        Responses responses = new Responses(false);
+        ping.readAll(null, clusterName, responses);
+        Assert.assertEquals(2, responses.size());
+        Assert.assertEquals(1, requests.get());
+
+        // Joining and leaving members are appended to the log
+        JChannel joiner = create(configurator);
+        joiner.connect(clusterName);
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        waitForDiscovery(ping, 3);
+        channels.remove(joiner);
+        joiner.close();
+        Util.waitUntil(10_000, 100, () -> {
+            Responses remaining = new Responses(false);
+            ping.readAll(null, clusterName, remaining);
+            return remaining.size() == 2;
+        });
+    }
+
+    @Test
+    public void testCoalescedReads() throws Exception {
+        create(ping -> ping.coalesce_reads = true).connect(clusterName);
+        create(ping -> ping.coalesce_reads = true).connect(clusterName);
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        List<AZURE_PING> pings = channels.stream().map(channel -> channel.getProtocolStack().<AZURE_PING>findProtocol(AZURE_PING.class)).toList();
+        waitForDiscovery(pings.get(0), 2);
+        pings.forEach(ping -> ping.read_reuse_window = 60_000);
+
+        // Reads of all channels in flight at once, and those shortly after, share a single read
+        AtomicInteger listings = new AtomicInteger();
+        service.fault(request -> isListing(request) && listings.incrementAndGet() < 0, 1, 500, "InternalError");
+        long coalesced = pings.stream().mapToLong(ping -> ping.coalescedReads.sum()).sum();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                AZURE_PING ping = pings.get(i % pings.size());
+                results.add(executor.submit(() -> {
+                    Responses responses = new Responses(false);
+                    ping.readAll(null, clusterName, responses);
+                    return responses.size();
+                }));
+            }
+            for (Future<Integer> result : results) {
+                Assert.assertEquals(2, result.get(10, TimeUnit.SECONDS).intValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Responses responses = new Responses(false);
+        pings.get(1).readAll(null, clusterName, responses);
+        Assert.assertEquals(2, responses.size());
+        Assert.assertEquals(coalesced + 8, pings.stream().mapToLong(ping -> ping.coalescedReads.sum()).sum());
+        // A single listing; background writes of the members are not counted
+        Assert.assertEquals(1, listings.get());
+        service.clearFaults();
+    }
+
+    @Test
+    public void testZoneAwareDiscovery() throws Exception {
+        create(ping -> {
+            ping.zone_aware = true;
+            ping.region = "westeurope";
+            ping.zone = "westeurope-1";
+        }).connect(clusterName);
+        create(ping -> {
+            ping.zone_aware = true;
+            ping.region = "westeurope";
+            ping.zone = "westeurope-2";
+        }).connect(clusterName);
+        // The placement of the last member is queried from the instance metadata service, in the background
+        HttpClient instanceMetadata = PlacementTest.instanceMetadata(200, "{\"location\":\"westeurope\",\"zone\":\"2\"}");
+        create(ping -> {
+            ping.zone_aware = true;
+            ping.httpClient = request -> ("169.254.169.254".equals(request.getUrl().getHost()) ? instanceMetadata : service).send(request);
+        }).connect(clusterName);
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        AZURE_PING ping = channels.get(2).getProtocolStack().findProtocol(AZURE_PING.class);
+        Util.waitUntil(10_000, 100, () -> "westeurope/westeurope-2".equals(ping.getPlacement()));
+        waitForDiscovery(ping, 3);
+
+        // Members in the same zone come first, with their placements read from the metadata listed with the ping data files of the members
+        Set<Address> sameZone = Set.of(channels.get(1).getAddress(), channels.get(2).getAddress());
+        AtomicInteger listings = new AtomicInteger();
+        service.fault(request -> isListing(request) && listings.incrementAndGet() < 0, 1, 500, "InternalError");
+        Util.waitUntil(10_000, 100, () -> {
+            listings.set(0);
+            Responses responses = new Responses(false);
+            ping.readAll(null, clusterName, responses);
+            List<Address> addresses = new ArrayList<>();
+            responses.forEach(data -> addresses.add(data.getAddress()));
+            return addresses.size() == 3 && sameZone.equals(Set.copyOf(addresses.subList(0, 2)));
+        });
+        Assert.assertEquals(1, listings.get());
+        service.clearFaults();
+
+        // Every member keeps its own ping data file, and no other blobs, which a member leaving removes
+        String filename = AZURE_PING.addressToFilename(clusterName, channels.get(2).getAddress());
+        Assert.assertEquals(1, service.count(CONTAINER, filename));
+        Assert.assertEquals(3, service.count(CONTAINER, clusterName));
+        channels.remove(2).close();
+        Util.waitUntil(10_000, 100, () -> service.count(CONTAINER, filename) == 0);
+    }
+
+    @Test
+    public void testZoneAwarePlacementsSurviveRemoveAll() throws Exception {
+        create(ping -> {
+            ping.zone_aware = true;
+            ping.region = "westeurope";
+            ping.zone = "westeurope-1";
+        }).connect(clusterName);
+        create(ping -> {
+            ping.zone_aware = true;
+            ping.region = "westeurope";
+            ping.zone = "westeurope-2";
+        }).connect(clusterName);
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        String filename = AZURE_PING.addressToFilename(clusterName, channels.get(1).getAddress());
+        Util.waitUntil(10_000, 100, () -> service.count(CONTAINER, filename) == 1);
+
+        // The coordinator removes all ping data files, as with remove_all_data_on_view_change, and with them the placement of the other member
+        AZURE_PING coordinator = channels.get(0).getProtocolStack().findProtocol(AZURE_PING.class);
+        coordinator.removeAll(clusterName);
+        coordinator.writeInfo();
+        Assert.assertEquals(0, service.count(CONTAINER, filename));
+
+        // The other member rewrites its file on the next view change, so that a joining member still learns its placement
+        create(ping -> {
+            ping.zone_aware = true;
+            ping.region = "westeurope";
+            ping.zone = "westeurope-2";
+        }).connect(clusterName);
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        Util.waitUntil(10_000, 100, () -> service.count(CONTAINER, filename) == 1);
+        AZURE_PING ping = channels.get(2).getProtocolStack().findProtocol(AZURE_PING.class);
+        waitForDiscovery(ping, 3);
+        Set<Address> sameZone = Set.of(channels.get(1).getAddress(), channels.get(2).getAddress());
+        Util.waitUntil(10_000, 100, () -> {
+            Responses responses = new Responses(false);
+            ping.readAll(null, clusterName, responses);
+            List<Address> addresses = new ArrayList<>();
+            responses.forEach(data -> addresses.add(data.getAddress()));
+            return addresses.size() == 3 && sameZone.equals(Set.copyOf(addresses.subList(0, 2)));
+        });
+    }
+
+    /**
+     * Waits until discovery finds the given number of members, i.e. until the coordinator wrote the ping data of all of them.
+     * The coordinator is asked to rewrite its file while waiting, since it may have handled the last view change before it learned the
+     * physical address of the joining member.
+     */
+    private void waitForDiscovery(final AZURE_PING ping, final int count) throws TimeoutException {
+        Util.waitUntil(10_000, 100, () -> {
+            Responses responses = new Responses(false);
+            ping.readAll(null, clusterName, responses);
+            if (responses.size() == count) {
+                return true;
+            }
+            channels.stream().filter(channel -> channel.getAddress() != null && channel.getAddress().equals(channel.getView().getCoord()))
+                    .forEach(channel -> channel.getProtocolStack().<AZURE_PING>findProtocol(AZURE_PING.class).writeInfo());
+            return false;
+        });
+    }
+
+    private String queueName(final JChannel channel) {
+        return NotificationQueue.queueName(CONTAINER, clusterName, ((org.jgroups.util.UUID) channel.getAddress()).toStringLong());
+    }
+
+    private static List<PingData> pingData(final Address address, final String name) throws Exception {
+        return List.of(new PingData(address, true, name, new IpAddress("127.0.0.1", 7800)).coord(true));
+    }
+
+    private static boolean isDownload(final HttpRequest request) {
+        return request.getHttpMethod() == HttpMethod.GET && request.getUrl().getQuery() == null;
+    }
+
+    private static boolean isListing(final HttpRequest request) {
+        return request.getHttpMethod() == HttpMethod.GET && "list".equals(InMemoryBlobService.parseQuery(request.getUrl().getQuery()).get("comp"));
+    }
+
+    private static boolean isBatch(final HttpRequest request) {
+        return request.getHttpMethod() == HttpMethod.POST && "batch".equals(InMemoryBlobService.parseQuery(request.getUrl().getQuery()).get("comp"));
+    }
+
+    /**
+     * Counts batch and single delete requests without failing them.
+     */
+    private static boolean count(final HttpRequest request, final AtomicInteger batches, final AtomicInteger deletes) {
+        if (isBatch(request)) {
+            batches.incrementAndGet();
+        } else if (request.getHttpMethod() == HttpMethod.DELETE) {
+            deletes.incrementAndGet();
+        }
+        return false;
+    }
+
+    protected JChannel create(final Consumer<AZURE_PING> configurator) throws Exception {
+        AZURE_PING ping = new AZURE_PING();
+        ping.httpClient = service;
+        ping.connection_string = InMemoryBlobService.CONNECTION_STRING;
+        ping.container = CONTAINER;
+        configurator.accept(ping);
+
+        JChannel channel = new JChannel(new SHARED_LOOPBACK(), ping, new MERGE3().setMinInterval(1000).setMaxInterval(3000), new NAKACK2(), new UNICAST3(), new STABLE(), new GMS());
+        channels.add(channel);
+        return channel;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.azure.core.http.HttpMethod;
+import org.jgroups.JChannel;
+import org.jgroups.protocols.MERGE3;
+import org.jgroups.protocols.SHARED_LOOPBACK;
+import org.jgroups.protocols.UNICAST3;
+import org.jgroups.protocols.pbcast.GMS;
+import org.jgroups.protocols.pbcast.NAKACK2;
+import org.jgroups.protocols.pbcast.STABLE;
+import org.jgroups.util.Util;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Functional tests for AZURE_TABLE_PING behavior against an {@link InMemoryTableService}.
+ */
+public class InMemoryAZURE_TABLE_PINGTestCase {
+
+    private static final String TABLE = AzuriteAZURE_TABLE_PINGDiscoveryTestCase.DEFAULT_TABLE;
+
+    private final InMemoryTableService service = new InMemoryTableService();
+    private final List<JChannel> channels = new ArrayList<>();
+    private final String clusterName = UUID.randomUUID().toString();
+
+    @After
+    public void close() {
+        Collections.reverse(channels);
+        channels.forEach(JChannel::close);
+        channels.clear();
+    }
+
+    @Test
+    public void testDiscovery() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            create(ping -> {}).connect(clusterName);
+        }
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+
+        // The coordinator writes the rows of all members
+        String coordinator = AZURE_TABLE_PING.rowKey(channels.get(0).getAddress());
+        waitForRows(() -> rows().size() == 3 && rows().values().stream().allMatch(row -> coordinator.equals(row.get("Writer"))));
+        Assert.assertEquals(rowKeys(channels), rows().keySet());
+    }
+
+    @Test
+    public void testRowsOfLeftMembersAreRemoved() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            create(ping -> {}).connect(clusterName);
+        }
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        waitForRows(() -> rows().size() == 4);
+
+        // The coordinator drops the row of a member which left when writing the rows of the remaining members
+        channels.remove(3).close();
+        Util.waitUntil(10_000, 100, () -> rowKeys(channels).equals(rows().keySet()), () -> "rows: " + rows().keySet());
+
+        // A coordinator which leaves removes the rows it wrote, while the new coordinator writes the rows of the remaining members
+        channels.remove(0).close();
+        Util.waitUntilAllChannelsHaveSameView(10_000, 100, channels.toArray(new JChannel[0]));
+        String coordinator = AZURE_TABLE_PING.rowKey(channels.get(0).getAddress());
+        Util.waitUntil(10_000, 100, () -> rowKeys(channels).equals(rows().keySet()) && rows().values().stream().allMatch(row -> coordinator.equals(row.get("Writer"))),
+                () -> "rows: " + rows());
+    }
+
+    @Test
+    public void testRemoveKeepsRowsWrittenConcurrently() throws Exception {
+        JChannel channel = create(ping -> {});
+        channel.connect(clusterName);
+        AZURE_TABLE_PING ping = channel.getProtocolStack().findProtocol(AZURE_TABLE_PING.class);
+        String partitionKey = AZURE_TABLE_PING.partitionKey(clusterName);
+        String writer = AZURE_TABLE_PING.rowKey(channel.getAddress());
+        Util.waitUntil(10_000, 100, () -> rows().size() == 1);
+        service.upsert(TABLE, partitionKey, "other", Map.of("Writer", writer));
+
+        // The rows are listed right away, but the transaction deleting them is delayed, during which another member rewrites a row
+        service.delay(request -> request.getHttpMethod() == HttpMethod.POST && request.getUrl().getPath().endsWith("/$batch"), 1, TimeUnit.SECONDS);
+        CompletableFuture<Void> remove = CompletableFuture.runAsync(() -> ping.remove(clusterName, channel.getAddress()));
+        Thread.sleep(300);
+        service.upsert(TABLE, partitionKey, "other", Map.of("Writer", "another"));
+        remove.get(10, TimeUnit.SECONDS);
+        service.clearFaults();
+
+        Assert.assertEquals(Set.of("other"), rows().keySet());
+    }
+
+    /**
+     * Waits for the rows to match, letting the coordinator rewrite them meanwhile: it writes the ping data of the members it knows the physical address of,
+     * which may still miss a member which just joined.
+     */
+    private void waitForRows(final BooleanSupplier condition) throws TimeoutException {
+        Util.waitUntil(10_000, 100, () -> {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            channels.get(0).getProtocolStack().<AZURE_TABLE_PING>findProtocol(AZURE_TABLE_PING.class).writeInfo();
+            return false;
+        }, () -> "rows: " + rows());
+    }
+
+    private Map<String, Map<String, Object>> rows() {
+        return service.rows(TABLE, AZURE_TABLE_PING.partitionKey(clusterName));
+    }
+
+    private static Set<String> rowKeys(final List<JChannel> channels) {
+        return channels.stream().map(channel -> AZURE_TABLE_PING.rowKey(channel.getAddress())).collect(Collectors.toSet());
+    }
+
+    protected JChannel create(final Consumer<AZURE_TABLE_PING> configurator) throws Exception {
+        AZURE_TABLE_PING ping = new AZURE_TABLE_PING();
+        ping.httpClient = service;
+        ping.connection_string = InMemoryTableService.CONNECTION_STRING;
+        ping.table = TABLE;
+        configurator.accept(ping);
+
+        JChannel channel = new JChannel(new SHARED_LOOPBACK(), ping, new MERGE3().setMinInterval(1000).setMaxInterval(3000), new NAKACK2(), new UNICAST3(), new STABLE(), new GMS());
+        channels.add(channel);
+        return channel;
+    }
+}
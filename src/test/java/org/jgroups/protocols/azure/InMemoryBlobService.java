@@ -0,0 +1,771 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.net.URISyntaxException;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpHeader;
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.util.BinaryData;
+import com.azure.core.util.Context;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * In-process stand-in for the subset of the Azure Blob Storage REST API used by {@link AZURE_PING}, plugged into the storage client
+ * through the {@link HttpClient} SPI so that tests and benchmarks can run without network access or an Azurite container.
+ * <p>
+ * Requests are expected at {@code http://<ip>:<port>/<account>/<container>[/<blob>]}, which is what the storage client produces for
+ * {@link #ENDPOINT} or {@link #CONNECTION_STRING}. Credentials are not verified.
+ * <p>
+ * Supported are container creation and properties, listing with prefix and metadata, get, head, put and delete of block blobs including
+ * {@code If-Match}/{@code If-None-Match} conditions, blob leases, append blobs, ranged gets of the form {@code bytes=<start>-} as well as Blob Batch requests consisting of deletes.
+ * Other operations fail with {@code 400} which makes callers fall back to the supported ones. Latency, throttling and faults can be injected; all requests are counted,
+ * including rejected ones.
+ */
+public class InMemoryBlobService implements HttpClient {
+
+    public static final String ACCOUNT_NAME = "devstoreaccount1";
+    public static final String ACCOUNT_KEY = "Eby8vdM02xNOcqFlqUwJPLlmEtlCDXJ1OUzFT50uSRZ6IFsuFq2UVErCz4I6tq/K1SZFPTOtr/KBHBeksoGMGw==";
+    public static final String ENDPOINT = "http://127.0.0.1:10000/" + ACCOUNT_NAME;
+    public static final String CONNECTION_STRING = String.format("DefaultEndpointsProtocol=http;AccountName=%s;AccountKey=%s;BlobEndpoint=%s", ACCOUNT_NAME, ACCOUNT_KEY, ENDPOINT);
+
+    private static final DateTimeFormatter RFC_1123 = DateTimeFormatter.RFC_1123_DATE_TIME;
+    private static final HttpHeaderName BLOB_TYPE_HEADER = HttpHeaderName.fromString("x-ms-blob-type");
+    private static final HttpHeaderName ERROR_CODE_HEADER = HttpHeaderName.fromString("x-ms-error-code");
+    private static final HttpHeaderName REQUEST_ID_HEADER = HttpHeaderName.fromString("x-ms-request-id");
+    private static final HttpHeaderName LEASE_ACTION_HEADER = HttpHeaderName.fromString("x-ms-lease-action");
+    private static final HttpHeaderName LEASE_ID_HEADER = HttpHeaderName.fromString("x-ms-lease-id");
+    private static final HttpHeaderName PROPOSED_LEASE_ID_HEADER = HttpHeaderName.fromString("x-ms-proposed-lease-id");
+    private static final HttpHeaderName LEASE_DURATION_HEADER = HttpHeaderName.fromString("x-ms-lease-duration");
+    private static final HttpHeaderName LEASE_STATE_HEADER = HttpHeaderName.fromString("x-ms-lease-state");
+    private static final HttpHeaderName RANGE_HEADER = HttpHeaderName.fromString("x-ms-range");
+    private static final HttpHeaderName APPEND_POSITION_HEADER = HttpHeaderName.fromString("x-ms-blob-condition-appendpos");
+    private static final HttpHeaderName SERVER_ENCRYPTED_HEADER = HttpHeaderName.fromString("x-ms-request-server-encrypted");
+    private static final HttpHeaderName APPEND_OFFSET_HEADER = HttpHeaderName.fromString("x-ms-blob-append-offset");
+    private static final HttpHeaderName COMMITTED_BLOCK_COUNT_HEADER = HttpHeaderName.fromString("x-ms-blob-committed-block-count");
+    private static final String META_HEADER_PREFIX = "x-ms-meta-";
+    private static final String BOUNDARY = "boundary=";
+    private static final String CRLF = "\r\n";
+    private static final Pattern CONTENT_ID = Pattern.compile("Content-ID:\\s*(\\d+)", Pattern.CASE_INSENSITIVE);
+
+    private final Map<String, NavigableMap<String, Blob>> containers = new ConcurrentHashMap<>();
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    private final List<Fault> faults = new CopyOnWriteArrayList<>();
+    private final List<Delay> delays = new CopyOnWriteArrayList<>();
+    private final AtomicLong etagSequence = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong throttledRequests = new AtomicLong();
+    private volatile long latencyMillis;
+    private volatile int pageSize = 5000;
+    private volatile int maxRequestsPerSecond;
+    private volatile Duration clockOffset = Duration.ZERO;
+    private long throttleWindow;
+    private int throttleWindowRequests;
+
+    /**
+     * Sets the latency added to every request.
+     */
+    public InMemoryBlobService latency(final long latency, final TimeUnit unit) {
+        this.latencyMillis = unit.toMillis(latency);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of blobs returned per listing page.
+     */
+    public InMemoryBlobService pageSize(final int pageSize) {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Rejects requests exceeding the given rate with {@code 503 ServerBusy} like the storage service does when throttling;
+     * {@code 0} disables throttling.
+     */
+    public InMemoryBlobService throttle(final int maxRequestsPerSecond) {
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+        return this;
+    }
+
+    /**
+     * Shifts the clock by which the service dates responses and modifications, e.g. to simulate clock skew between members and the service.
+     */
+    public InMemoryBlobService clockOffset(final Duration offset) {
+        this.clockOffset = offset;
+        return this;
+    }
+
+    /**
+     * Fails the given fraction of requests matching the predicate with the given status and error code.
+     */
+    public InMemoryBlobService fault(final Predicate<HttpRequest> matcher, final double probability, final int status, final String code) {
+        faults.add(new Fault(matcher, probability, status, code));
+        return this;
+    }
+
+    /**
+     * Adds the given latency to requests matching the predicate, e.g. to simulate a latency spike of a single request.
+     */
+    public InMemoryBlobService delay(final Predicate<HttpRequest> matcher, final long latency, final TimeUnit unit) {
+        delays.add(new Delay(matcher, unit.toMillis(latency)));
+        return this;
+    }
+
+    /**
+     * Removes all faults and delays.
+     */
+    public InMemoryBlobService clearFaults() {
+        faults.clear();
+        delays.clear();
+        return this;
+    }
+
+    /**
+     * Returns the number of requests received, including throttled and failed ones.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Returns the number of requests rejected by throttling.
+     */
+    public long getThrottledRequestCount() {
+        return throttledRequests.get();
+    }
+
+    /**
+     * Resets the request counters.
+     */
+    public void resetRequestCounts() {
+        requests.set(0);
+        throttledRequests.set(0);
+    }
+
+    /**
+     * Stores a blob directly, bypassing the HTTP layer and latency.
+     */
+    public void put(final String container, final String name, final byte[] data) {
+        put(container, name, data, now());
+    }
+
+    /**
+     * Stores a blob directly with the given last modification time, e.g. one left behind by a crashed member.
+     */
+    public void put(final String container, final String name, final byte[] data, final OffsetDateTime lastModified) {
+        containers.computeIfAbsent(container, c -> new ConcurrentSkipListMap<>()).put(name, new Blob(data, Map.of(), nextETag(), lastModified, "BlockBlob", 0));
+    }
+
+    /**
+     * Returns the content of the given blob, or {@code null} if it does not exist.
+     */
+    public byte[] get(final String container, final String name) {
+        NavigableMap<String, Blob> blobs = containers.get(container);
+        Blob blob = blobs != null ? blobs.get(name) : null;
+        return blob != null ? blob.data : null;
+    }
+
+    /**
+     * Removes a blob directly, bypassing the HTTP layer and latency, e.g. as removed by another member.
+     */
+    public void remove(final String container, final String name) {
+        NavigableMap<String, Blob> blobs = containers.get(container);
+        if (blobs != null) {
+            blobs.remove(name);
+        }
+    }
+
+    /**
+     * Returns whether the given container exists.
+     */
+    public boolean hasContainer(final String container) {
+        return containers.containsKey(container);
+    }
+
+    /**
+     * Returns the number of blobs stored in the given container with the given name prefix.
+     */
+    public int count(final String container, final String prefix) {
+        NavigableMap<String, Blob> blobs = containers.get(container);
+        return blobs == null ? 0 : blobs.subMap(prefix, true, prefix + Character.MAX_VALUE, false).size();
+    }
+
+    @Override
+    public Mono<HttpResponse> send(final HttpRequest request) {
+        // Like a network client, does not block the subscriber, so that timeouts of the storage client apply
+        return Mono.fromCallable(() -> sendSync(request, Context.NONE)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public HttpResponse sendSync(final HttpRequest request, final Context context) {
+        HttpResponse response = respond(request);
+        response.getHeaders().set(HttpHeaderName.DATE, RFC_1123.format(now()));
+        return response;
+    }
+
+    private HttpResponse respond(final HttpRequest request) {
+        long latency = latencyMillis;
+        for (Delay delay : delays) {
+            if (delay.matcher.test(request)) {
+                latency += delay.latency;
+            }
+        }
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        requests.incrementAndGet();
+        if (isThrottled()) {
+            throttledRequests.incrementAndGet();
+            return error(request, 503, "ServerBusy");
+        }
+        for (Fault fault : faults) {
+            if (fault.matcher.test(request) && ThreadLocalRandom.current().nextDouble() < fault.probability) {
+                return error(request, fault.status, fault.code);
+            }
+        }
+        // Serialized so that conditions and leases are evaluated atomically with the update they guard
+        synchronized (this) {
+            return handle(request);
+        }
+    }
+
+    private synchronized boolean isThrottled() {
+        int limit = maxRequestsPerSecond;
+        if (limit <= 0) {
+            return false;
+        }
+        long window = System.nanoTime() / TimeUnit.SECONDS.toNanos(1);
+        if (window != throttleWindow) {
+            throttleWindow = window;
+            throttleWindowRequests = 0;
+        }
+        return ++throttleWindowRequests > limit;
+    }
+
+    protected HttpResponse handle(final HttpRequest request) {
+        String path;
+        try {
+            path = request.getUrl().toURI().getPath();
+        } catch (URISyntaxException e) {
+            return error(request, 400, "InvalidUri");
+        }
+        // <account>/<container>[/<blob>]
+        String[] segments = path.substring(1).split("/", 3);
+        if (segments.length < 2) {
+            return error(request, 400, "InvalidUri");
+        }
+        String container = segments[1];
+        String blob = segments.length > 2 ? segments[2] : null;
+        Map<String, String> query = parseQuery(request.getUrl().getQuery());
+
+        if (blob == null) {
+            if (request.getHttpMethod() == HttpMethod.PUT && "container".equals(query.get("restype"))) {
+                return createContainer(request, container);
+            }
+            if (request.getHttpMethod() == HttpMethod.GET && "list".equals(query.get("comp"))) {
+                return list(request, container, query);
+            }
+            if ((request.getHttpMethod() == HttpMethod.GET || request.getHttpMethod() == HttpMethod.HEAD) && "container".equals(query.get("restype")) && !query.containsKey("comp")) {
+                return containers.containsKey(container) ? new Response(request, 200, new HttpHeaders(), new byte[0]) : error(request, 404, "ContainerNotFound");
+            }
+            if (request.getHttpMethod() == HttpMethod.POST && "container".equals(query.get("restype")) && "batch".equals(query.get("comp"))) {
+                return batch(request, container);
+            }
+            return error(request, 400, "UnsupportedOperation");
+        }
+
+        NavigableMap<String, Blob> blobs = containers.get(container);
+        if (blobs == null) {
+            return error(request, 404, "ContainerNotFound");
+        }
+        String key = container + '/' + blob;
+        if (request.getHttpMethod() == HttpMethod.PUT && "lease".equals(query.get("comp"))) {
+            return lease(request, blobs, blob, key);
+        }
+        if (request.getHttpMethod() == HttpMethod.PUT && "appendblock".equals(query.get("comp"))) {
+            return appendBlock(request, blobs, blob);
+        }
+        if (request.getHttpMethod() == HttpMethod.PUT && query.isEmpty()) {
+            return putBlob(request, blobs, blob, key);
+        }
+        if ((request.getHttpMethod() == HttpMethod.GET || request.getHttpMethod() == HttpMethod.HEAD) && query.isEmpty()) {
+            return getBlob(request, blobs, blob, key);
+        }
+        if (request.getHttpMethod() == HttpMethod.DELETE) {
+            return deleteBlob(request, blobs, blob, key);
+        }
+        return error(request, 400, "UnsupportedOperation");
+    }
+
+    private HttpResponse createContainer(final HttpRequest request, final String container) {
+        if (containers.putIfAbsent(container, new ConcurrentSkipListMap<>()) != null) {
+            return error(request, 409, "ContainerAlreadyExists");
+        }
+        return new Response(request, 201, new HttpHeaders(), new byte[0]);
+    }
+
+    private HttpResponse list(final HttpRequest request, final String container, final Map<String, String> query) {
+        NavigableMap<String, Blob> blobs = containers.get(container);
+        if (blobs == null) {
+            return error(request, 404, "ContainerNotFound");
+        }
+        String prefix = query.getOrDefault("prefix", "");
+        String marker = query.get("marker");
+        boolean metadata = query.getOrDefault("include", "").contains("metadata");
+        int maxResults = Math.min(pageSize, query.containsKey("maxresults") ? Integer.parseInt(query.get("maxresults")) : Integer.MAX_VALUE);
+
+        NavigableMap<String, Blob> range = blobs.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (marker != null && !marker.isEmpty()) {
+            range = range.tailMap(marker, true);
+        }
+
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-8\"?>");
+        xml.append("<EnumerationResults ServiceEndpoint=\"").append(ENDPOINT).append("\" ContainerName=\"").append(escape(container)).append("\">");
+        xml.append("<Prefix>").append(escape(prefix)).append("</Prefix><Blobs>");
+        String nextMarker = null;
+        int count = 0;
+        for (Map.Entry<String, Blob> entry : range.entrySet()) {
+            if (count++ == maxResults) {
+                nextMarker = entry.getKey();
+                break;
+            }
+            Blob b = entry.getValue();
+            xml.append("<Blob><Name>").append(escape(entry.getKey())).append("</Name><Properties>");
+            xml.append("<Last-Modified>").append(RFC_1123.format(b.lastModified)).append("</Last-Modified>");
+            // Unlike the ETag header, listings return unquoted ETags
+            xml.append("<Etag>").append(unquote(b.etag)).append("</Etag>");
+            xml.append("<Content-Length>").append(b.data.length).append("</Content-Length>");
+            xml.append("<Content-Type>application/octet-stream</Content-Type>");
+            xml.append("<BlobType>").append(b.type).append("</BlobType>");
+            xml.append("</Properties>");
+            if (metadata && !b.metadata.isEmpty()) {
+                xml.append("<Metadata>");
+                b.metadata.forEach((key, value) -> xml.append('<').append(key).append('>').append(escape(value)).append("</").append(key).append('>'));
+                xml.append("</Metadata>");
+            }
+            xml.append("</Blob>");
+        }
+        xml.append("</Blobs><NextMarker>").append(nextMarker != null ? escape(nextMarker) : "").append("</NextMarker></EnumerationResults>");
+
+        HttpHeaders headers = new HttpHeaders().set(HttpHeaderName.CONTENT_TYPE, "application/xml");
+        return new Response(request, 200, headers, xml.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private HttpResponse putBlob(final HttpRequest request, final NavigableMap<String, Blob> blobs, final String name, final String key) {
+        String type = request.getHeaders().getValue(BLOB_TYPE_HEADER);
+        if (!"BlockBlob".equals(type) && !"AppendBlob".equals(type)) {
+            return error(request, 400, "UnsupportedBlobType");
+        }
+        Blob existing = blobs.get(name);
+        HttpResponse rejected = checkConditions(request, existing, true);
+        if (rejected == null) {
+            rejected = checkLease(request, key);
+        }
+        if (rejected != null) {
+            return rejected;
+        }
+        BinaryData body = request.getBodyAsBinaryData();
+        byte[] data = body != null ? body.toBytes() : new byte[0];
+        Map<String, String> metadata = new TreeMap<>();
+        for (HttpHeader header : request.getHeaders()) {
+            if (header.getName().toLowerCase(Locale.ROOT).startsWith(META_HEADER_PREFIX)) {
+                metadata.put(header.getName().substring(META_HEADER_PREFIX.length()).toLowerCase(Locale.ROOT), header.getValue());
+            }
+        }
+        Blob blob = new Blob(data, metadata, nextETag(), now(), type, 0);
+        blobs.put(name, blob);
+        return new Response(request, 201, blob.headers().set(SERVER_ENCRYPTED_HEADER, "true"), new byte[0]);
+    }
+
+    private HttpResponse appendBlock(final HttpRequest request, final NavigableMap<String, Blob> blobs, final String name) {
+        Blob existing = blobs.get(name);
+        if (existing == null) {
+            return error(request, 404, "BlobNotFound");
+        }
+        if (!"AppendBlob".equals(existing.type)) {
+            return error(request, 409, "InvalidBlobType");
+        }
+        HttpResponse rejected = checkConditions(request, existing, true);
+        if (rejected != null) {
+            return rejected;
+        }
+        String position = request.getHeaders().getValue(APPEND_POSITION_HEADER);
+        if (position != null && Long.parseLong(position) != existing.data.length) {
+            return error(request, 412, "AppendPositionConditionNotMet");
+        }
+        BinaryData body = request.getBodyAsBinaryData();
+        byte[] block = body != null ? body.toBytes() : new byte[0];
+        byte[] data = Arrays.copyOf(existing.data, existing.data.length + block.length);
+        System.arraycopy(block, 0, data, existing.data.length, block.length);
+        Blob blob = new Blob(data, existing.metadata, nextETag(), now(), existing.type, existing.committedBlockCount + 1);
+        blobs.put(name, blob);
+        HttpHeaders headers = blob.headers()
+                .set(APPEND_OFFSET_HEADER, String.valueOf(existing.data.length))
+                .set(SERVER_ENCRYPTED_HEADER, "true");
+        return new Response(request, 201, headers, new byte[0]);
+    }
+
+    private HttpResponse getBlob(final HttpRequest request, final NavigableMap<String, Blob> blobs, final String name, final String key) {
+        Blob blob = blobs.get(name);
+        if (blob == null) {
+            return error(request, 404, "BlobNotFound");
+        }
+        HttpResponse rejected = checkConditions(request, blob, false);
+        if (rejected != null) {
+            return rejected;
+        }
+        Lease lease = activeLease(key);
+        HttpHeaders headers = blob.headers()
+                .set(LEASE_STATE_HEADER, lease != null ? "leased" : "available")
+                .set(HttpHeaderName.CONTENT_TYPE, "application/octet-stream")
+                .set(BLOB_TYPE_HEADER, blob.type);
+        if ("AppendBlob".equals(blob.type)) {
+            headers.set(COMMITTED_BLOCK_COUNT_HEADER, String.valueOf(blob.committedBlockCount));
+        }
+        blob.metadata.forEach((metadataKey, value) -> headers.set(HttpHeaderName.fromString(META_HEADER_PREFIX + metadataKey), value));
+        String range = request.getHeaders().getValue(RANGE_HEADER);
+        if (range == null) {
+            range = request.getHeaders().getValue(HttpHeaderName.RANGE);
+        }
+        if (range != null && request.getHttpMethod() == HttpMethod.GET) {
+            // Only open-ended ranges, as requested by ranged downloads from an offset
+            int start = Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+            if (start >= blob.data.length) {
+                return error(request, 416, "InvalidRange");
+            }
+            headers.set(HttpHeaderName.CONTENT_LENGTH, String.valueOf(blob.data.length - start))
+                    .set(HttpHeaderName.CONTENT_RANGE, "bytes " + start + "-" + (blob.data.length - 1) + "/" + blob.data.length);
+            return new Response(request, 206, headers, Arrays.copyOfRange(blob.data, start, blob.data.length));
+        }
+        headers.set(HttpHeaderName.CONTENT_LENGTH, String.valueOf(blob.data.length));
+        return new Response(request, 200, headers, request.getHttpMethod() == HttpMethod.HEAD ? new byte[0] : blob.data);
+    }
+
+    private HttpResponse deleteBlob(final HttpRequest request, final NavigableMap<String, Blob> blobs, final String name, final String key) {
+        Blob blob = blobs.get(name);
+        if (blob == null) {
+            return error(request, 404, "BlobNotFound");
+        }
+        HttpResponse rejected = checkConditions(request, blob, true);
+        if (rejected == null) {
+            rejected = checkLease(request, key);
+        }
+        if (rejected != null) {
+            return rejected;
+        }
+        blobs.remove(name);
+        leases.remove(key);
+        return new Response(request, 202, new HttpHeaders(), new byte[0]);
+    }
+
+    /**
+     * Executes the deletes of a Blob Batch request, which is a {@code multipart/mixed} body with one serialized request of the form
+     * {@code DELETE /<container>/<blob>} per part, and answers with one serialized response per part, correlated by {@code Content-ID}.
+     */
+    private HttpResponse batch(final HttpRequest request, final String container) {
+        String contentType = request.getHeaders().getValue(HttpHeaderName.CONTENT_TYPE);
+        int index = contentType != null ? contentType.indexOf(BOUNDARY) : -1;
+        if (index < 0) {
+            return error(request, 400, "InvalidInput");
+        }
+        String boundary = "--" + contentType.substring(index + BOUNDARY.length());
+        String responseBoundary = "batchresponse_" + UUID.randomUUID();
+        NavigableMap<String, Blob> blobs = containers.get(container);
+        StringBuilder body = new StringBuilder();
+        for (String part : new String(request.getBodyAsBinaryData().toBytes(), StandardCharsets.UTF_8).split(boundary)) {
+            String[] sections = part.split(CRLF + CRLF);
+            Matcher contentId = CONTENT_ID.matcher(sections[0]);
+            if (sections.length < 2 || !contentId.find()) {
+                continue;
+            }
+            String[] lines = sections[1].split(CRLF);
+            String[] requestLine = lines[0].split(" ");
+            HttpRequest subRequest = new HttpRequest(HttpMethod.valueOf(requestLine[0]), request.getUrl());
+            for (int i = 1; i < lines.length; i++) {
+                String[] header = lines[i].split(":\\s*", 2);
+                subRequest.setHeader(HttpHeaderName.fromString(header[0]), header.length > 1 ? header[1] : "");
+            }
+            // /<container>/<blob>
+            String[] segments = requestLine[1].substring(1).split("/", 2);
+            HttpResponse response;
+            if (subRequest.getHttpMethod() != HttpMethod.DELETE || segments.length < 2 || !segments[0].equals(container)) {
+                response = error(subRequest, 400, "UnsupportedOperation");
+            } else if (blobs == null) {
+                response = error(subRequest, 404, "ContainerNotFound");
+            } else {
+                String name = URLDecoder.decode(segments[1], StandardCharsets.UTF_8);
+                response = deleteBlob(subRequest, blobs, name, container + '/' + name);
+            }
+            body.append("--").append(responseBoundary).append(CRLF)
+                    .append("Content-Type: application/http").append(CRLF)
+                    .append("Content-ID: ").append(contentId.group(1)).append(CRLF).append(CRLF)
+                    .append("HTTP/1.1 ").append(response.getStatusCode()).append(' ').append(response.getStatusCode() < 300 ? "Accepted" : "Error").append(CRLF);
+            response.getHeaders().forEach(header -> body.append(header.getName()).append(": ").append(header.getValue()).append(CRLF));
+            body.append(CRLF).append(response.getBodyAsBinaryData().toString()).append(CRLF);
+        }
+        body.append("--").append(responseBoundary).append("--").append(CRLF);
+        HttpHeaders headers = new HttpHeaders().set(HttpHeaderName.CONTENT_TYPE, "multipart/mixed; " + BOUNDARY + responseBoundary);
+        return new Response(request, 202, headers, body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private HttpResponse lease(final HttpRequest request, final NavigableMap<String, Blob> blobs, final String name, final String key) {
+        Blob blob = blobs.get(name);
+        if (blob == null) {
+            return error(request, 404, "BlobNotFound");
+        }
+        HttpHeaders requestHeaders = request.getHeaders();
+        String action = requestHeaders.getValue(LEASE_ACTION_HEADER);
+        String leaseId = requestHeaders.getValue(LEASE_ID_HEADER);
+        Lease lease = activeLease(key);
+        HttpHeaders headers = blob.headers();
+
+        switch (action == null ? "" : action.toLowerCase(Locale.ROOT)) {
+            case "acquire" -> {
+                String proposed = requestHeaders.getValue(PROPOSED_LEASE_ID_HEADER);
+                String id = proposed != null ? proposed : UUID.randomUUID().toString();
+                if (lease != null && !lease.id.equals(id)) {
+                    return error(request, 409, "LeaseAlreadyPresent");
+                }
+                String duration = requestHeaders.getValue(LEASE_DURATION_HEADER);
+                long seconds = duration != null ? Long.parseLong(duration) : -1;
+                leases.put(key, new Lease(id, seconds < 0 ? 0 : TimeUnit.SECONDS.toNanos(seconds), System.nanoTime()));
+                return new Response(request, 201, headers.set(LEASE_ID_HEADER, id), new byte[0]);
+            }
+            case "renew" -> {
+                Lease existing = leases.get(key);
+                if (existing == null || !existing.id.equals(leaseId)) {
+                    return error(request, 409, "LeaseIdMismatchWithLeaseOperation");
+                }
+                leases.put(key, new Lease(existing.id, existing.duration, System.nanoTime()));
+                return new Response(request, 200, headers.set(LEASE_ID_HEADER, existing.id), new byte[0]);
+            }
+            case "release" -> {
+                if (lease != null && !lease.id.equals(leaseId)) {
+                    return error(request, 409, "LeaseIdMismatchWithLeaseOperation");
+                }
+                leases.remove(key);
+                return new Response(request, 200, headers, new byte[0]);
+            }
+            case "break" -> {
+                leases.remove(key);
+                return new Response(request, 202, headers.set(HttpHeaderName.fromString("x-ms-lease-time"), "0"), new byte[0]);
+            }
+            default -> {
+                return error(request, 400, "InvalidHeaderValue");
+            }
+        }
+    }
+
+    private Lease activeLease(final String key) {
+        Lease lease = leases.get(key);
+        return lease != null && (lease.duration == 0 || System.nanoTime() - lease.acquired < lease.duration) ? lease : null;
+    }
+
+    /**
+     * Rejects writes to a leased blob which do not specify the active lease.
+     */
+    private HttpResponse checkLease(final HttpRequest request, final String key) {
+        Lease lease = activeLease(key);
+        String leaseId = request.getHeaders().getValue(LEASE_ID_HEADER);
+        if (lease == null) {
+            return leaseId != null ? error(request, 412, "LeaseNotPresentWithBlobOperation") : null;
+        }
+        if (leaseId == null) {
+            return error(request, 412, "LeaseIdMissing");
+        }
+        return lease.id.equals(leaseId) ? null : error(request, 412, "LeaseIdMismatchWithBlobOperation");
+    }
+
+    /**
+     * Evaluates {@code If-Match} and {@code If-None-Match} against the current version of the blob, which is {@code null} if it does not exist.
+     */
+    private static HttpResponse checkConditions(final HttpRequest request, final Blob blob, final boolean write) {
+        String ifMatch = request.getHeaders().getValue(HttpHeaderName.IF_MATCH);
+        String ifNoneMatch = request.getHeaders().getValue(HttpHeaderName.IF_NONE_MATCH);
+        if (ifMatch != null && (blob == null || !("*".equals(ifMatch) || unquote(blob.etag).equals(unquote(ifMatch))))) {
+            return blob == null && !write ? error(request, 404, "BlobNotFound") : error(request, 412, "ConditionNotMet");
+        }
+        if (ifNoneMatch != null && blob != null && ("*".equals(ifNoneMatch) || unquote(blob.etag).equals(unquote(ifNoneMatch)))) {
+            if (!write) {
+                return new Response(request, 304, blob.headers(), new byte[0]);
+            }
+            return "*".equals(ifNoneMatch) ? error(request, 409, "BlobAlreadyExists") : error(request, 412, "ConditionNotMet");
+        }
+        return null;
+    }
+
+    protected static HttpResponse error(final HttpRequest request, final int status, final String code) {
+        String xml = "<?xml version=\"1.0\" encoding=\"utf-8\"?><Error><Code>" + code + "</Code><Message>" + code + "</Message></Error>";
+        HttpHeaders headers = new HttpHeaders().set(ERROR_CODE_HEADER, code).set(HttpHeaderName.CONTENT_TYPE, "application/xml");
+        return new Response(request, status, headers, xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneOffset.UTC).plus(clockOffset);
+    }
+
+    private String nextETag() {
+        return String.format("\"0x%016X\"", etagSequence.incrementAndGet());
+    }
+
+    private static String unquote(final String etag) {
+        return etag.length() > 1 && etag.startsWith("\"") && etag.endsWith("\"") ? etag.substring(1, etag.length() - 1) : etag;
+    }
+
+    static Map<String, String> parseQuery(final String query) {
+        Map<String, String> result = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return result;
+        }
+        for (String pair : query.split("&")) {
+            int index = pair.indexOf('=');
+            String key = index < 0 ? pair : pair.substring(0, index);
+            String value = index < 0 ? "" : URLDecoder.decode(pair.substring(index + 1), StandardCharsets.UTF_8);
+            result.put(key, value);
+        }
+        return result;
+    }
+
+    private static String escape(final String value) {
+        StringBuilder result = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '&' -> result.append("&amp;");
+                case '<' -> result.append("&lt;");
+                case '>' -> result.append("&gt;");
+                case '"' -> result.append("&quot;");
+                case '\'' -> result.append("&apos;");
+                default -> result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Lease with the given duration in nanoseconds, {@code 0} meaning infinite, which was acquired or last renewed at the given time.
+     */
+    private record Lease(String id, long duration, long acquired) {
+    }
+
+    private record Delay(Predicate<HttpRequest> matcher, long latency) {
+    }
+
+    private record Fault(Predicate<HttpRequest> matcher, double probability, int status, String code) {
+    }
+
+    private record Blob(byte[] data, Map<String, String> metadata, String etag, OffsetDateTime lastModified, String type, int committedBlockCount) {
+        HttpHeaders headers() {
+            return new HttpHeaders()
+                    .set(HttpHeaderName.ETAG, etag)
+                    .set(HttpHeaderName.LAST_MODIFIED, RFC_1123.format(lastModified));
+        }
+    }
+
+    static class Response extends HttpResponse {
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        Response(final HttpRequest request, final int status, final HttpHeaders headers, final byte[] body) {
+            super(request);
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            if (headers.getValue(HttpHeaderName.CONTENT_LENGTH) == null) {
+                headers.set(HttpHeaderName.CONTENT_LENGTH, String.valueOf(body.length));
+            }
+            headers.set(REQUEST_ID_HEADER, UUID.randomUUID().toString());
+        }
+
+        @Override
+        public int getStatusCode() {
+            return status;
+        }
+
+        @Override
+        @Deprecated
+        public String getHeaderValue(final String name) {
+            return headers.getValue(HttpHeaderName.fromString(name));
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public Flux<ByteBuffer> getBody() {
+            return Flux.just(ByteBuffer.wrap(body));
+        }
+
+        @Override
+        public BinaryData getBodyAsBinaryData() {
+            return BinaryData.fromBytes(body);
+        }
+
+        @Override
+        public Mono<byte[]> getBodyAsByteArray() {
+            return Mono.just(body);
+        }
+
+        @Override
+        public Mono<String> getBodyAsString() {
+            return Mono.just(new String(body, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public Mono<String> getBodyAsString(final Charset charset) {
+            return Mono.just(new String(body, charset));
+        }
+    }
+}
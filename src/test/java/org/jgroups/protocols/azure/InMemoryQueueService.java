@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+
+/**
+ * In-process stand-in for the subset of the Azure Queue Storage REST API used by the notification queues of {@link AZURE_PING}:
+ * queue creation and deletion, sending messages with a time to live, and peeking at or receiving messages with a visibility timeout. Requests are expected at
+ * {@code http://<ip>:<port>/<account>/<queue>[/messages]}, e.g. at {@link #ENDPOINT}. Latency, throttling and faults are injected
+ * and requests counted like by {@link InMemoryBlobService}.
+ */
+public class InMemoryQueueService extends InMemoryBlobService {
+
+    public static final String ENDPOINT = "http://127.0.0.1:10001/" + ACCOUNT_NAME;
+
+    private static final DateTimeFormatter RFC_1123 = DateTimeFormatter.RFC_1123_DATE_TIME;
+    private static final Pattern MESSAGE_TEXT = Pattern.compile("<MessageText>(.*)</MessageText>", Pattern.DOTALL);
+
+    private final Map<String, List<Message>> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Returns whether the given queue exists.
+     */
+    public boolean hasQueue(final String queue) {
+        return queues.containsKey(queue);
+    }
+
+    /**
+     * Returns the number of messages of the given queue which did not expire yet, including invisible ones.
+     */
+    public int count(final String queue) {
+        List<Message> messages = queues.get(queue);
+        if (messages == null) {
+            return 0;
+        }
+        synchronized (this) {
+            messages.removeIf(Message::isExpired);
+            return messages.size();
+        }
+    }
+
+    @Override
+    protected HttpResponse handle(final HttpRequest request) {
+        String path;
+        try {
+            path = request.getUrl().toURI().getPath();
+        } catch (URISyntaxException e) {
+            return error(request, 400, "InvalidUri");
+        }
+        // <account>/<queue>[/messages]
+        String[] segments = path.substring(1).split("/", 3);
+        if (segments.length < 2) {
+            return error(request, 400, "InvalidUri");
+        }
+        String queue = segments[1];
+        Map<String, String> query = parseQuery(request.getUrl().getQuery());
+
+        if (segments.length == 2) {
+            if (request.getHttpMethod() == HttpMethod.PUT) {
+                return new Response(request, queues.putIfAbsent(queue, new ArrayList<>()) == null ? 201 : 204, new HttpHeaders(), new byte[0]);
+            }
+            if (request.getHttpMethod() == HttpMethod.DELETE) {
+                return queues.remove(queue) != null ? new Response(request, 204, new HttpHeaders(), new byte[0]) : error(request, 404, "QueueNotFound");
+            }
+            return error(request, 400, "UnsupportedOperation");
+        }
+        if (!"messages".equals(segments[2])) {
+            return error(request, 400, "UnsupportedOperation");
+        }
+        List<Message> messages = queues.get(queue);
+        if (messages == null) {
+            return error(request, 404, "QueueNotFound");
+        }
+        messages.removeIf(Message::isExpired);
+        if (request.getHttpMethod() == HttpMethod.POST) {
+            Matcher matcher = MESSAGE_TEXT.matcher(request.getBodyAsBinaryData().toString());
+            if (!matcher.find()) {
+                return error(request, 400, "InvalidXmlDocument");
+            }
+            long ttl = Long.parseLong(query.getOrDefault("messagettl", "604800"));
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            Message message = new Message(UUID.randomUUID().toString(), matcher.group(1), now, now.plusSeconds(ttl), now);
+            messages.add(message);
+            String xml = "<?xml version=\"1.0\" encoding=\"utf-8\"?><QueueMessagesList><QueueMessage>" + message.header()
+                    + "<PopReceipt>" + UUID.randomUUID() + "</PopReceipt><TimeNextVisible>" + RFC_1123.format(now) + "</TimeNextVisible>"
+                    + "</QueueMessage></QueueMessagesList>";
+            return xml(request, 201, xml);
+        }
+        if (request.getHttpMethod() == HttpMethod.GET) {
+            boolean peek = "true".equals(query.get("peekonly"));
+            int count = Integer.parseInt(query.getOrDefault("numofmessages", "1"));
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-8\"?><QueueMessagesList>");
+            for (int i = 0; i < messages.size() && count > 0; i++) {
+                Message message = messages.get(i);
+                if (message.visibleAt().isAfter(now)) {
+                    continue;
+                }
+                count--;
+                xml.append("<QueueMessage>").append(message.header());
+                if (!peek) {
+                    // Hidden until the visibility timeout elapsed
+                    OffsetDateTime visibleAt = now.plusSeconds(Long.parseLong(query.getOrDefault("visibilitytimeout", "30")));
+                    messages.set(i, new Message(message.id(), message.text(), message.insertionTime(), message.expirationTime(), visibleAt));
+                    xml.append("<PopReceipt>").append(UUID.randomUUID()).append("</PopReceipt><TimeNextVisible>").append(RFC_1123.format(visibleAt)).append("</TimeNextVisible>");
+                }
+                xml.append("<DequeueCount>").append(peek ? 0 : 1).append("</DequeueCount><MessageText>").append(message.text()).append("</MessageText></QueueMessage>");
+            }
+            return xml(request, 200, xml.append("</QueueMessagesList>").toString());
+        }
+        return error(request, 400, "UnsupportedOperation");
+    }
+
+    private static HttpResponse xml(final HttpRequest request, final int status, final String xml) {
+        HttpHeaders headers = new HttpHeaders().set(HttpHeaderName.CONTENT_TYPE, "application/xml");
+        return new Response(request, status, headers, xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record Message(String id, String text, OffsetDateTime insertionTime, OffsetDateTime expirationTime, OffsetDateTime visibleAt) {
+        boolean isExpired() {
+            return !expirationTime.isAfter(OffsetDateTime.now(ZoneOffset.UTC));
+        }
+
+        String header() {
+            return "<MessageId>" + id + "</MessageId><InsertionTime>" + RFC_1123.format(insertionTime) + "</InsertionTime>"
+                    + "<ExpirationTime>" + RFC_1123.format(expirationTime) + "</ExpirationTime>";
+        }
+    }
+}
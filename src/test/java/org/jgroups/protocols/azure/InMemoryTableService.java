@@ -0,0 +1,317 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.util.BinaryData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * In-process stand-in for the subset of the Azure Table Storage REST API used by {@link AZURE_TABLE_PING}: table creation,
+ * partition queries with filters of the form {@code <property> eq '<value>'} joined by {@code and}, upserts and deletes of entities
+ * including {@code If-Match} conditions, and entity group transactions consisting of upserts and deletes which are applied atomically.
+ * Requests are expected at {@code http://<ip>:<port>/<account>/...}, e.g. at {@link #ENDPOINT}. Latency, throttling and faults are
+ * injected and requests counted like by {@link InMemoryBlobService}.
+ */
+public class InMemoryTableService extends InMemoryBlobService {
+
+    public static final String ENDPOINT = "http://127.0.0.1:10002/" + ACCOUNT_NAME;
+    public static final String CONNECTION_STRING = String.format("DefaultEndpointsProtocol=http;AccountName=%s;AccountKey=%s;TableEndpoint=%s", ACCOUNT_NAME, ACCOUNT_KEY, ENDPOINT);
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String JSON_CONTENT_TYPE = "application/json;odata=minimalmetadata";
+    private static final String CRLF = "\r\n";
+    private static final HttpHeaderName ERROR_CODE_HEADER = HttpHeaderName.fromString("x-ms-error-code");
+    private static final HttpHeaderName PREFER_HEADER = HttpHeaderName.fromString("Prefer");
+    private static final Pattern ENTITY_PATH = Pattern.compile("/[^/]+/(\\w+)\\(PartitionKey='((?:[^']|'')*)',\\s*RowKey='((?:[^']|'')*)'\\)");
+    private static final Pattern QUERY_PATH = Pattern.compile("/[^/]+/(\\w+)\\(\\)");
+    private static final Pattern CONDITION = Pattern.compile("(\\w+) eq '((?:[^']|'')*)'");
+    private static final Pattern CHANGESET_BOUNDARY = Pattern.compile("boundary=(changeset_[^\\s;]+)");
+
+    private final Map<String, NavigableMap<String, Entity>> tables = new ConcurrentHashMap<>();
+    private final AtomicLong etagSequence = new AtomicLong();
+
+    /**
+     * Returns the properties of the entities of the given partition by their row key.
+     */
+    public synchronized Map<String, Map<String, Object>> rows(final String table, final String partitionKey) {
+        Map<String, Map<String, Object>> rows = new LinkedHashMap<>();
+        NavigableMap<String, Entity> entities = tables.get(table);
+        if (entities != null) {
+            entities.values().stream()
+                    .filter(entity -> entity.partitionKey().equals(partitionKey))
+                    .forEach(entity -> rows.put(entity.rowKey(), entity.properties()));
+        }
+        return rows;
+    }
+
+    /**
+     * Inserts or replaces an entity with the given properties, creating the table if it does not exist.
+     */
+    public synchronized void upsert(final String table, final String partitionKey, final String rowKey, final Map<String, Object> properties) {
+        tables.computeIfAbsent(table, name -> new ConcurrentSkipListMap<>())
+                .put(key(partitionKey, rowKey), new Entity(partitionKey, rowKey, new LinkedHashMap<>(properties), nextETag()));
+    }
+
+    @Override
+    protected HttpResponse handle(final HttpRequest request) {
+        String path;
+        try {
+            path = request.getUrl().toURI().getPath();
+        } catch (URISyntaxException e) {
+            return tableError(request, 400, "InvalidUri");
+        }
+        if (path.endsWith("/Tables") && request.getHttpMethod() == HttpMethod.POST) {
+            String table = (String) parse(request.getBodyAsBinaryData()).get("TableName");
+            if (tables.putIfAbsent(table, new ConcurrentSkipListMap<>()) != null) {
+                return tableError(request, 409, "TableAlreadyExists");
+            }
+            if ("return-no-content".equals(request.getHeaders().getValue(PREFER_HEADER))) {
+                return new Response(request, 204, new HttpHeaders(), new byte[0]);
+            }
+            return json(request, 201, Map.of("TableName", table));
+        }
+        if (path.endsWith("/$batch") && request.getHttpMethod() == HttpMethod.POST) {
+            return transaction(request);
+        }
+        Matcher query = QUERY_PATH.matcher(path);
+        if (query.matches() && request.getHttpMethod() == HttpMethod.GET) {
+            return query(request, query.group(1));
+        }
+        Matcher entity = ENTITY_PATH.matcher(path);
+        if (entity.matches()) {
+            Outcome outcome = apply(request.getHttpMethod(), entity, request.getHeaders().getValue(HttpHeaderName.IF_MATCH), request.getBodyAsBinaryData());
+            if (outcome.status() >= 300) {
+                return tableError(request, outcome.status(), outcome.code());
+            }
+            HttpHeaders headers = new HttpHeaders();
+            if (outcome.etag() != null) {
+                headers.set(HttpHeaderName.ETAG, outcome.etag());
+            }
+            return new Response(request, outcome.status(), headers, new byte[0]);
+        }
+        return tableError(request, 400, "UnsupportedOperation");
+    }
+
+    private HttpResponse query(final HttpRequest request, final String table) {
+        NavigableMap<String, Entity> entities = tables.get(table);
+        if (entities == null) {
+            return tableError(request, 404, "TableNotFound");
+        }
+        Map<String, String> query = parseQuery(request.getUrl().getQuery());
+        Map<String, String> conditions = new LinkedHashMap<>();
+        Matcher condition = CONDITION.matcher(query.getOrDefault("$filter", ""));
+        while (condition.find()) {
+            conditions.put(condition.group(1), condition.group(2).replace("''", "'"));
+        }
+        List<String> select = query.containsKey("$select") ? List.of(query.get("$select").split(",")) : null;
+        List<Map<String, Object>> value = new ArrayList<>();
+        for (Entity entity : entities.values()) {
+            Map<String, Object> properties = entity.properties();
+            properties.put("PartitionKey", entity.partitionKey());
+            properties.put("RowKey", entity.rowKey());
+            if (!conditions.entrySet().stream().allMatch(e -> e.getValue().equals(properties.get(e.getKey())))) {
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("odata.etag", entity.etag());
+            properties.forEach((name, property) -> {
+                String propertyName = name.endsWith("@odata.type") ? name.substring(0, name.length() - "@odata.type".length()) : name;
+                if (select == null || select.contains(propertyName)) {
+                    row.put(name, property);
+                }
+            });
+            value.add(row);
+        }
+        return json(request, 200, Map.of("value", value));
+    }
+
+    /**
+     * Applies an entity group transaction, which is rejected as a whole if one of its operations fails.
+     */
+    private HttpResponse transaction(final HttpRequest request) {
+        String body = request.getBodyAsBinaryData().toString();
+        Matcher boundary = CHANGESET_BOUNDARY.matcher(body);
+        if (!boundary.find()) {
+            return tableError(request, 400, "InvalidInput");
+        }
+        Map<String, NavigableMap<String, Entity>> snapshot = new ConcurrentHashMap<>();
+        tables.forEach((table, entities) -> snapshot.put(table, new ConcurrentSkipListMap<>(entities)));
+
+        String[] parts = body.split("--" + Pattern.quote(boundary.group(1)));
+        List<Outcome> outcomes = new ArrayList<>();
+        Outcome failure = null;
+        for (int i = 1; i < parts.length && failure == null; i++) {
+            if (parts[i].startsWith("--")) {
+                break;
+            }
+            // application/http part headers, request line, request headers and body are separated by blank lines
+            String[] sections = parts[i].split(CRLF + CRLF, 3);
+            String[] lines = sections[1].split(CRLF);
+            String[] requestLine = lines[0].split(" ");
+            String ifMatch = null;
+            for (int j = 1; j < lines.length; j++) {
+                if (lines[j].regionMatches(true, 0, "If-Match:", 0, "If-Match:".length())) {
+                    ifMatch = lines[j].substring("If-Match:".length()).trim();
+                }
+            }
+            Matcher entity;
+            try {
+                entity = ENTITY_PATH.matcher(new URI(requestLine[1]).getPath());
+            } catch (URISyntaxException e) {
+                return tableError(request, 400, "InvalidUri");
+            }
+            Outcome outcome = entity.matches()
+                    ? apply(HttpMethod.valueOf(requestLine[0]), entity, ifMatch, BinaryData.fromString(sections.length > 2 ? sections[2].trim() : ""))
+                    : new Outcome(400, "InvalidInput", null);
+            if (outcome.status() >= 300) {
+                failure = new Outcome(outcome.status(), (i - 1) + ":" + outcome.code(), null);
+            }
+            outcomes.add(outcome);
+        }
+        if (failure != null) {
+            tables.clear();
+            tables.putAll(snapshot);
+        }
+
+        String batchBoundary = "batchresponse_" + UUID.randomUUID();
+        String changesetBoundary = "changesetresponse_" + UUID.randomUUID();
+        StringBuilder response = new StringBuilder()
+                .append("--").append(batchBoundary).append(CRLF)
+                .append("Content-Type: multipart/mixed; boundary=").append(changesetBoundary).append(CRLF).append(CRLF);
+        for (Outcome outcome : failure == null ? outcomes : List.of(failure)) {
+            response.append("--").append(changesetBoundary).append(CRLF)
+                    .append("Content-Type: application/http").append(CRLF)
+                    .append("Content-Transfer-Encoding: binary").append(CRLF).append(CRLF)
+                    .append("HTTP/1.1 ").append(outcome.status()).append(outcome.status() < 300 ? " No Content" : " Error").append(CRLF);
+            if (outcome.status() < 300) {
+                response.append("ETag: ").append(outcome.etag()).append(CRLF).append(CRLF).append(CRLF);
+            } else {
+                String code = outcome.code().substring(outcome.code().indexOf(':') + 1);
+                response.append("Content-Type: ").append(JSON_CONTENT_TYPE).append(CRLF).append(CRLF)
+                        .append(errorBody(code, outcome.code())).append(CRLF);
+            }
+        }
+        response.append("--").append(changesetBoundary).append("--").append(CRLF)
+                .append("--").append(batchBoundary).append("--").append(CRLF);
+        HttpHeaders headers = new HttpHeaders().set(HttpHeaderName.CONTENT_TYPE, "multipart/mixed; boundary=" + batchBoundary);
+        return new Response(request, 202, headers, response.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Outcome apply(final HttpMethod method, final Matcher path, final String ifMatch, final BinaryData body) {
+        NavigableMap<String, Entity> entities = tables.get(path.group(1));
+        if (entities == null) {
+            return new Outcome(404, "TableNotFound", null);
+        }
+        String partitionKey = path.group(2).replace("''", "'");
+        String rowKey = path.group(3).replace("''", "'");
+        String key = key(partitionKey, rowKey);
+        Entity existing = entities.get(key);
+        if (method == HttpMethod.DELETE) {
+            if (existing == null) {
+                return new Outcome(404, "ResourceNotFound", null);
+            }
+            if (ifMatch != null && !"*".equals(ifMatch) && !ifMatch.equals(existing.etag())) {
+                return new Outcome(412, "UpdateConditionNotSatisfied", null);
+            }
+            entities.remove(key);
+            return new Outcome(204, null, null);
+        }
+        if (method == HttpMethod.PUT) {
+            if (ifMatch != null && (existing == null || !"*".equals(ifMatch) && !ifMatch.equals(existing.etag()))) {
+                return new Outcome(existing == null ? 404 : 412, existing == null ? "ResourceNotFound" : "UpdateConditionNotSatisfied", null);
+            }
+            Map<String, Object> properties = parse(body);
+            properties.remove("PartitionKey");
+            properties.remove("RowKey");
+            Entity entity = new Entity(partitionKey, rowKey, properties, nextETag());
+            entities.put(key, entity);
+            return new Outcome(204, null, entity.etag());
+        }
+        return new Outcome(400, "UnsupportedOperation", null);
+    }
+
+    private String nextETag() {
+        return "W/\"datetime'" + etagSequence.incrementAndGet() + "'\"";
+    }
+
+    private static String key(final String partitionKey, final String rowKey) {
+        return partitionKey + '\u0000' + rowKey;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parse(final BinaryData body) {
+        try {
+            return new LinkedHashMap<>(JSON.readValue(body.toBytes(), Map.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static HttpResponse json(final HttpRequest request, final int status, final Object value) {
+        HttpHeaders headers = new HttpHeaders().set(HttpHeaderName.CONTENT_TYPE, JSON_CONTENT_TYPE);
+        try {
+            return new Response(request, status, headers, JSON.writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static HttpResponse tableError(final HttpRequest request, final int status, final String code) {
+        HttpHeaders headers = new HttpHeaders().set(ERROR_CODE_HEADER, code).set(HttpHeaderName.CONTENT_TYPE, JSON_CONTENT_TYPE);
+        return new Response(request, status, headers, errorBody(code, code).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String errorBody(final String code, final String message) {
+        try {
+            return JSON.writeValueAsString(Map.of("odata.error", Map.of("code", code, "message", Map.of("lang", "en-US", "value", message))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Outcome(int status, String code, String etag) {
+    }
+
+    private record Entity(String partitionKey, String rowKey, Map<String, Object> properties, String etag) {
+        @Override
+        public Map<String, Object> properties() {
+            return new LinkedHashMap<>(properties);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.time.Duration;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link JitteredRetryStrategy}.
+ */
+public class JitteredRetryStrategyTest {
+
+    @Test
+    public void testDelayBounds() {
+        JitteredRetryStrategy strategy = new JitteredRetryStrategy(5, Duration.ofMillis(100), Duration.ofMillis(1000));
+        Assert.assertEquals(5, strategy.getMaxRetries());
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(100, strategy.calculateRetryDelay(0).toMillis());
+            long delay = strategy.calculateRetryDelay(2).toMillis();
+            Assert.assertTrue("delay " + delay, delay >= 100 && delay <= 400);
+            // Capped by the maximum delay, also for retry counts which would overflow the exponential delay
+            delay = strategy.calculateRetryDelay(100).toMillis();
+            Assert.assertTrue("delay " + delay, delay >= 100 && delay <= 1000);
+        }
+    }
+
+    @Test
+    public void testJitter() {
+        JitteredRetryStrategy strategy = new JitteredRetryStrategy(5, Duration.ofMillis(100), Duration.ofMillis(10_000));
+        long first = strategy.calculateRetryDelay(5).toMillis();
+        for (int i = 0; i < 100; i++) {
+            if (strategy.calculateRetryDelay(5).toMillis() != first) {
+                return;
+            }
+        }
+        Assert.fail("retry delays are not jittered");
+    }
+}
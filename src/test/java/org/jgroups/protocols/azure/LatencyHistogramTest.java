@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketBoundaries() {
+        for (long value : new long[] {0, 1, 7, 8, 9, 15, 16, 1_000, 123_456, 10_000_000_000L, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.index(value);
+            Assert.assertTrue("value " + value, value <= LatencyHistogram.upperBound(index));
+            if (index > 0) {
+                Assert.assertTrue("value " + value, value > LatencyHistogram.upperBound(index - 1));
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.percentile(50));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        Assert.assertEquals(1000, histogram.count());
+        Assert.assertEquals(1000, histogram.max());
+        // Percentiles are accurate within the bucket width of 12.5%
+        Assert.assertEquals(500, histogram.percentile(50), 500 * 0.125);
+        Assert.assertEquals(990, histogram.percentile(99), 990 * 0.125);
+        Assert.assertEquals(1000, histogram.percentile(100));
+
+        histogram.reset();
+        Assert.assertEquals(0, histogram.count());
+        Assert.assertEquals(0, histogram.max());
+    }
+}
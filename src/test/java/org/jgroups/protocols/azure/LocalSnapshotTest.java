@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.jgroups.util.ByteArray;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link LocalSnapshot}.
+ */
+public class LocalSnapshotTest {
+
+    private Path file;
+
+    @Before
+    public void createFile() throws Exception {
+        file = Files.createTempFile("azure-ping", ".snapshot");
+        Files.delete(file);
+    }
+
+    @After
+    public void deleteFile() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testReadWrittenPingData() throws Exception {
+        LocalSnapshot snapshot = new LocalSnapshot(file);
+        Assert.assertNull(snapshot.read("cluster"));
+
+        Assert.assertTrue(snapshot.write("cluster", bytes("members")));
+        Assert.assertEquals("members", string(snapshot.read("cluster")));
+        // A restarted member reads the file written before
+        Assert.assertEquals("members", string(new LocalSnapshot(file).read("cluster")));
+        Assert.assertTrue(Files.notExists(file.resolveSibling(file.getFileName() + ".tmp")));
+    }
+
+    @Test
+    public void testReadOtherCluster() throws Exception {
+        LocalSnapshot snapshot = new LocalSnapshot(file);
+        snapshot.write("cluster", bytes("members"));
+        Assert.assertNull(snapshot.read("other"));
+        // Neither a cluster whose name the name of the snapshot's cluster starts with
+        Assert.assertNull(snapshot.read("clust"));
+    }
+
+    @Test
+    public void testUnchangedPingDataAreNotRewritten() throws Exception {
+        LocalSnapshot snapshot = new LocalSnapshot(file);
+        Assert.assertTrue(snapshot.write("cluster", bytes("members")));
+        Files.delete(file);
+        Assert.assertFalse(snapshot.write("cluster", new ByteArray("-members-".getBytes(StandardCharsets.UTF_8), 1, 7)));
+        Assert.assertTrue(Files.notExists(file));
+
+        Assert.assertTrue(snapshot.write("other", bytes("members")));
+        Assert.assertEquals("members", string(snapshot.read("other")));
+    }
+
+    private static ByteArray bytes(final String content) {
+        return new ByteArray(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String string(final ByteArray data) {
+        return new String(data.array(), data.offset(), data.length(), StandardCharsets.UTF_8);
+    }
+}
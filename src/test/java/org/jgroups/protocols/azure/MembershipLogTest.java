@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jgroups.protocols.azure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.models.BlobStorageException;
+import org.jgroups.Address;
+import org.jgroups.protocols.PingData;
+import org.jgroups.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link MembershipLog}.
+ */
+public class MembershipLogTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private InMemoryBlobService service;
+    private BlobClient blobClient;
+
+    @Before
+    public void setUp() {
+        service = new InMemoryBlobService();
+        BlobContainerClient containerClient = new BlobServiceClientBuilder()
+                .httpClient(service)
+                .connectionString(InMemoryBlobService.CONNECTION_STRING)
+                .buildClient()
+                .getBlobContainerClient("jgroups");
+        containerClient.create();
+        blobClient = containerClient.getBlobClient("cluster.log");
+    }
+
+    @Test
+    public void testReadAppended() {
+        MembershipLog writer = newLog();
+        MembershipLog reader = newLog();
+        assertNull(reader.read(TIMEOUT));
+        assertTrue(!writer.append(update("a", 1), TIMEOUT));
+
+        writer.compact(null, List.of(update("a", 1), update("b", 2)), TIMEOUT);
+        assertEquals(Set.of(1L, 2L), members(reader.read(TIMEOUT)));
+        assertTrue(reader.isValid());
+
+        assertTrue(writer.append(update("c", 3), TIMEOUT));
+        assertTrue(writer.append(MembershipLog.record(MembershipLog.RECORD_REMOVE, "a", null), TIMEOUT));
+        assertTrue(writer.append(update("b", 4), TIMEOUT));
+
+        // Only the tail is transferred
+        long size = blobClient.getProperties().getBlobSize();
+        service.resetRequestCounts();
+        assertEquals(Set.of(3L, 4L), members(reader.read(TIMEOUT)));
+        assertEquals(1, service.getRequestCount());
+        assertEquals(Set.of(3L, 4L), members(reader.read(TIMEOUT)));
+        assertEquals(size, blobClient.getProperties().getBlobSize());
+
+        assertTrue(writer.append(MembershipLog.record(MembershipLog.RECORD_REMOVE_ALL, null, null), TIMEOUT));
+        assertEquals(Set.of(), members(reader.read(TIMEOUT)));
+    }
+
+    @Test
+    public void testCompact() {
+        MembershipLog writer = newLog();
+        MembershipLog reader = newLog();
+        writer.compact(null, List.of(update("a", 1)), TIMEOUT);
+        for (int i = 0; i < 10; i++) {
+            writer.append(update("b", i + 10), TIMEOUT);
+        }
+        assertEquals(Set.of(1L, 19L), members(reader.read(TIMEOUT)));
+
+        // A new generation shorter than the consumed offset, and one which is not, are both detected
+        writer.compact(writer.getProperties(TIMEOUT), List.of(update("c", 2)), TIMEOUT);
+        assertEquals(Set.of(2L), members(reader.read(TIMEOUT)));
+        writer.compact(writer.getProperties(TIMEOUT), List.of(update("d", 3), update("e", 4), update("f", 5)), TIMEOUT);
+        assertEquals(Set.of(3L, 4L, 5L), members(reader.read(TIMEOUT)));
+
+        // Compaction fails if the log was appended to since its properties were read
+        var properties = writer.getProperties(TIMEOUT);
+        writer.append(update("g", 6), TIMEOUT);
+        try {
+            writer.compact(properties, List.of(), TIMEOUT);
+            fail("Compaction of a modified log must fail");
+        } catch (BlobStorageException e) {
+            assertEquals(412, e.getStatusCode());
+        }
+        assertEquals(Set.of(3L, 4L, 5L, 6L), members(reader.read(TIMEOUT)));
+
+        // Compaction fails if the log was created concurrently
+        blobClient.delete();
+        writer.compact(null, List.of(), TIMEOUT);
+        try {
+            writer.compact(null, List.of(), TIMEOUT);
+            fail("Compaction of a log created concurrently must fail");
+        } catch (BlobStorageException e) {
+            assertEquals(409, e.getStatusCode());
+        }
+    }
+
+    @Test
+    public void testIncompleteGeneration() {
+        MembershipLog log = newLog();
+        blobClient.getAppendBlobClient().create();
+        log.append(update("a", 1), TIMEOUT);
+        assertNull(log.read(TIMEOUT));
+        assertTrue(!log.isValid());
+
+        log.compact(log.getProperties(TIMEOUT), List.of(update("a", 1)), TIMEOUT);
+        assertNotNull(log.read(TIMEOUT));
+        assertTrue(log.isValid());
+
+        blobClient.delete();
+        assertNull(log.read(TIMEOUT));
+        assertTrue(!log.isValid());
+    }
+
+    @Test
+    public void testNeedsCompaction() {
+        MembershipLog log = newLog();
+        assertTrue(log.needsCompaction(log.getProperties(TIMEOUT), Set.of(), 1024, TIMEOUT));
+
+        log.compact(null, List.of(update("a", 1), update("b", 2)), TIMEOUT);
+        assertTrue(!log.needsCompaction(log.getProperties(TIMEOUT), Set.of("a", "b"), 1024, TIMEOUT));
+        // Larger than the maximum size
+        assertTrue(log.needsCompaction(log.getProperties(TIMEOUT), Set.of("a", "b"), 1, TIMEOUT));
+        // Missing a file, e.g. because appending its record failed
+        assertTrue(log.needsCompaction(log.getProperties(TIMEOUT), Set.of("a", "b", "c"), 1024, TIMEOUT));
+
+        // Incomplete generation
+        blobClient.delete();
+        blobClient.getAppendBlobClient().create();
+        assertTrue(log.needsCompaction(log.getProperties(TIMEOUT), Set.of(), 1024, TIMEOUT));
+    }
+
+    private MembershipLog newLog() {
+        return new MembershipLog(blobClient, bytes -> List.of(new PingData(new UUID(0, bytes[0]), true)));
+    }
+
+    private static byte[] update(final String name, final int member) {
+        return MembershipLog.record(MembershipLog.RECORD_UPDATE, name, new byte[] {(byte) member});
+    }
+
+    private static Set<Long> members(final List<PingData> list) {
+        assertNotNull(list);
+        return list.stream().map(PingData::getAddress).map(Address.class::cast)
+                .map(address -> ((UUID) address).getLeastSignificantBits()).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.azure.storage.common.StorageSharedKeyCredential;
+import org.jgroups.protocols.PingData;
+import org.jgroups.stack.IpAddress;
+import org.jgroups.util.UUID;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link MembershipNotifications}.
+ */
+public class MembershipNotificationsTest {
+
+    private static final long FRESH = TimeUnit.MINUTES.toNanos(1);
+
+    private final AZURE_PING ping = new AZURE_PING();
+    private final InMemoryQueueService service = new InMemoryQueueService();
+    // Starts after 0, which marks that no poll completed yet
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+    private final MembershipSnapshot snapshot = new MembershipSnapshot(clock::get);
+    private final List<PingData> discovered = new ArrayList<>();
+    private final MembershipNotifications notifications = create("member", snapshot);
+    private final PingData a = pingData("a");
+    private final PingData b = pingData("b");
+
+    @Test
+    public void testApplyEvents() throws Exception {
+        snapshot.refresh("cluster", clustername -> List.of(a));
+        Assert.assertTrue(notifications.apply("cluster", MembershipNotifications.update(a.getAddress(), ping.serialize(List.of(a, b)))));
+        Assert.assertEquals(List.of(a, b), discovered);
+        Assert.assertEquals(List.of(a, b), snapshot.get("cluster", FRESH, Assert::fail));
+
+        Assert.assertTrue(notifications.apply("cluster", MembershipNotifications.update(b.getAddress(), ping.serialize(List.of(b)))));
+        Assert.assertTrue(notifications.apply("cluster", MembershipNotifications.remove(a.getAddress())));
+        Assert.assertEquals(List.of(b), snapshot.get("cluster", FRESH, Assert::fail));
+
+        Assert.assertTrue(notifications.apply("cluster", MembershipNotifications.removeAll()));
+        Assert.assertEquals(List.of(), snapshot.get("cluster", FRESH, Assert::fail));
+
+        Assert.assertFalse(notifications.apply("cluster", new byte[] {42}));
+    }
+
+    @Test
+    public void testPostedEventsAreReceived() throws Exception {
+        MembershipSnapshot otherSnapshot = new MembershipSnapshot();
+        MembershipNotifications other = create("other", otherSnapshot);
+        otherSnapshot.refresh("cluster", clustername -> List.of());
+        // Polling creates the queue of a member
+        other.getQueue().poll(null);
+
+        Assert.assertTrue(notifications.post(MembershipNotifications.update(a.getAddress(), ping.serialize(List.of(a))), List.of("other"), null));
+        for (byte[] event : other.getQueue().poll(null).events()) {
+            other.apply("cluster", event);
+        }
+        Assert.assertEquals(List.of(a), otherSnapshot.get("cluster", FRESH, Assert::fail));
+
+        // Events exceeding the maximum message size are left to reading the ping data files
+        Assert.assertFalse(notifications.post(new byte[NotificationQueue.MAX_MESSAGE_SIZE + 1], List.of("other"), null));
+        Assert.assertTrue(other.getQueue().poll(null).events().isEmpty());
+    }
+
+    @Test
+    public void testCompletePollsKeepSnapshotFresh() {
+        long staleness = TimeUnit.SECONDS.toNanos(1);
+        notifications.completed("cluster", clock.get());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        snapshot.refresh("cluster", clustername -> List.of(a));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        Assert.assertNull(snapshot.get("cluster", staleness, () -> {}));
+
+        // Renewed by a complete poll whose previous complete poll started before the snapshot was taken
+        notifications.completed("cluster", clock.get());
+        Assert.assertEquals(List.of(a), snapshot.get("cluster", staleness, () -> {}));
+
+        // Not renewed by the first complete poll after a reset, since events may have been missed before
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        Assert.assertNull(snapshot.get("cluster", staleness, () -> {}));
+        notifications.reset();
+        notifications.completed("cluster", clock.get());
+        Assert.assertNull(snapshot.get("cluster", staleness, () -> {}));
+    }
+
+    @Test
+    public void testCompletePollsAfterTtlDoNotKeepSnapshotFresh() {
+        MembershipNotifications notifications = new MembershipNotifications(this.notifications.getQueue(), snapshot, this::parse, discovered::add,
+                Duration.ofSeconds(10));
+        long staleness = TimeUnit.SECONDS.toNanos(1);
+        notifications.completed("cluster", clock.get());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        snapshot.refresh("cluster", clustername -> List.of(a));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        // Events may have expired unseen since the previous complete poll
+        notifications.completed("cluster", clock.get());
+        Assert.assertNull(snapshot.get("cluster", staleness, () -> {}));
+    }
+
+    private MembershipNotifications create(final String member, final MembershipSnapshot snapshot) {
+        NotificationQueue queue = new NotificationQueue(service, null, InMemoryQueueService.ENDPOINT,
+                new StorageSharedKeyCredential(InMemoryBlobService.ACCOUNT_NAME, InMemoryBlobService.ACCOUNT_KEY), null,
+                "jgroups-ping", "cluster", member, Duration.ofMinutes(1));
+        return new MembershipNotifications(queue, snapshot, this::parse, discovered::add, Duration.ofMinutes(1));
+    }
+
+    private List<PingData> parse(final InputStream in) {
+        try {
+            return ping.parsePingData(in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static PingData pingData(final String name) {
+        return new PingData(UUID.randomUUID(), true, name, new IpAddress(InetAddress.getLoopbackAddress(), 7800));
+    }
+}
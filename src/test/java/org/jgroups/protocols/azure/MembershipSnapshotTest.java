@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.jgroups.Address;
+import org.jgroups.protocols.PingData;
+import org.jgroups.stack.IpAddress;
+import org.jgroups.util.UUID;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link MembershipSnapshot}.
+ */
+public class MembershipSnapshotTest {
+
+    private static final long FRESH = TimeUnit.MINUTES.toNanos(1);
+
+    private final MembershipSnapshot snapshot = new MembershipSnapshot();
+    private final PingData a = pingData("a");
+    private final PingData b = pingData("b");
+    private final PingData c = pingData("c");
+
+    @Test
+    public void testRefreshOnlyWhenStale() {
+        AtomicInteger reads = new AtomicInteger();
+        Function<String, List<PingData>> reader = clustername -> {
+            reads.incrementAndGet();
+            return List.of(a, b);
+        };
+        Assert.assertEquals(List.of(a, b), snapshot.get("cluster", FRESH, () -> snapshot.refresh("cluster", reader)));
+        Assert.assertEquals(List.of(a, b), snapshot.get("cluster", FRESH, () -> snapshot.refresh("cluster", reader)));
+        Assert.assertEquals(1, reads.get());
+
+        // Neither fresh for another cluster nor once older than the staleness
+        Assert.assertEquals(List.of(a, b), snapshot.get("other", FRESH, () -> snapshot.refresh("other", reader)));
+        Assert.assertEquals(2, reads.get());
+        snapshot.get("other", 0, () -> snapshot.refresh("other", reader));
+        Assert.assertEquals(3, reads.get());
+    }
+
+    @Test
+    public void testFailedRefreshKeepsSnapshot() {
+        Assert.assertTrue(snapshot.refresh("cluster", clustername -> List.of(a)));
+        Assert.assertFalse(snapshot.refresh("cluster", clustername -> null));
+        Assert.assertEquals(List.of(a), snapshot.get("cluster", FRESH, Assert::fail));
+
+        // A stale snapshot which cannot be refreshed answers no discovery request
+        Assert.assertNull(snapshot.get("cluster", 0, () -> snapshot.refresh("cluster", clustername -> null)));
+
+        snapshot.clear();
+        Assert.assertNull(snapshot.get("cluster", FRESH, () -> {}));
+    }
+
+    @Test
+    public void testConcurrentCallersShareRefresh() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable refresher = () -> snapshot.refresh("cluster", clustername -> {
+            reads.incrementAndGet();
+            reading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(a);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<List<PingData>> first = executor.submit(() -> snapshot.get("cluster", FRESH, refresher));
+            Assert.assertTrue(reading.await(10, TimeUnit.SECONDS));
+            List<Future<List<PingData>>> waiting = List.of(executor.submit(() -> snapshot.get("cluster", FRESH, refresher)),
+                    executor.submit(() -> snapshot.get("cluster", FRESH, refresher)));
+            release.countDown();
+            Assert.assertEquals(List.of(a), first.get(10, TimeUnit.SECONDS));
+            for (Future<List<PingData>> future : waiting) {
+                Assert.assertEquals(List.of(a), future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1, reads.get());
+    }
+
+    @Test
+    public void testUpdateReplacesMembersOfNotifiedFile() {
+        snapshot.refresh("cluster", clustername -> List.of(a, b, c));
+        snapshot.update("cluster", a.getAddress(), List.of(a, b));
+        Assert.assertEquals(List.of(a, b, c), get());
+
+        // Members listed only by the previous version of the file were dropped, unless another notified file lists them
+        snapshot.update("cluster", c.getAddress(), List.of(c));
+        snapshot.update("cluster", a.getAddress(), List.of(a));
+        Assert.assertEquals(List.of(a, c), get());
+
+        // The removal of a file drops its owner
+        snapshot.update("cluster", c.getAddress(), null);
+        Assert.assertEquals(List.of(a), get());
+
+        // Changes of other clusters are ignored
+        snapshot.update("other", b.getAddress(), List.of(b));
+        Assert.assertEquals(List.of(a), get());
+
+        snapshot.removeAll("cluster");
+        Assert.assertEquals(List.of(), get());
+    }
+
+    @Test
+    public void testConfirm() throws InterruptedException {
+        snapshot.refresh("cluster", clustername -> List.of(a));
+        long refreshed = System.nanoTime();
+        Thread.sleep(50);
+        long staleness = System.nanoTime() - refreshed;
+        Assert.assertNull(snapshot.get("cluster", staleness, () -> {}));
+
+        // Not renewed by a poll whose previous complete poll was before the snapshot was taken
+        snapshot.confirm("cluster", System.nanoTime(), System.nanoTime());
+        Assert.assertNull(snapshot.get("cluster", staleness, () -> {}));
+
+        snapshot.confirm("cluster", refreshed - TimeUnit.SECONDS.toNanos(1), System.nanoTime());
+        Assert.assertEquals(List.of(a), snapshot.get("cluster", staleness, () -> {}));
+    }
+
+    private List<PingData> get() {
+        return snapshot.get("cluster", FRESH, Assert::fail);
+    }
+
+    private static PingData pingData(final String name) {
+        Address address = UUID.randomUUID();
+        return new PingData(address, true, name, new IpAddress(InetAddress.getLoopbackAddress(), 7800));
+    }
+}
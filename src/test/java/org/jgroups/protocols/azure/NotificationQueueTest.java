@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import com.azure.storage.common.StorageSharedKeyCredential;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link NotificationQueue}.
+ */
+public class NotificationQueueTest {
+
+    private static final Pattern QUEUE_NAME = Pattern.compile("[a-z0-9](?!.*--)[a-z0-9-]{1,61}[a-z0-9]");
+
+    @Test
+    public void testQueueName() {
+        String name = NotificationQueue.queueName("jgroups-ping", "``\\//--+ěščřžýáíé==''!@#$%^&*()_{}<>?", "member");
+        assertTrue(name, QUEUE_NAME.matcher(name).matches());
+        assertNotEquals(name, NotificationQueue.queueName("jgroups-ping", "other", "member"));
+        assertNotEquals(name, NotificationQueue.queueName("jgroups-ping", "``\\//--+ěščřžýáíé==''!@#$%^&*()_{}<>?", "other"));
+
+        // Truncated container names must neither exceed the length limit nor end up with consecutive dashes
+        String container = "a".repeat(36) + "-b" + "c".repeat(25);
+        name = NotificationQueue.queueName(container, "cluster", "member");
+        assertTrue(name, QUEUE_NAME.matcher(name).matches());
+    }
+
+    @Test
+    public void testPostAndPoll() {
+        InMemoryQueueService service = new InMemoryQueueService();
+        NotificationQueue a = create(service, "a");
+        NotificationQueue b = create(service, "b");
+
+        // Polling creates the queue of a member, without which events posted to it are skipped
+        b.post(new byte[] {1}, List.of("a"), null);
+        assertFalse(a.poll(null).complete());
+        assertTrue(service.hasQueue(a.getName()));
+
+        b.post(new byte[] {1, 2, 3}, List.of("a", "unknown"), null);
+        NotificationQueue.Poll poll = a.poll(null);
+        assertEquals(1, poll.events().size());
+        assertArrayEquals(new byte[] {1, 2, 3}, poll.events().get(0));
+        assertTrue(poll.complete());
+
+        // Received events are hidden until they expire
+        assertTrue(a.poll(null).events().isEmpty());
+        assertEquals(1, service.count(a.getName()));
+
+        // More events than a single receive returns are neither hidden nor returned twice
+        int count = NotificationQueue.MAX_RECEIVED_MESSAGES * 2 + 1;
+        for (int i = 0; i < count; i++) {
+            b.post(new byte[] {(byte) i}, List.of("a"), null);
+        }
+        poll = a.poll(null);
+        assertEquals(count, poll.events().size());
+        assertEquals(count - 1, poll.events().get(count - 1)[0]);
+        assertTrue(poll.complete());
+
+        a.delete(null);
+        assertFalse(service.hasQueue(a.getName()));
+    }
+
+    private static NotificationQueue create(final InMemoryQueueService service, final String member) {
+        return new NotificationQueue(service, null, InMemoryQueueService.ENDPOINT,
+                new StorageSharedKeyCredential(InMemoryBlobService.ACCOUNT_NAME, InMemoryBlobService.ACCOUNT_KEY), null,
+                "jgroups-ping", "cluster", member, Duration.ofMinutes(1));
+    }
+}
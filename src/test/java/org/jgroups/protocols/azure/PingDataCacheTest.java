@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.List;
+import java.util.Set;
+
+import org.jgroups.protocols.PingData;
+import org.jgroups.util.UUID;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link PingDataCache}.
+ */
+public class PingDataCacheTest {
+
+    private static final List<PingData> DATA = List.of(new PingData(UUID.randomUUID(), true));
+
+    @Test
+    public void testETagMismatch() {
+        PingDataCache cache = new PingDataCache(10);
+        cache.put("a", "0x1", DATA);
+
+        Assert.assertSame(DATA, cache.get("a", "0x1"));
+        Assert.assertNull(cache.get("a", "0x2"));
+        Assert.assertNull(cache.get("a", null));
+        Assert.assertNull(cache.get("b", "0x1"));
+    }
+
+    @Test
+    public void testBoundedSize() {
+        PingDataCache cache = new PingDataCache(2);
+        cache.put("a", "0x1", DATA);
+        cache.put("b", "0x1", DATA);
+        // Access "a" so that "b" becomes the least recently used entry
+        cache.get("a", "0x1");
+        cache.put("c", "0x1", DATA);
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertNotNull(cache.get("a", "0x1"));
+        Assert.assertNull(cache.get("b", "0x1"));
+        Assert.assertNotNull(cache.get("c", "0x1"));
+    }
+
+    @Test
+    public void testRetainAll() {
+        PingDataCache cache = new PingDataCache(10);
+        cache.put("a", "0x1", DATA);
+        cache.put("b", "0x1", DATA);
+        cache.retainAll(Set.of("b"));
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertNull(cache.get("a", "0x1"));
+    }
+}
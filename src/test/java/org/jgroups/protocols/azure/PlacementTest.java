@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jgroups.protocols.azure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpHeaders;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit test for {@link Placement}.
+ */
+public class PlacementTest {
+
+    @Test
+    public void testDistance() {
+        Placement placement = new Placement("westeurope", "westeurope-1");
+        assertEquals(0, placement.distance(new Placement("westeurope", "westeurope-1")));
+        assertEquals(1, placement.distance(new Placement("westeurope", "westeurope-2")));
+        assertEquals(1, placement.distance(new Placement("westeurope", null)));
+        assertEquals(2, placement.distance(new Placement("northeurope", "northeurope-1")));
+        assertEquals(2, placement.distance(new Placement(null, null)));
+        assertEquals(2, placement.distance(null));
+    }
+
+    @Test
+    public void testFromInstanceMetadata() throws Exception {
+        Placement placement = Placement.fromInstanceMetadata(instanceMetadata(200,
+                "{\"location\":\"westeurope\",\"name\":\"vm\",\"tagsList\":[{\"name\":\"a\",\"value\":\"b\"}],\"zone\":\"2\"}"),
+                Placement.INSTANCE_METADATA_URI, Duration.ofSeconds(10));
+        assertEquals(new Placement("westeurope", "westeurope-2"), placement);
+
+        // Virtual machines outside availability zones only have a region
+        placement = Placement.fromInstanceMetadata(instanceMetadata(200, "{\"location\":\"westeurope\",\"zone\":\"\"}"),
+                Placement.INSTANCE_METADATA_URI, Duration.ofSeconds(10));
+        assertEquals(new Placement("westeurope", null), placement);
+        assertTrue(placement.isKnown());
+
+        // Configured values take precedence
+        assertEquals(new Placement("westeurope", "westeurope-3"), new Placement(null, "westeurope-3").override(placement));
+        assertFalse(new Placement(null, null).isKnown());
+    }
+
+    @Test(expected = IOException.class)
+    public void testInstanceMetadataError() throws Exception {
+        Placement.fromInstanceMetadata(instanceMetadata(400, "{\"error\":\"Bad request\"}"), Placement.INSTANCE_METADATA_URI, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Local stand-in for the instance metadata service, which only answers requests with the {@code Metadata} header.
+     */
+    static HttpClient instanceMetadata(final int status, final String json) {
+        return request -> Mono.just(new InMemoryBlobService.Response(request,
+                "true".equals(request.getHeaders().getValue(HttpHeaderName.fromString("Metadata"))) ? status : 400,
+                new HttpHeaders().set(HttpHeaderName.CONTENT_TYPE, "application/json"), json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
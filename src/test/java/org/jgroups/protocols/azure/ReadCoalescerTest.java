@@ -0,0 +1,249 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jgroups.protocols.azure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jgroups.protocols.PingData;
+import org.jgroups.util.UUID;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ReadCoalescer}.
+ */
+public class ReadCoalescerTest {
+
+    private static final List<PingData> PING_DATA = List.of(new PingData(UUID.randomUUID(), true));
+
+    @Test
+    public void testConcurrentReadsShareOneRead() throws Exception {
+        ReadCoalescer.Key key = key();
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<ReadCoalescer.Result> leader = executor.submit(() -> ReadCoalescer.read(key, 0, 0, () -> {
+                reads.incrementAndGet();
+                started.countDown();
+                await(release);
+                return complete(PING_DATA);
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            List<Future<ReadCoalescer.Result>> followers = new ArrayList<>();
+            List<Thread> threads = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                followers.add(executor.submit(() -> {
+                    threads.add(Thread.currentThread());
+                    return ReadCoalescer.read(key, 0, 0, () -> {
+                        reads.incrementAndGet();
+                        return complete(List.of());
+                    });
+                }));
+            }
+            // Followers are waiting for the read in flight
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (threads.size() < 7 || !threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+                assertTrue("Followers did not wait for the read in flight", System.nanoTime() - deadline < 0);
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            assertFalse(leader.get(10, TimeUnit.SECONDS).shared());
+            for (Future<ReadCoalescer.Result> follower : followers) {
+                ReadCoalescer.Result result = follower.get(10, TimeUnit.SECONDS);
+                assertTrue(result.shared());
+                assertEquals(PING_DATA, result.list());
+            }
+            assertEquals(1, reads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Without a reuse window, a completed read is not reused
+        assertFalse(ReadCoalescer.read(key, 0, 0, () -> complete(PING_DATA)).shared());
+    }
+
+    @Test
+    public void testReuseWindow() throws Exception {
+        ReadCoalescer.Key key = key();
+        long window = TimeUnit.MILLISECONDS.toNanos(200);
+        ReadCoalescer.Result first = ReadCoalescer.read(key, window, 0, () -> complete(PING_DATA));
+        ReadCoalescer.Result second = ReadCoalescer.read(key, window, 0, () -> complete(List.of()));
+        assertTrue(second.shared());
+        assertSame(first.list(), second.list());
+
+        Thread.sleep(300);
+        assertFalse(ReadCoalescer.read(key, window, 0, () -> complete(List.of())).shared());
+    }
+
+    @Test
+    public void testReuseWindowOfEachRead() throws Exception {
+        ReadCoalescer.Key key = key();
+        ReadCoalescer.Key other = key();
+        long window = TimeUnit.MINUTES.toNanos(1);
+        ReadCoalescer.read(key, window, 0, () -> complete(PING_DATA));
+        ReadCoalescer.read(other, window, 0, () -> complete(PING_DATA));
+
+        // A read without reuse window of one cluster must not evict the read of another one
+        ReadCoalescer.read(key(), 0, 0, () -> complete(PING_DATA));
+        assertTrue(ReadCoalescer.read(other, window, 0, () -> complete(List.of())).shared());
+
+        // A caller with a shorter window does not accept an older read, but starts a new one
+        Thread.sleep(100);
+        ReadCoalescer.Result result = ReadCoalescer.read(key, TimeUnit.MILLISECONDS.toNanos(50), 0, () -> complete(List.of()));
+        assertFalse(result.shared());
+        assertEquals(List.of(), result.list());
+    }
+
+    @Test
+    public void testInterruptedFollowerGetsNoPingData() throws Exception {
+        ReadCoalescer.Key key = key();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ReadCoalescer.Result> leader = executor.submit(() -> ReadCoalescer.read(key, 0, 0, () -> {
+                started.countDown();
+                await(release);
+                return complete(PING_DATA);
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            Future<ReadCoalescer.Result> follower = executor.submit(() -> {
+                Thread.currentThread().interrupt();
+                return ReadCoalescer.read(key, 0, 0, () -> complete(List.of()));
+            });
+            ReadCoalescer.Result result = follower.get(10, TimeUnit.SECONDS);
+            assertTrue(result.shared());
+            assertNull(result.list());
+
+            release.countDown();
+            assertEquals(PING_DATA, leader.get(10, TimeUnit.SECONDS).list());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedReadIsNotReused() {
+        ReadCoalescer.Key key = key();
+        long window = TimeUnit.MINUTES.toNanos(1);
+        try {
+            ReadCoalescer.read(key, window, 0, () -> {
+                throw new IllegalStateException("expected");
+            });
+            fail("The failure of the read must be propagated");
+        } catch (IllegalStateException e) {
+            assertEquals("expected", e.getMessage());
+        }
+        assertFalse(ReadCoalescer.read(key, window, 0, () -> complete(PING_DATA)).shared());
+    }
+
+    @Test
+    public void testIncompleteReadIsNotShared() throws Exception {
+        ReadCoalescer.Key key = key();
+        long window = TimeUnit.MINUTES.toNanos(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ReadCoalescer.Result> leader = executor.submit(() -> ReadCoalescer.read(key, window, 0, () -> {
+                started.countDown();
+                await(release);
+                return new ReadCoalescer.Read(List.of(), false);
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            AtomicInteger reads = new AtomicInteger();
+            Future<ReadCoalescer.Result> follower = executor.submit(() -> ReadCoalescer.read(key, window, 0, () -> {
+                reads.incrementAndGet();
+                return complete(PING_DATA);
+            }));
+            Thread.sleep(100);
+            release.countDown();
+
+            // The leader keeps its partial ping data, while the follower reads for itself
+            ReadCoalescer.Result result = leader.get(10, TimeUnit.SECONDS);
+            assertFalse(result.shared());
+            assertEquals(List.of(), result.list());
+            result = follower.get(10, TimeUnit.SECONDS);
+            assertFalse(result.shared());
+            assertEquals(PING_DATA, result.list());
+            assertEquals(1, reads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Nor is it reused
+        assertFalse(ReadCoalescer.read(key, window, 0, () -> complete(PING_DATA)).shared());
+    }
+
+    @Test
+    public void testFollowerWaitsAtMostItsTimeout() throws Exception {
+        ReadCoalescer.Key key = key();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        try {
+            Future<ReadCoalescer.Result> leader = executor.submit(() -> ReadCoalescer.read(key, 0, 0, () -> {
+                started.countDown();
+                await(release);
+                return complete(PING_DATA);
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            ReadCoalescer.Result result = ReadCoalescer.read(key, 0, TimeUnit.MILLISECONDS.toNanos(100), () -> complete(List.of()));
+            assertTrue(result.shared());
+            assertNull(result.list());
+
+            release.countDown();
+            assertEquals(PING_DATA, leader.get(10, TimeUnit.SECONDS).list());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ReadCoalescer.Read complete(final List<PingData> list) {
+        return new ReadCoalescer.Read(list, true);
+    }
+
+    private static ReadCoalescer.Key key() {
+        return new ReadCoalescer.Key(null, InMemoryBlobService.ENDPOINT + "/container", java.util.UUID.randomUUID().toString());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
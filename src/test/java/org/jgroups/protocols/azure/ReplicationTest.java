@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.net.InetAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.jgroups.Address;
+import org.jgroups.logging.LogFactory;
+import org.jgroups.protocols.PingData;
+import org.jgroups.stack.IpAddress;
+import org.jgroups.util.UUID;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link Replication}.
+ */
+public class ReplicationTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final StorageAccount primary = new StorageAccount("primary", null);
+    private final StorageAccount replica = new StorageAccount("replica", null);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testReadMergesQuorum() {
+        PingData a = pingData();
+        PingData b = pingData();
+        Map<StorageAccount, List<PingData>> contents = Map.of(primary, List.of(a), replica, List.of(a, b));
+
+        List<PingData> list = replication(2, 0).read("cluster", contents::get);
+        Assert.assertEquals(Set.of(a.getAddress(), b.getAddress()), addresses(list));
+    }
+
+    @Test
+    public void testReadFallsBackToNextAccount() {
+        PingData a = pingData();
+        // The replica, read first as its score is lower, fails and the primary is read after it
+        primary.success(TimeUnit.MILLISECONDS.toNanos(50));
+        List<PingData> list = replication(1, 10_000).read("cluster", account -> {
+            if (account == replica) {
+                throw new IllegalStateException("unavailable");
+            }
+            return List.of(a);
+        });
+        Assert.assertEquals(Set.of(a.getAddress()), addresses(list));
+        Assert.assertEquals(1, replica.failures());
+        Assert.assertEquals(0, primary.failures());
+    }
+
+    @Test
+    public void testReadSkipsEmptyAccount() {
+        PingData a = pingData();
+        // A replica added recently holds no ping data yet
+        primary.success(TimeUnit.MILLISECONDS.toNanos(50));
+        List<PingData> list = replication(1, 10_000).read("cluster", account -> account == replica ? List.of() : List.of(a));
+        Assert.assertEquals(Set.of(a.getAddress()), addresses(list));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReadFailsIfAllAccountsFail() {
+        replication(1, 0).read("cluster", account -> {
+            throw new IllegalStateException("unavailable");
+        });
+    }
+
+    @Test
+    public void testReplicate() throws Exception {
+        StorageAccount failing = new StorageAccount("failing", null);
+        Replication replication = new Replication(primary, List.of(replica, failing), executor, 1, 0, LogFactory.getLog(ReplicationTest.class));
+        Set<String> written = ConcurrentHashMap.newKeySet();
+
+        // A failing replica neither fails the others nor the future
+        Replication.await(replication.replicate("writing", account -> {
+            if (account == failing) {
+                throw new IllegalStateException("unavailable");
+            }
+            written.add(account.name());
+        }));
+        Assert.assertEquals(Set.of("replica"), written);
+
+        // Replicas are written in the caller once the executor is shut down
+        executor.shutdownNow();
+        written.clear();
+        Replication.await(replication.replicate("writing", account -> written.add(account.name())));
+        Assert.assertEquals(Set.of("replica", "failing"), written);
+    }
+
+    private Replication replication(final int quorum, final long readDelayMillis) {
+        return new Replication(primary, List.of(replica), executor, quorum, readDelayMillis, LogFactory.getLog(ReplicationTest.class));
+    }
+
+    private static PingData pingData() {
+        Address address = UUID.randomUUID();
+        return new PingData(address, true, address.toString(), new IpAddress(InetAddress.getLoopbackAddress(), 7800));
+    }
+
+    private static Set<Address> addresses(final List<PingData> list) {
+        return list.stream().map(PingData::getAddress).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.jgroups.JChannel;
+import org.jgroups.protocols.SHARED_LOOPBACK;
+import org.jgroups.protocols.UNICAST3;
+import org.jgroups.protocols.pbcast.GMS;
+import org.jgroups.protocols.pbcast.NAKACK2;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link SharedClientRegistry}.
+ */
+public class SharedClientRegistryTest {
+
+    private static SharedClientRegistry.Key key(final String endpoint) {
+        return new SharedClientRegistry.Key(null, endpoint, "myaccount", null, 0, 0, null);
+    }
+
+    private static SharedClientRegistry.Clients clients() {
+        return new SharedClientRegistry.Clients(new InMemoryBlobService(), null);
+    }
+
+    @Test
+    public void testReferenceCounting() {
+        SharedClientRegistry.Key key = key("http://127.0.0.1:10001/myaccount");
+        SharedClientRegistry.Clients first = SharedClientRegistry.acquire(key, SharedClientRegistryTest::clients);
+        SharedClientRegistry.Clients second = SharedClientRegistry.acquire(key, SharedClientRegistryTest::clients);
+        assertSame(first, second);
+        assertEquals(2, SharedClientRegistry.references(key));
+
+        SharedClientRegistry.release(key);
+        assertEquals(1, SharedClientRegistry.references(key));
+        SharedClientRegistry.release(key);
+        assertEquals(0, SharedClientRegistry.references(key));
+
+        // Recreated once all references were released
+        assertNotSame(first, SharedClientRegistry.acquire(key, SharedClientRegistryTest::clients));
+        SharedClientRegistry.release(key);
+    }
+
+    @Test
+    public void testDifferentConfiguration() {
+        SharedClientRegistry.Key key = key("http://127.0.0.1:10002/myaccount");
+        SharedClientRegistry.Key other = key("http://127.0.0.1:10003/myaccount");
+        try {
+            assertNotSame(SharedClientRegistry.acquire(key, SharedClientRegistryTest::clients), SharedClientRegistry.acquire(other, SharedClientRegistryTest::clients));
+        } finally {
+            SharedClientRegistry.release(key);
+            SharedClientRegistry.release(other);
+        }
+    }
+
+    @Test
+    public void testSharedByChannels() throws Exception {
+        String connectionString = "DefaultEndpointsProtocol=http;AccountName=myaccount;AccountKey=" + InMemoryBlobService.ACCOUNT_KEY + ";BlobEndpoint=http://127.0.0.1:10004/myaccount";
+        SharedClientRegistry.Key key = new SharedClientRegistry.Key(connectionString, null, null, null, 0, 0, null);
+
+        try (JChannel first = create(connectionString); JChannel second = create(connectionString)) {
+            assertEquals(2, SharedClientRegistry.references(key));
+        }
+        assertEquals(0, SharedClientRegistry.references(key));
+    }
+
+    private static JChannel create(final String connectionString) throws Exception {
+        AZURE_PING ping = new AZURE_PING();
+        ping.connection_string = connectionString;
+        ping.container = "mycontainer";
+        // Nothing is listening on the endpoint, so do not wait for the container during initialization
+        ping.lazy_container_creation = true;
+        return new JChannel(new SHARED_LOOPBACK(), ping, new NAKACK2(), new UNICAST3(), new GMS());
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link StorageAccountSettings}.
+ */
+public class StorageAccountSettingsTest {
+
+    private static final String CONNECTION_STRING = "DefaultEndpointsProtocol=https;AccountName=myaccount;AccountKey=mykey;EndpointSuffix=core.windows.net";
+
+    @Test
+    public void testEndpoint() {
+        StorageAccountSettings settings = new StorageAccountSettings(null, "myaccount", null, true, null);
+        Assert.assertEquals("https://myaccount.blob.core.windows.net", settings.endpoint("blob", null));
+        Assert.assertEquals("https://myaccount.table.core.windows.net", settings.endpoint("table", ""));
+        Assert.assertEquals("http://localhost:10002/myaccount", settings.endpoint("table", "http://localhost:10002/myaccount"));
+
+        settings = new StorageAccountSettings(null, "myaccount", null, false, "core.chinacloudapi.cn");
+        Assert.assertEquals("http://myaccount.queue.core.chinacloudapi.cn", settings.endpoint("queue", null));
+        Assert.assertTrue(settings.isInsecure());
+    }
+
+    @Test
+    public void testCredentials() {
+        Assert.assertTrue(new StorageAccountSettings(null, "myaccount", "mykey", true, null).useAccessKey());
+        Assert.assertFalse(new StorageAccountSettings(null, "myaccount", "", true, null).useAccessKey());
+
+        // A connection string overrides all other settings
+        StorageAccountSettings settings = new StorageAccountSettings(CONNECTION_STRING, "myaccount", "mykey", false, null);
+        Assert.assertTrue(settings.useConnectionString());
+        Assert.assertFalse(settings.useAccessKey());
+        Assert.assertFalse(settings.isInsecure());
+    }
+
+    @Test
+    public void testValidate() {
+        new StorageAccountSettings(CONNECTION_STRING, null, null, true, null).validate();
+        new StorageAccountSettings(null, "myaccount", null, true, null).validate();
+        Assert.assertThrows(IllegalArgumentException.class, () -> new StorageAccountSettings("", "", null, true, null).validate());
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Red Hat Inc., and individual contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jgroups.protocols.azure;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link StorageAccount}.
+ */
+public class StorageAccountTest {
+
+    @Test
+    public void testScore() {
+        StorageAccount fast = new StorageAccount("fast", null);
+        StorageAccount slow = new StorageAccount("slow", null);
+        StorageAccount failing = new StorageAccount("failing", null);
+        // Not read yet
+        Assert.assertEquals(0, fast.score(), 0);
+
+        fast.success(TimeUnit.MILLISECONDS.toNanos(10));
+        slow.success(TimeUnit.MILLISECONDS.toNanos(200));
+        failing.failure(TimeUnit.MILLISECONDS.toNanos(1));
+        Assert.assertTrue(fast.score() < slow.score());
+        Assert.assertTrue(slow.score() < failing.score());
+        Assert.assertEquals(1, failing.failures());
+    }
+
+    @Test
+    public void testRecovery() {
+        StorageAccount account = new StorageAccount("account", null);
+        account.success(TimeUnit.MILLISECONDS.toNanos(10));
+        account.failure(TimeUnit.MILLISECONDS.toNanos(10));
+        double penalized = account.score();
+        Assert.assertTrue(penalized > TimeUnit.MILLISECONDS.toNanos(100));
+
+        for (int i = 0; i < 20; i++) {
+            account.success(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        Assert.assertEquals(0, account.failures());
+        Assert.assertTrue(account.score() < TimeUnit.MILLISECONDS.toNanos(20));
+    }
+}